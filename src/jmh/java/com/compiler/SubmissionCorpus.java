@@ -0,0 +1,227 @@
+package com.compiler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Benchmark inputs: the seeded {@code code_submissions} rows from the V6 migration plus typical accepted and
+ * rejected programs per language, so the hot path sees both the pass-through and the early-exit branches.
+ */
+public final class SubmissionCorpus {
+
+    public static final Set<String> LANGUAGES = Set.of("java", "python", "cpp", "c", "javascript", "go");
+
+    private static final String SEED_MIGRATION = "/db/migration/V6__Insert_sample_submissions.sql";
+
+    private static final List<Entry> TYPICAL = List.of(
+            new Entry("java", """
+                    import java.util.*;
+
+                    public class Main {
+                        static int[] parent;
+
+                        static int find(int x) {
+                            while (parent[x] != x) {
+                                parent[x] = parent[parent[x]];
+                                x = parent[x];
+                            }
+                            return x;
+                        }
+
+                        public static void main(String[] args) {
+                            int n = 1000;
+                            parent = new int[n];
+                            for (int i = 0; i < n; i++) {
+                                parent[i] = i;
+                            }
+                            List<int[]> edges = new ArrayList<>();
+                            for (int i = 1; i < n; i++) {
+                                edges.add(new int[]{i, (i * 7) % n, (i * 31) % 97});
+                            }
+                            edges.sort(Comparator.comparingInt(e -> e[2]));
+                            long total = 0;
+                            for (int[] e : edges) {
+                                int a = find(e[0]), b = find(e[1]);
+                                if (a != b) {
+                                    parent[a] = b;
+                                    total += e[2];
+                                }
+                            }
+                            System.out.println(total);
+                        }
+                    }
+                    """),
+            new Entry("java", """
+                    public class Main {
+                        public static void main(String[] args) throws Exception {
+                            Process p = Runtime.getRuntime().exec("cat /etc/passwd");
+                            System.out.println(p.waitFor());
+                        }
+                    }
+                    """),
+            new Entry("python", """
+                    from collections import deque
+
+                    def bfs(grid, start):
+                        rows, cols = len(grid), len(grid[0])
+                        dist = [[-1] * cols for _ in range(rows)]
+                        dist[start[0]][start[1]] = 0
+                        queue = deque([start])
+                        while queue:
+                            r, c = queue.popleft()
+                            for dr, dc in ((1, 0), (-1, 0), (0, 1), (0, -1)):
+                                nr, nc = r + dr, c + dc
+                                if 0 <= nr < rows and 0 <= nc < cols and grid[nr][nc] == '.' and dist[nr][nc] < 0:
+                                    dist[nr][nc] = dist[r][c] + 1
+                                    queue.append((nr, nc))
+                        return dist
+
+                    grid = ["....#", ".##..", "...#.", "#...."]
+                    print(max(max(row) for row in bfs(grid, (0, 0))))
+                    """),
+            new Entry("python", """
+                    import subprocess
+                    print(subprocess.check_output(["ls", "/"]))
+                    """),
+            new Entry("cpp", """
+                    #include <bits/stdc++.h>
+                    using namespace std;
+
+                    int main() {
+                        int n = 200;
+                        vector<vector<long long>> dp(n + 1, vector<long long>(n + 1, 0));
+                        for (int i = 0; i <= n; i++) dp[i][0] = 1;
+                        for (int i = 1; i <= n; i++) {
+                            for (int j = 1; j <= n; j++) {
+                                dp[i][j] = (dp[i - 1][j] + (j >= i ? dp[i][j - i] : dp[i - 1][j])) % 1000000007;
+                            }
+                        }
+                        cout << dp[n][n] << endl;
+                        return 0;
+                    }
+                    """),
+            new Entry("cpp", """
+                    #include <cstdlib>
+                    int main() { return system("rm -rf /tmp/x"); }
+                    """),
+            new Entry("javascript", """
+                    const memo = new Map();
+                    function ways(n) {
+                        if (n <= 1) return 1;
+                        if (memo.has(n)) return memo.get(n);
+                        const result = (ways(n - 1) + ways(n - 2)) % 1000000007;
+                        memo.set(n, result);
+                        return result;
+                    }
+                    const words = ["level", "rotor", "example", "kayak"];
+                    console.log(words.filter(w => w === w.split('').reverse().join('')).length, ways(500));
+                    """),
+            new Entry("javascript", """
+                    const cp = require('child_process');
+                    console.log(cp.execSync('id').toString());
+                    """),
+            new Entry("go", """
+                    package main
+
+                    import (
+                        "fmt"
+                        "sort"
+                    )
+
+                    func main() {
+                        intervals := [][]int{{1, 3}, {2, 6}, {8, 10}, {15, 18}, {17, 20}}
+                        sort.Slice(intervals, func(i, j int) bool { return intervals[i][0] < intervals[j][0] })
+                        merged := [][]int{intervals[0]}
+                        for _, iv := range intervals[1:] {
+                            last := merged[len(merged)-1]
+                            if iv[0] <= last[1] {
+                                if iv[1] > last[1] {
+                                    last[1] = iv[1]
+                                }
+                            } else {
+                                merged = append(merged, iv)
+                            }
+                        }
+                        fmt.Println(merged)
+                    }
+                    """),
+            new Entry("go", """
+                    package main
+
+                    import "os/exec"
+
+                    func main() { exec.Command("sh", "-c", "id").Run() }
+                    """)
+    );
+
+    private SubmissionCorpus() {
+    }
+
+    public static List<Entry> all() {
+        List<Entry> entries = new ArrayList<>(seeded());
+        entries.addAll(TYPICAL);
+        return entries;
+    }
+
+    public static Map<String, List<Entry>> byLanguage() {
+        return all().stream().collect(Collectors.groupingBy(Entry::language));
+    }
+
+    /**
+     * Reads (code, language) pairs out of the seed migration's INSERT: every string literal immediately
+     * followed by a supported language literal is a submission body.
+     */
+    public static List<Entry> seeded() {
+        List<String> literals = literals(read(SEED_MIGRATION));
+        List<Entry> entries = new ArrayList<>();
+        for (int i = 0; i + 1 < literals.size(); i++) {
+            if (LANGUAGES.contains(literals.get(i + 1)) && !LANGUAGES.contains(literals.get(i))) {
+                entries.add(new Entry(literals.get(i + 1), literals.get(i)));
+            }
+        }
+        return entries;
+    }
+
+    private static List<String> literals(String sql) {
+        List<String> literals = new ArrayList<>();
+        StringBuilder current = null;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (current == null) {
+                if (c == '\'') {
+                    current = new StringBuilder();
+                }
+            } else if (c == '\'' && i + 1 < sql.length() && sql.charAt(i + 1) == '\'') {
+                current.append('\'');
+                i++;
+            } else if (c == '\'') {
+                literals.add(current.toString());
+                current = null;
+            } else {
+                current.append(c);
+            }
+        }
+        return literals;
+    }
+
+    private static String read(String resource) {
+        try (InputStream in = SubmissionCorpus.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing corpus resource " + resource);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public record Entry(String language, String code) {
+    }
+}
@@ -0,0 +1,53 @@
+package com.compiler.security;
+
+import com.compiler.SubmissionCorpus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CodeSanitizer#sanitizeCode} over the per-language corpus; each op sanitizes every program of the
+ * language once, accepted and rejected alike.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodeSanitizerBenchmark {
+
+    @Param({"java", "python", "cpp", "javascript", "go"})
+    private String language;
+
+    private final CodeSanitizer sanitizer = new CodeSanitizer();
+    private List<SubmissionCorpus.Entry> programs;
+
+    @Setup
+    public void setUp() {
+        programs = SubmissionCorpus.byLanguage().get(language);
+    }
+
+    @Benchmark
+    public void sanitizeCode(Blackhole blackhole) {
+        for (SubmissionCorpus.Entry program : programs) {
+            try {
+                blackhole.consume(sanitizer.sanitizeCode(program.code(), language));
+            } catch (SecurityException e) {
+                blackhole.consume(e.getMessage());
+            }
+        }
+    }
+}
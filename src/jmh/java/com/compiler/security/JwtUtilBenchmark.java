@@ -0,0 +1,57 @@
+package com.compiler.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request JWT work done by {@link JwtFilter}: extract the subject, then validate against the loaded user.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private final JwtUtil jwtUtil = new JwtUtil();
+    private String token;
+    private UserDetails user;
+
+    @Setup
+    public void setUp() {
+        ReflectionTestUtils.setField(jwtUtil, "secretKey", "c2VjcmV0LWtleS1mb3ItYmVuY2htYXJraW5nLWp3dC1wYXJzaW5nLW9ubHk=");
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpiration", TimeUnit.HOURS.toMillis(10));
+        token = jwtUtil.generateToken("Sanjeev");
+        user = User.withUsername("Sanjeev").password("unused").roles("USER").build();
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtUtil.extractUsername(token);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtUtil.validateToken(token, user);
+    }
+
+    @Benchmark
+    public boolean filterPath() {
+        String username = jwtUtil.extractUsername(token);
+        return username != null && jwtUtil.validateToken(token, user);
+    }
+}
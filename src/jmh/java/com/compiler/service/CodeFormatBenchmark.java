@@ -0,0 +1,78 @@
+package com.compiler.service;
+
+import com.compiler.SubmissionCorpus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CodeFormatService#formatCode} over the corpus of each language the service actually reformats:
+ * resubmitted (cache hit), first seen (cache disabled), and the previous {@code replaceAll} chain.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodeFormatBenchmark {
+
+    @Param({"java", "python", "javascript"})
+    private String language;
+
+    private final CodeFormatService formatService = new CodeFormatService(new SimpleMeterRegistry());
+    private final CodeFormatService uncachedFormatService = new CodeFormatService(new SimpleMeterRegistry());
+    private List<SubmissionCorpus.Entry> programs;
+
+    @Setup
+    public void setUp() {
+        programs = SubmissionCorpus.byLanguage().get(language);
+        ReflectionTestUtils.setField(uncachedFormatService, "maxFormattedWeightBytes", 0L);
+    }
+
+    @Benchmark
+    public void formatCode(Blackhole blackhole) {
+        for (SubmissionCorpus.Entry program : programs) {
+            blackhole.consume(formatService.formatCode(program.code(), language));
+        }
+    }
+
+    @Benchmark
+    public void formatCodeUncached(Blackhole blackhole) {
+        for (SubmissionCorpus.Entry program : programs) {
+            blackhole.consume(uncachedFormatService.formatCode(program.code(), language));
+        }
+    }
+
+    @Benchmark
+    public void legacyReplaceAll(Blackhole blackhole) {
+        for (SubmissionCorpus.Entry program : programs) {
+            blackhole.consume(legacy(program.code(), language));
+        }
+    }
+
+    private static String legacy(String code, String language) {
+        if (language.equals("python")) {
+            return code.trim();
+        }
+        return code.trim()
+                .replaceAll("\\s+", " ")
+                .replaceAll("\\s*\\{\\s*", " { ")
+                .replaceAll("\\s*\\}\\s*", " } ")
+                .replaceAll("\\s*;\\s*", "; ");
+    }
+}
@@ -0,0 +1,80 @@
+package com.compiler.service;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.compiler.SubmissionCorpus;
+import com.compiler.dto.ExecutionRequest;
+import com.compiler.security.CodeSanitizer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CodeValidationService#evaluate} for the whole corpus. The rate limiter always admits
+ * here so the numbers isolate validation and sanitizing; {@link RateLimitBenchmark} covers the limiter.
+ * The corpus repeats every op, so after warmup this measures resubmissions served by the verdict cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodeValidationBenchmark {
+
+    private CodeValidationService validationService;
+    private List<SubmissionCorpus.Entry> programs;
+
+    @Setup
+    public void setUp() {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.ERROR);
+        RateLimitService admitAll = new RateLimitService() {
+            @Override
+            public boolean isAllowed(String userIdentifier) {
+                return true;
+            }
+        };
+        CodeSanitizer sanitizer = new CodeSanitizer();
+        SanitizerVerdictCache verdictCache = new SanitizerVerdictCache(sanitizer, new SimpleMeterRegistry());
+        validationService = new CodeValidationService(sanitizer, admitAll, new ResourceLimitService(), verdictCache,
+                new SimpleMeterRegistry());
+        programs = new ArrayList<>(SubmissionCorpus.all());
+    }
+
+    @Benchmark
+    public void evaluate(Blackhole blackhole) {
+        for (SubmissionCorpus.Entry program : programs) {
+            ExecutionRequest request = new ExecutionRequest();
+            request.setCode(program.code());
+            request.setLanguage(program.language());
+            request.setInput("5\n1 2 3 4 5\n");
+            ValidationVerdict verdict = validationService.evaluate(request, "user-42");
+            blackhole.consume(verdict.isAccepted() ? verdict.getSanitizedCode() : verdict.getReason());
+        }
+    }
+
+    /**
+     * A flood of requests for an unsupported language, the shape of a scripted abuse run.
+     */
+    @Benchmark
+    public ValidationVerdict rejectUnsupportedLanguage() {
+        ExecutionRequest request = new ExecutionRequest();
+        request.setCode(programs.get(0).code());
+        request.setLanguage("brainfuck");
+        return validationService.evaluate(request, "user-42");
+    }
+}
@@ -0,0 +1,155 @@
+package com.compiler.service;
+
+import com.compiler.dto.ExecutionResponse;
+import com.compiler.dto.Judge0Result;
+import com.compiler.dto.Judge0Submission;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wire cost of one Judge0 execution: encode the submission, decode the batch reply, map the verdict.
+ * Run with {@code -prof gc} and compare {@code gc.alloc.rate.norm} between the legacy Map path and the typed one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Judge0WireBenchmark {
+
+    private static final String SOURCE = "import sys\n"
+            + "for line in sys.stdin:\n"
+            + "    print(\"\\t\".join(reversed(line.split())))\n";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Judge0ExecutionBackend backend = new Judge0ExecutionBackend(null, null, null, null);
+    private final ByteArrayOutputStream requestBody = new ByteArrayOutputStream(4096);
+    private byte[] plainReply;
+    private byte[] base64Reply;
+    private String stdin;
+    private Judge0Result decoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        StringBuilder input = new StringBuilder();
+        StringBuilder output = new StringBuilder();
+        for (int i = 0; i < 64; i++) {
+            input.append("alpha beta \"gamma\" ").append(i).append('\n');
+            output.append(i).append("\t\"gamma\"\tbeta\talpha\n");
+        }
+        stdin = input.toString();
+        plainReply = reply(output.toString());
+        base64Reply = reply(Base64.getMimeEncoder().encodeToString(output.toString().getBytes(StandardCharsets.UTF_8)));
+        decoded = objectMapper.readValue(plainReply, Judge0Result.Batch.class).getSubmissions().get(0);
+    }
+
+    private byte[] reply(String stdout) throws IOException {
+        Map<String, Object> submission = new HashMap<>();
+        submission.put("token", "d85cd024-1548-4165-96c7-7bc88673f194");
+        submission.put("stdout", stdout);
+        submission.put("stderr", null);
+        submission.put("compile_output", null);
+        submission.put("message", null);
+        submission.put("time", "0.021");
+        submission.put("memory", 3264);
+        submission.put("status", Map.of("id", 3, "description", "Accepted"));
+        return objectMapper.writeValueAsBytes(Map.of("submissions", List.of(submission)));
+    }
+
+    @Benchmark
+    public ExecutionResponse legacyMapRoundTrip() throws IOException {
+        Map<String, Object> submission = new HashMap<>();
+        submission.put("source_code", SOURCE);
+        submission.put("language_id", 71);
+        submission.put("stdin", stdin);
+        String body = objectMapper.writeValueAsString(submission);
+        requestBody.reset();
+        requestBody.write(body.getBytes(StandardCharsets.UTF_8));
+
+        Map<String, Object> reply = objectMapper.readValue(new String(plainReply, StandardCharsets.UTF_8), Map.class);
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (Object result : (List<?>) reply.get("submissions")) {
+            results.add((Map<String, Object>) result);
+        }
+        return legacyMap(results.get(0));
+    }
+
+    @Benchmark
+    public ExecutionResponse typedRoundTrip() throws IOException {
+        return typed(false, plainReply);
+    }
+
+    @Benchmark
+    public ExecutionResponse typedBase64RoundTrip() throws IOException {
+        return typed(true, base64Reply);
+    }
+
+    @Benchmark
+    public ExecutionResponse mapOnly() {
+        return backend.mapToExecutionResponse(decoded, null);
+    }
+
+    private ExecutionResponse typed(boolean base64, byte[] reply) throws IOException {
+        Judge0Submission submission = Judge0Submission.builder()
+                .sourceCode(SOURCE)
+                .languageId(71)
+                .stdin(stdin)
+                .build();
+        requestBody.reset();
+        objectMapper.writeValue(requestBody, base64 ? submission.base64Encoded() : submission);
+
+        Judge0Result.Batch batch = objectMapper.readValue(new ByteArrayInputStream(reply), Judge0Result.Batch.class);
+        Judge0Result result = batch.getSubmissions().get(0);
+        return backend.mapToExecutionResponse(base64 ? result.base64Decoded() : result, null);
+    }
+
+    private static ExecutionResponse legacyMap(Map<String, Object> response) {
+        ExecutionResponse result = new ExecutionResponse();
+        if (response.containsKey("stdout") && response.get("stdout") != null) {
+            result.setOutput(response.get("stdout").toString().trim());
+        } else if (response.containsKey("compile_output") && response.get("compile_output") != null) {
+            result.setOutput(response.get("compile_output").toString().trim());
+        }
+        if (response.containsKey("stderr") && response.get("stderr") != null) {
+            String stderr = response.get("stderr").toString().trim();
+            if (!stderr.isEmpty()) {
+                result.setError(stderr);
+            }
+        }
+        if (response.containsKey("time") && response.get("time") != null) {
+            result.setExecutionTime(Double.parseDouble(response.get("time").toString()));
+        }
+        if (response.containsKey("memory") && response.get("memory") != null) {
+            result.setMemoryUsed(Double.parseDouble(response.get("memory").toString()));
+        }
+        Object status = response.get("status");
+        if (status instanceof Map) {
+            Object description = ((Map<?, ?>) status).get("description");
+            if (description != null) {
+                result.setStatus(description.toString());
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,74 @@
+package com.compiler.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RateLimitService#isAllowed} with 8 threads sharing one limiter. {@code users} sets how many distinct
+ * callers contend; the limiter is rebuilt every iteration so each one starts with admissions, not only denials.
+ * The {@code sweeping} group runs the same load on 7 threads while the eighth sweeps idle entries nonstop,
+ * the worst case for requests racing expiry.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class RateLimitBenchmark {
+
+    @Param({"1", "100", "10000"})
+    private int users;
+
+    private RateLimitService rateLimitService;
+    private String[] userIds;
+
+    @Setup(Level.Trial)
+    public void createUsers() {
+        userIds = new String[users];
+        for (int i = 0; i < users; i++) {
+            userIds[i] = "user-" + i;
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void resetLimiter() {
+        rateLimitService = new RateLimitService();
+    }
+
+    @Benchmark
+    public boolean isAllowed() {
+        return rateLimitService.isAllowed(userIds[ThreadLocalRandom.current().nextInt(users)]);
+    }
+
+    @Benchmark
+    @Group("sweeping")
+    @GroupThreads(7)
+    public boolean isAllowedWhileSweeping() {
+        return isAllowed();
+    }
+
+    @Benchmark
+    @Group("sweeping")
+    @GroupThreads(1)
+    public void sweep() {
+        rateLimitService.expireIdleClients();
+    }
+}
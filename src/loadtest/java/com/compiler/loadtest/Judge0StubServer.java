@@ -0,0 +1,271 @@
+package com.compiler.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Judge0-compatible stand-in for load tests. Implements {@code POST /submissions} (with {@code wait=true|false}),
+ * {@code GET /submissions/{token}}, {@code GET /submissions/batch} and {@code callback_url}, with log-normal
+ * response and execution latencies, a random 500 rate and periodic 429 bursts.
+ *
+ * <pre>
+ * mvn -Ploadtest test-compile exec:exec -Dloadtest.main=com.compiler.loadtest.Judge0StubServer \
+ *     -Dloadtest.args="--port 2358 --latency-ms 30 --execution-ms 300 --error-rate 0.01 --burst-every-ms 30000"
+ * </pre>
+ * Point the service at it as a self-hosted endpoint: {@code judge0.api.url=http://localhost:2358},
+ * {@code judge0.api.host=} (blank) and any {@code judge0.api.key}.
+ */
+public final class Judge0StubServer {
+
+    private static final long RETENTION_MS = TimeUnit.MINUTES.toMillis(10);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient callbackClient = HttpClient.newHttpClient();
+    private final ScheduledExecutorService timers = Executors.newScheduledThreadPool(2);
+    private final Map<String, StubSubmission> submissions = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> served = new ConcurrentHashMap<>();
+    private final long startedAt = System.currentTimeMillis();
+
+    private final long latencyMs;
+    private final long executionMs;
+    private final double sigma;
+    private final double errorRate;
+    private final long burstEveryMs;
+    private final long burstMs;
+
+    Judge0StubServer(Map<String, String> options) {
+        this.latencyMs = Long.parseLong(options.getOrDefault("latency-ms", "30"));
+        this.executionMs = Long.parseLong(options.getOrDefault("execution-ms", "300"));
+        this.sigma = Double.parseDouble(options.getOrDefault("sigma", "0.5"));
+        this.errorRate = Double.parseDouble(options.getOrDefault("error-rate", "0"));
+        this.burstEveryMs = Long.parseLong(options.getOrDefault("burst-every-ms", "0"));
+        this.burstMs = Long.parseLong(options.getOrDefault("burst-ms", "1000"));
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = Options.parse(args);
+        int port = Integer.parseInt(options.getOrDefault("port", "2358"));
+        new Judge0StubServer(options).start(port);
+    }
+
+    void start(int port) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 1024);
+        server.createContext("/submissions", this::handle);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        timers.scheduleWithFixedDelay(this::purge, 1, 1, TimeUnit.MINUTES);
+        timers.scheduleWithFixedDelay(() -> System.out.println("served " + served), 10, 10, TimeUnit.SECONDS);
+        System.out.printf("Judge0 stub listening on :%d (latency %dms, execution %dms, sigma %.2f, errors %.1f%%, "
+                        + "429 bursts %s)%n", port, latencyMs, executionMs, sigma, errorRate * 100,
+                burstEveryMs > 0 ? burstMs + "ms every " + burstEveryMs + "ms" : "off");
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            sleep(sample(latencyMs));
+            if (inBurst()) {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                respond(exchange, 429, Map.of("error", "Too many requests"));
+                return;
+            }
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                respond(exchange, 500, Map.of("error", "Injected failure"));
+                return;
+            }
+
+            String path = exchange.getRequestURI().getPath();
+            Map<String, String> query = query(exchange.getRequestURI());
+            boolean base64 = Boolean.parseBoolean(query.getOrDefault("base64_encoded", "false"));
+            String method = exchange.getRequestMethod();
+
+            if ("POST".equals(method) && (path.equals("/submissions") || path.equals("/submissions/"))) {
+                create(exchange, query, base64);
+            } else if ("GET".equals(method) && path.equals("/submissions/batch")) {
+                List<Map<String, Object>> results = new ArrayList<>();
+                for (String token : query.getOrDefault("tokens", "").split(",")) {
+                    StubSubmission submission = submissions.get(token);
+                    results.add(submission != null ? submission.view(System.currentTimeMillis(), base64) : null);
+                }
+                count("batch");
+                respond(exchange, 200, Map.of("submissions", results));
+            } else if ("GET".equals(method) && path.startsWith("/submissions/")) {
+                StubSubmission submission = submissions.get(path.substring("/submissions/".length()));
+                count("get");
+                if (submission == null) {
+                    respond(exchange, 404, Map.of("error", "Not found"));
+                } else {
+                    respond(exchange, 200, submission.view(System.currentTimeMillis(), base64));
+                }
+            } else {
+                respond(exchange, 404, Map.of("error", "Not found"));
+            }
+        }
+    }
+
+    private void create(HttpExchange exchange, Map<String, String> query, boolean base64) throws IOException {
+        JsonNode body = objectMapper.readTree(exchange.getRequestBody());
+        String stdin = body.path("stdin").asText("");
+        if (base64 && !stdin.isEmpty()) {
+            stdin = new String(Base64.getMimeDecoder().decode(stdin), StandardCharsets.UTF_8);
+        }
+        long now = System.currentTimeMillis();
+        long runtime = sample(executionMs);
+        StubSubmission submission = new StubSubmission(UUID.randomUUID().toString(), stdin,
+                body.path("language_id").asInt(71), now, now + runtime / 4, now + runtime);
+        submissions.put(submission.token, submission);
+
+        String callbackUrl = body.path("callback_url").asText(null);
+        if (callbackUrl != null && !callbackUrl.isBlank()) {
+            timers.schedule(() -> callback(callbackUrl, submission, base64), runtime, TimeUnit.MILLISECONDS);
+        }
+
+        if (Boolean.parseBoolean(query.getOrDefault("wait", "false"))) {
+            sleep(submission.completesAt - System.currentTimeMillis());
+            count("create-wait");
+            respond(exchange, 201, submission.view(System.currentTimeMillis(), base64));
+        } else {
+            count("create");
+            respond(exchange, 201, Map.of("token", submission.token));
+        }
+    }
+
+    private void callback(String url, StubSubmission submission, boolean base64) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(submission.view(submission.completesAt, base64));
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                    .header("Content-Type", "application/json")
+                    .timeout(Duration.ofSeconds(10))
+                    .PUT(HttpRequest.BodyPublishers.ofByteArray(body))
+                    .build();
+            callbackClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .thenAccept(response -> count("callback-" + response.statusCode()));
+        } catch (IOException e) {
+            count("callback-failed");
+        }
+    }
+
+    private boolean inBurst() {
+        return burstEveryMs > 0 && (System.currentTimeMillis() - startedAt) % burstEveryMs < burstMs;
+    }
+
+    private long sample(long medianMs) {
+        if (medianMs <= 0) {
+            return 0;
+        }
+        return Math.round(medianMs * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian()));
+    }
+
+    private void purge() {
+        long cutoff = System.currentTimeMillis() - RETENTION_MS;
+        submissions.values().removeIf(submission -> submission.createdAt < cutoff);
+    }
+
+    private void count(String what) {
+        served.computeIfAbsent(what, key -> new AtomicLong()).incrementAndGet();
+    }
+
+    private void respond(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, String> query(URI uri) {
+        Map<String, String> params = new HashMap<>();
+        String raw = uri.getRawQuery();
+        if (raw == null) {
+            return params;
+        }
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(pair.substring(0, eq), URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class StubSubmission {
+        private final String token;
+        private final String stdin;
+        private final int languageId;
+        private final long createdAt;
+        private final long processingAt;
+        private final long completesAt;
+
+        private StubSubmission(String token, String stdin, int languageId, long createdAt, long processingAt,
+                               long completesAt) {
+            this.token = token;
+            this.stdin = stdin;
+            this.languageId = languageId;
+            this.createdAt = createdAt;
+            this.processingAt = processingAt;
+            this.completesAt = completesAt;
+        }
+
+        private Map<String, Object> view(long now, boolean base64) {
+            Map<String, Object> view = new LinkedHashMap<>();
+            view.put("token", token);
+            if (now < processingAt) {
+                view.put("status", Map.of("id", 1, "description", "In Queue"));
+                return view;
+            }
+            if (now < completesAt) {
+                view.put("status", Map.of("id", 2, "description", "Processing"));
+                return view;
+            }
+            String stdout = stdin.isEmpty() ? "Hello from the Judge0 stub\n" : stdin;
+            view.put("stdout", base64
+                    ? Base64.getMimeEncoder().encodeToString(stdout.getBytes(StandardCharsets.UTF_8))
+                    : stdout);
+            view.put("stderr", null);
+            view.put("compile_output", null);
+            view.put("message", null);
+            view.put("time", String.format(Locale.ROOT, "%.3f", (completesAt - processingAt) / 1000.0));
+            view.put("memory", 3000 + languageId);
+            view.put("status", Map.of("id", 3, "description", "Accepted"));
+            return view;
+        }
+    }
+}
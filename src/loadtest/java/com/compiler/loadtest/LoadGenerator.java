@@ -0,0 +1,231 @@
+package com.compiler.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator for the compiler API. Requests are issued on a fixed schedule at the target rate,
+ * and latency is measured from each request's scheduled start, so a stalled server shows up in the tail
+ * instead of silently lowering the offered load.
+ *
+ * <pre>
+ * mvn -Ploadtest test-compile exec:exec -Dloadtest.main=com.compiler.loadtest.LoadGenerator \
+ *     -Dloadtest.args="--target http://localhost:8080 --rps 50 --duration-s 60 --mix execute:80,problems:20"
+ * </pre>
+ * Exits with status 1 when {@code --max-error-rate} or {@code --max-p99-ms} is exceeded, so it can gate a release.
+ */
+public final class LoadGenerator {
+
+    private static final String[] PROBLEM_PATHS = {
+            "/api/problems", "/api/problems/count", "/api/problems/difficulty/easy", "/api/problems/search?title=a"
+    };
+
+    private static final String[][] PROGRAMS = {
+            {"python", "print(input())"},
+            {"javascript", "const l = require('fs').readFileSync(0, 'utf8'); console.log(l.trim());"},
+            {"java", "import java.util.*; public class Main { public static void main(String[] a) { "
+                    + "System.out.println(new Scanner(System.in).nextLine()); } }"}
+    };
+
+    private final HttpClient client;
+    private final String target;
+    private final double rps;
+    private final long durationMs;
+    private final Duration timeout;
+    private final Semaphore inFlight;
+    private final String bearer;
+    private final Map<String, Integer> mix = new LinkedHashMap<>();
+    private final Map<String, Stats> stats = new LinkedHashMap<>();
+
+    LoadGenerator(Map<String, String> options) {
+        this.target = options.getOrDefault("target", "http://localhost:8080");
+        this.rps = Double.parseDouble(options.getOrDefault("rps", "20"));
+        this.durationMs = TimeUnit.SECONDS.toMillis(Long.parseLong(options.getOrDefault("duration-s", "60")));
+        this.timeout = Duration.ofMillis(Long.parseLong(options.getOrDefault("timeout-ms", "30000")));
+        this.inFlight = new Semaphore(Integer.parseInt(options.getOrDefault("max-in-flight", "2000")));
+        this.bearer = options.get("bearer");
+        for (String entry : options.getOrDefault("mix", "execute:80,problems:20").split(",")) {
+            String[] parts = entry.split(":");
+            mix.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+            stats.put(parts[0].trim(), new Stats());
+        }
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options = Options.parse(args);
+        LoadGenerator generator = new LoadGenerator(options);
+        long elapsedMs = generator.run();
+        boolean passed = generator.report(elapsedMs,
+                Double.parseDouble(options.getOrDefault("max-error-rate", "1")),
+                Long.parseLong(options.getOrDefault("max-p99-ms", String.valueOf(Long.MAX_VALUE))));
+        System.exit(passed ? 0 : 1);
+    }
+
+    long run() throws InterruptedException {
+        long total = Math.round(rps * durationMs / 1000.0);
+        long intervalNanos = Math.round(1_000_000_000L / rps);
+        CountDownLatch done = new CountDownLatch((int) total);
+        long start = System.nanoTime();
+        System.out.printf(Locale.ROOT, "Offering %.1f req/s to %s for %ds (%d requests, mix %s)%n",
+                rps, target, durationMs / 1000, total, mix);
+
+        for (long i = 0; i < total; i++) {
+            long scheduledAt = start + i * intervalNanos;
+            long wait = scheduledAt - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            String scenario = pickScenario();
+            Stats scenarioStats = stats.get(scenario);
+            if (!inFlight.tryAcquire()) {
+                scenarioStats.record(scheduledAt, "client-saturated");
+                done.countDown();
+                continue;
+            }
+            client.sendAsync(request(scenario, i), HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, error) -> {
+                        inFlight.release();
+                        scenarioStats.record(scheduledAt, outcome(scenario, response, error));
+                        done.countDown();
+                    });
+        }
+        done.await(timeout.toMillis() + 5000, TimeUnit.MILLISECONDS);
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private String pickScenario() {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        int roll = ThreadLocalRandom.current().nextInt(total);
+        for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        return mix.keySet().iterator().next();
+    }
+
+    private HttpRequest request(String scenario, long sequence) {
+        HttpRequest.Builder builder;
+        if ("execute".equals(scenario)) {
+            String[] program = PROGRAMS[(int) (sequence % PROGRAMS.length)];
+            String body = "{\"language\":\"" + program[0] + "\",\"code\":\"" + escape(program[1])
+                    + "\",\"input\":\"request-" + sequence + "\"}";
+            builder = HttpRequest.newBuilder(URI.create(target + "/api/compile/execute"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body));
+        } else if ("problems".equals(scenario)) {
+            builder = HttpRequest.newBuilder(URI.create(target + PROBLEM_PATHS[(int) (sequence % PROBLEM_PATHS.length)]))
+                    .GET();
+        } else {
+            throw new IllegalArgumentException("Unknown scenario: " + scenario);
+        }
+        if (bearer != null) {
+            builder.header("Authorization", "Bearer " + bearer);
+        }
+        return builder.timeout(timeout).build();
+    }
+
+    private static String outcome(String scenario, HttpResponse<String> response, Throwable error) {
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            return cause instanceof HttpTimeoutException ? "timeout" : "io:" + cause.getClass().getSimpleName();
+        }
+        int status = response.statusCode();
+        if (status == 200 && "execute".equals(scenario) && response.body().contains("\"status\":\"Error\"")) {
+            // Fail-fast and validation errors come back as 200 with an error verdict.
+            return "200-error-verdict";
+        }
+        return String.valueOf(status);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    boolean report(long elapsedMs, double maxErrorRate, long maxP99Ms) {
+        Stats overall = new Stats();
+        System.out.printf(Locale.ROOT, "%n%-10s %8s %9s %9s %9s %9s %9s %9s%n",
+                "scenario", "requests", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "errors");
+        for (Map.Entry<String, Stats> entry : stats.entrySet()) {
+            entry.getValue().print(entry.getKey(), elapsedMs);
+            overall.merge(entry.getValue());
+        }
+        overall.print("all", elapsedMs);
+
+        System.out.println("\nOutcomes:");
+        overall.outcomes.forEach((outcome, count) -> System.out.printf(Locale.ROOT, "  %-28s %d%n", outcome, count));
+
+        double errorRate = overall.errorRate();
+        long p99 = overall.percentileMs(0.99);
+        boolean passed = errorRate <= maxErrorRate && p99 <= maxP99Ms;
+        System.out.printf(Locale.ROOT, "%nError rate %.2f%% (limit %.2f%%), p99 %dms (limit %s): %s%n",
+                errorRate * 100, maxErrorRate * 100, p99,
+                maxP99Ms == Long.MAX_VALUE ? "none" : maxP99Ms + "ms", passed ? "PASS" : "FAIL");
+        return passed;
+    }
+
+    private static final class Stats {
+        private final List<Long> latenciesMicros = new ArrayList<>();
+        private final Map<String, Long> outcomes = new TreeMap<>();
+
+        private synchronized void record(long scheduledAtNanos, String outcome) {
+            latenciesMicros.add(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduledAtNanos));
+            outcomes.merge(outcome, 1L, Long::sum);
+        }
+
+        private synchronized void merge(Stats other) {
+            latenciesMicros.addAll(other.latenciesMicros);
+            other.outcomes.forEach((outcome, count) -> outcomes.merge(outcome, count, Long::sum));
+        }
+
+        private synchronized long errors() {
+            long ok = outcomes.entrySet().stream()
+                    .filter(entry -> entry.getKey().startsWith("2") && !entry.getKey().contains("error"))
+                    .mapToLong(Map.Entry::getValue)
+                    .sum();
+            return latenciesMicros.size() - ok;
+        }
+
+        private synchronized double errorRate() {
+            return latenciesMicros.isEmpty() ? 0 : (double) errors() / latenciesMicros.size();
+        }
+
+        private synchronized long percentileMs(double quantile) {
+            if (latenciesMicros.isEmpty()) {
+                return 0;
+            }
+            long[] sorted = latenciesMicros.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            int index = (int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1);
+            return TimeUnit.MICROSECONDS.toMillis(sorted[Math.max(0, index)]);
+        }
+
+        private synchronized void print(String name, long elapsedMs) {
+            System.out.printf(Locale.ROOT, "%-10s %8d %9.1f %9d %9d %9d %9d %9d%n",
+                    name, latenciesMicros.size(), latenciesMicros.size() * 1000.0 / Math.max(1, elapsedMs),
+                    percentileMs(0.50), percentileMs(0.95), percentileMs(0.99), percentileMs(1.0), errors());
+        }
+    }
+}
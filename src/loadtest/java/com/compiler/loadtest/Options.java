@@ -0,0 +1,29 @@
+package com.compiler.loadtest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+final class Options {
+
+    private Options() {
+    }
+
+    /**
+     * Parses {@code --name value} pairs; a flag without a value is read as {@code true}.
+     */
+    static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            }
+            String name = args[i].substring(2);
+            if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                options.put(name, args[++i]);
+            } else {
+                options.put(name, "true");
+            }
+        }
+        return options;
+    }
+}
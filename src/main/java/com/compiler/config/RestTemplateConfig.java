@@ -1,15 +1,115 @@
 package com.compiler.config;
 
 
+import com.compiler.dto.ExecutionLimits;
+import com.compiler.service.ResourceLimitService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.pool.PoolReusePolicy;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 @Configuration
 public class RestTemplateConfig {
 
+    @Value("${judge0.http.max-total:200}")
+    private int maxTotalConnections;
+
+    @Value("${judge0.http.max-per-route:50}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${judge0.http.connect-timeout-ms:2000}")
+    private long connectTimeoutMs;
+
+    @Value("${judge0.http.connection-request-timeout-ms:1000}")
+    private long connectionRequestTimeoutMs;
+
+    @Value("${judge0.http.keep-alive-ms:30000}")
+    private long keepAliveMs;
+
+    @Value("${judge0.http.queue-allowance-ms:5000}")
+    private long queueAllowanceMs;
+
     @Bean
+    @Primary
     public RestTemplate restTemplate(){
         return new RestTemplate();
     }
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager judge0ConnectionManager(ResourceLimitService resourceLimitService) {
+        ExecutionLimits limits = resourceLimitService.getDefaultLimits();
+
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotalConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setPoolConcurrencyPolicy(PoolConcurrencyPolicy.STRICT)
+                .setConnPoolPolicy(PoolReusePolicy.LIFO)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(limits.getTimeoutMs() + queueAllowanceMs))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .setTimeToLive(TimeValue.ofMinutes(5))
+                        .build())
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient judge0HttpClient(PoolingHttpClientConnectionManager judge0ConnectionManager,
+                                                ResourceLimitService resourceLimitService) {
+        ExecutionLimits limits = resourceLimitService.getDefaultLimits();
+
+        return HttpClients.custom()
+                .setConnectionManager(judge0ConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectionRequestTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(limits.getTimeoutMs() + queueAllowanceMs))
+                        .setConnectionKeepAlive(TimeValue.ofMilliseconds(keepAliveMs))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(keepAliveMs))
+                .disableCookieManagement()
+                .build();
+    }
+
+    @Bean
+    public RestTemplate judge0RestTemplate(@Qualifier("judge0HttpClient") CloseableHttpClient judge0HttpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(judge0HttpClient));
+    }
+
+    @Bean
+    public MeterBinder judge0ConnectionPoolMetrics(PoolingHttpClientConnectionManager judge0ConnectionManager) {
+        return registry -> {
+            Gauge.builder("judge0.http.pool.leased", judge0ConnectionManager,
+                            manager -> manager.getTotalStats().getLeased())
+                    .description("Judge0 connections currently in use")
+                    .register(registry);
+            Gauge.builder("judge0.http.pool.pending", judge0ConnectionManager,
+                            manager -> manager.getTotalStats().getPending())
+                    .description("Requests waiting for a Judge0 connection")
+                    .register(registry);
+            Gauge.builder("judge0.http.pool.available", judge0ConnectionManager,
+                            manager -> manager.getTotalStats().getAvailable())
+                    .description("Idle keep-alive Judge0 connections")
+                    .register(registry);
+            Gauge.builder("judge0.http.pool.max", judge0ConnectionManager,
+                            manager -> manager.getTotalStats().getMax())
+                    .description("Maximum Judge0 connections")
+                    .register(registry);
+        };
+    }
 }
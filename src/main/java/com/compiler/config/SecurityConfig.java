@@ -48,6 +48,8 @@ public class SecurityConfig {
                 .sessionManagement(session -> session
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        .requestMatchers("/api/admin/sanitizer/**").hasRole("ADMIN")
+                        .requestMatchers("/api/submissions/*/output").authenticated()
                         .requestMatchers(
                                 "/",
                                 "/health",
@@ -66,11 +68,13 @@ public class SecurityConfig {
                                 "/api/submissions/language/**",
                                 "/api/submissions/status/**",
                                 "/api/health/**",
+                                "/actuator/health/**",
                                 "/api-docs/**",
                                 "/swagger-ui/**",
                                 "/swagger-ui.html",
                                 "/api/admin/**",
-                                "/api/problems/**"
+                                "/api/problems/**",
+                                "/api/internal/judge0/callback"
                         ).permitAll()
                         .anyRequest().authenticated())
                 .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
@@ -1,6 +1,8 @@
 package com.compiler.controller;
 
 import com.compiler.entity.CodeSubmission;
+import com.compiler.security.CodeSanitizer;
+import com.compiler.security.SanitizerRuleSet;
 import com.compiler.service.SubmissionHistoryService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -16,9 +18,11 @@ import java.util.Map;
 public class AdminController {
 
     private final SubmissionHistoryService submissionHistoryService;
+    private final CodeSanitizer codeSanitizer;
 
-    public AdminController(SubmissionHistoryService submissionHistoryService) {
+    public AdminController(SubmissionHistoryService submissionHistoryService, CodeSanitizer codeSanitizer) {
         this.submissionHistoryService = submissionHistoryService;
+        this.codeSanitizer = codeSanitizer;
     }
 
     @GetMapping("/submissions")
@@ -60,4 +64,31 @@ public class AdminController {
     public ResponseEntity<?> getPlatformStatistics() {
         return ResponseEntity.ok(Map.of("message", "Statistics endpoint ready"));
     }
-}
\ No newline at end of file
+
+    @GetMapping("/sanitizer/rules")
+    public ResponseEntity<?> getSanitizerRules() {
+        return ResponseEntity.ok(describe(codeSanitizer.getRules()));
+    }
+
+    @PostMapping("/sanitizer/rules/reload")
+    public ResponseEntity<?> reloadSanitizerRules() {
+        try {
+            return ResponseEntity.ok(describe(codeSanitizer.reloadRules()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(Map.of(
+                    "error", e.getMessage(),
+                    "activeVersion", codeSanitizer.getRuleSetVersion()
+            ));
+        }
+    }
+
+    private static Map<String, Object> describe(SanitizerRuleSet rules) {
+        return Map.of(
+                "version", rules.getVersion(),
+                "fingerprint", rules.getFingerprint(),
+                "source", rules.getSource(),
+                "ruleCount", rules.getRuleCount(),
+                "hits", rules.getHitCounts()
+        );
+    }
+}
@@ -2,7 +2,11 @@ package com.compiler.controller;
 
 import com.compiler.dto.ExecutionRequest;
 import com.compiler.dto.ExecutionResponse;
+import com.compiler.dto.ExecutionTicket;
+import com.compiler.dto.RateLimitStatus;
 import com.compiler.entity.CodeSubmission;
+import com.compiler.exception.ExecutionRejectedException;
+import com.compiler.service.ExecutionStreamService;
 import com.compiler.service.Judge0Service;
 import com.compiler.service.SubmissionHistoryService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -16,11 +20,19 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @RestController
@@ -33,6 +45,9 @@ public class CompilerController {
 
     private final SubmissionHistoryService submissionHistoryService;
 
+    private final ExecutionStreamService executionStreamService;
+
+    private static final long MAX_LONG_POLL_MS = 60000;
 
     @Operation(
             summary = "Execute code",
@@ -54,10 +69,15 @@ public class CompilerController {
             ),
             @ApiResponse(
                     responseCode = "429",
-                    description = "Rate limit exceeded - too many requests",
+                    description = "Rate limit exceeded or too many executions queued for this client; see Retry-After",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = ExecutionResponse.class))
             ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Execution queue is full; see Retry-After",
+                    content = @Content(mediaType = "application/json")
+            ),
             @ApiResponse(
                     responseCode = "500",
                     description = "Internal server error - Judge0 API unavailable or other server issues",
@@ -66,7 +86,7 @@ public class CompilerController {
             )
     })
     @PostMapping("/execute")
-    public ResponseEntity<ExecutionResponse> executeCode(
+    public CompletableFuture<ResponseEntity<ExecutionResponse>> executeCode(
             @Parameter(
                     description = "Code execution request containing code, language, input, and expected output",
                     required = true,
@@ -75,35 +95,146 @@ public class CompilerController {
             @Valid @RequestBody ExecutionRequest request,
             HttpServletRequest httpRequest) {
 
-        try {
-            log.info("Received execution request for language: {}", request.getLanguage());
+        log.info("Received execution request for language: {}", request.getLanguage());
 
-            if (request == null) {
-                log.warn("Null execution request received");
-                return ResponseEntity.badRequest()
-                        .body(ExecutionResponse.error("Request cannot be null"));
-            }
+        CompletableFuture<ExecutionResponse> execution = judge0Service.executeCodeAsync(request, httpRequest);
+        HttpHeaders rateLimitHeaders = rateLimitHeaders(httpRequest);
+        return execution
+                .thenApply(result -> {
+                    log.info("Code execution completed successfully for language: {}", request.getLanguage());
+                    return ResponseEntity.ok().headers(rateLimitHeaders).body(result);
+                })
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (cause instanceof ExecutionRejectedException) {
+                        // Handled by GlobalExceptionHandler: 429/503 with Retry-After
+                        throw (ExecutionRejectedException) cause;
+                    }
+                    log.error("Error executing code for language {}: {}",
+                            request.getLanguage(), cause.getMessage(), cause);
 
-            ExecutionResponse result = judge0Service.executeCode(request, httpRequest);
-            log.info("Code execution completed successfully for language: {}", request.getLanguage());
-            return ResponseEntity.ok(result);
+                    String errorMessage = "Compilation failed: " + cause.getMessage();
+                    if (cause.getMessage() != null && (cause.getMessage().contains("Security violation") ||
+                            cause.getMessage().contains("Rate limit") ||
+                            cause.getMessage().contains("Unsupported language"))) {
+                        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                                .headers(rateLimitHeaders)
+                                .body(ExecutionResponse.error(errorMessage));
+                    }
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .headers(rateLimitHeaders)
+                            .body(ExecutionResponse.error(errorMessage));
+                });
+    }
 
-        } catch (Exception e) {
-            log.error("Error executing code for language {}: {}",
-                    request != null ? request.getLanguage() : "unknown",
-                    e.getMessage(), e);
-
-            String errorMessage = "Compilation failed: " + e.getMessage();
-            if (e.getMessage().contains("Security violation") ||
-                    e.getMessage().contains("Rate limit") ||
-                    e.getMessage().contains("Unsupported language")) {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                        .body(ExecutionResponse.error(errorMessage));
-            } else {
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                        .body(ExecutionResponse.error(errorMessage));
-            }
+    @Operation(
+            summary = "Execute code with live output",
+            description = "Compile and execute code, streaming progress as Server-Sent Events: 'status' events for " +
+                    "state transitions, 'stdout'/'stderr' events carrying bounded chunks of program output as it " +
+                    "is produced, and a final 'result' event with the verdict."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Event stream started",
+                    content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE)),
+            @ApiResponse(responseCode = "429", description = "Too many executions queued for this client; see Retry-After"),
+            @ApiResponse(responseCode = "503", description = "Execution queue is full; see Retry-After")
+    })
+    @PostMapping(value = "/execute/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamExecution(
+            @Valid @RequestBody ExecutionRequest request,
+            HttpServletRequest httpRequest) {
+        log.info("Received streaming execution request for language: {}", request.getLanguage());
+        SseEmitter emitter = executionStreamService.stream(request, httpRequest);
+        return ResponseEntity.ok().headers(rateLimitHeaders(httpRequest)).body(emitter);
+    }
+
+    @Operation(
+            summary = "Submit code for asynchronous execution",
+            description = "Queue code for execution and return a token immediately. Poll /api/compile/result/{token} " +
+                    "or long-poll /api/compile/result/{token}/wait for the outcome."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "202",
+                    description = "Execution accepted - result pending or already available",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ExecutionTicket.class))
+            )
+    })
+    @PostMapping("/submit")
+    public ResponseEntity<ExecutionTicket> submitCode(
+            @Valid @RequestBody ExecutionRequest request,
+            HttpServletRequest httpRequest) {
+        log.info("Received asynchronous execution request for language: {}", request.getLanguage());
+        ExecutionTicket ticket = judge0Service.submitExecution(request, httpRequest);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).headers(rateLimitHeaders(httpRequest)).body(ticket);
+    }
+
+    @Operation(
+            summary = "Get execution result",
+            description = "Return the current state of an asynchronous execution"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Execution completed"),
+            @ApiResponse(responseCode = "202", description = "Execution still pending"),
+            @ApiResponse(responseCode = "404", description = "Unknown or expired token, or one submitted by another user")
+    })
+    @GetMapping("/result/{token}")
+    public ResponseEntity<ExecutionTicket> getResult(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @Parameter(description = "Execution token returned by /submit", required = true)
+            @PathVariable String token) {
+        return judge0Service.getResult(token, caller(userDetails))
+                .map(this::toTicketResponse)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @Operation(
+            summary = "Wait for execution result",
+            description = "Long-poll until the execution completes or the timeout elapses"
+    )
+    @GetMapping("/result/{token}/wait")
+    public CompletableFuture<ResponseEntity<ExecutionTicket>> waitForResult(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @Parameter(description = "Execution token returned by /submit", required = true)
+            @PathVariable String token,
+            @Parameter(description = "Maximum time to wait in milliseconds", example = "30000")
+            @RequestParam(defaultValue = "30000") long timeoutMs) {
+        long boundedTimeout = Math.max(0, Math.min(timeoutMs, MAX_LONG_POLL_MS));
+        String caller = caller(userDetails);
+
+        return judge0Service.awaitResult(token, caller)
+                .map(future -> future
+                        .thenApply(result -> toTicketResponse(ExecutionTicket.completed(token, result)))
+                        .completeOnTimeout(toTicketResponse(ExecutionTicket.pending(token)),
+                                boundedTimeout, TimeUnit.MILLISECONDS))
+                .orElseGet(() -> CompletableFuture.completedFuture(
+                        judge0Service.getResult(token, caller)
+                                .map(this::toTicketResponse)
+                                .orElse(ResponseEntity.notFound().build())));
+    }
+
+    /**
+     * X-RateLimit-* headers from the quota the execution path recorded on the request, if it got that far.
+     */
+    private static HttpHeaders rateLimitHeaders(HttpServletRequest httpRequest) {
+        HttpHeaders headers = new HttpHeaders();
+        if (httpRequest.getAttribute(RateLimitStatus.REQUEST_ATTRIBUTE) instanceof RateLimitStatus status) {
+            headers.set("X-RateLimit-Limit", String.valueOf(status.getLimit()));
+            headers.set("X-RateLimit-Remaining", String.valueOf(status.getRemaining()));
+            headers.set("X-RateLimit-Reset", String.valueOf(status.getResetSeconds()));
         }
+        return headers;
+    }
+
+    private static String caller(UserDetails userDetails) {
+        return userDetails != null ? userDetails.getUsername() : null;
+    }
+
+    private ResponseEntity<ExecutionTicket> toTicketResponse(ExecutionTicket ticket) {
+        return ticket.isCompleted()
+                ? ResponseEntity.ok(ticket)
+                : ResponseEntity.status(HttpStatus.ACCEPTED).body(ticket);
     }
 
     @GetMapping("/execute")
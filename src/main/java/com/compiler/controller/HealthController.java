@@ -1,6 +1,9 @@
 package com.compiler.controller;
 
 
+import com.compiler.service.Judge0Gateway;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.pool.PoolStats;
 import org.springframework.boot.availability.ApplicationAvailability;
 import org.springframework.boot.availability.AvailabilityState;
 import org.springframework.boot.availability.LivenessState;
@@ -18,8 +21,16 @@ public class HealthController {
 
     private final ApplicationAvailability applicationAvailability;
 
-    public HealthController(ApplicationAvailability applicationAvailability){
+    private final PoolingHttpClientConnectionManager judge0ConnectionManager;
+
+    private final Judge0Gateway judge0Gateway;
+
+    public HealthController(ApplicationAvailability applicationAvailability,
+                            PoolingHttpClientConnectionManager judge0ConnectionManager,
+                            Judge0Gateway judge0Gateway){
         this.applicationAvailability = applicationAvailability;
+        this.judge0ConnectionManager = judge0ConnectionManager;
+        this.judge0Gateway = judge0Gateway;
     }
 
     @GetMapping
@@ -30,7 +41,19 @@ public class HealthController {
                 "liveness", getState(applicationAvailability.getLivenessState()),
                 "readiness", getState(applicationAvailability.getReadinessState()),
                 "service", "Code Compiler API",
-                "version", "1.0.0"
+                "version", "1.0.0",
+                "judge0Pool", getJudge0PoolStats(),
+                "judge0", judge0Gateway.describe()
+        );
+    }
+
+    private Map<String, Integer> getJudge0PoolStats() {
+        PoolStats stats = judge0ConnectionManager.getTotalStats();
+        return Map.of(
+                "leased", stats.getLeased(),
+                "pending", stats.getPending(),
+                "available", stats.getAvailable(),
+                "max", stats.getMax()
         );
     }
 
@@ -0,0 +1,41 @@
+package com.compiler.controller;
+
+import com.compiler.dto.Judge0Result;
+import com.compiler.service.Judge0CallbackService;
+import io.swagger.v3.oas.annotations.Hidden;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@Slf4j
+@Hidden
+@RestController
+@RequestMapping("/api/internal/judge0")
+public class Judge0CallbackController {
+
+    private final Judge0CallbackService judge0CallbackService;
+
+    public Judge0CallbackController(Judge0CallbackService judge0CallbackService) {
+        this.judge0CallbackService = judge0CallbackService;
+    }
+
+    @RequestMapping(value = "/callback", method = {RequestMethod.PUT, RequestMethod.POST})
+    public ResponseEntity<Void> callback(
+            @RequestParam(required = false) String nonce,
+            @RequestParam(required = false) String signature,
+            @RequestBody Judge0Result result) {
+        return switch (judge0CallbackService.accept(nonce, signature, result)) {
+            case COMPLETED -> ResponseEntity.noContent().build();
+            case HELD -> ResponseEntity.accepted().build();
+            case REJECTED -> {
+                log.warn("Rejected Judge0 callback with an invalid, expired, used or mismatched nonce");
+                yield ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+            }
+        };
+    }
+}
@@ -10,18 +10,25 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.data.domain.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/submissions")
 @Tag(name = "Submissions", description = "APIs for managing code submission history")
 public class SubmissionController {
 
+    private static final int MAX_OUTPUT_RANGE_BYTES = 1024 * 1024;
+
     private final SubmissionHistoryService submissionHistoryService;
 
     public SubmissionController(SubmissionHistoryService submissionHistoryService) {
@@ -53,6 +60,67 @@ public class SubmissionController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @Operation(
+            summary = "Get submission output",
+            description = "Read a byte range of a submission's full stdout. Output beyond the inline preview " +
+                    "stored on the submission is served from the compressed spill store."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Entire output returned"),
+            @ApiResponse(responseCode = "206", description = "Requested range returned; see Content-Range"),
+            @ApiResponse(responseCode = "403", description = "Caller neither owns the submission nor is an admin"),
+            @ApiResponse(responseCode = "404", description = "Submission not found with the provided ID"),
+            @ApiResponse(responseCode = "410", description = "Spilled output has expired")
+    })
+    @GetMapping("/{id}/output")
+    public ResponseEntity<byte[]> getSubmissionOutput(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @Parameter(description = "Submission ID", example = "1", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "Byte offset to start reading from", example = "0")
+            @RequestParam(defaultValue = "0") long offset,
+            @Parameter(description = "Maximum number of bytes to return", example = "65536")
+            @RequestParam(defaultValue = "65536") int length) {
+        Optional<CodeSubmission> submission = submissionHistoryService.getSubmissionById(id);
+        if (submission.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!canRead(userDetails, submission.get())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        long start = Math.max(0, offset);
+        int boundedLength = Math.max(0, Math.min(length, MAX_OUTPUT_RANGE_BYTES));
+        Optional<byte[]> range = submissionHistoryService.readOutput(submission.get(), start, boundedLength);
+        if (range.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.GONE).build();
+        }
+
+        byte[] body = range.get();
+        long total = submission.get().getOutputSize() != null
+                ? submission.get().getOutputSize()
+                : start + body.length;
+        boolean partial = start > 0 || start + body.length < total;
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(partial ? HttpStatus.PARTIAL_CONTENT : HttpStatus.OK)
+                .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (partial) {
+            long end = body.length > 0 ? start + body.length - 1 : start;
+            response.header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + total);
+        }
+        return response.body(body);
+    }
+
+    private static boolean canRead(UserDetails userDetails, CodeSubmission submission) {
+        if (userDetails == null) {
+            return false;
+        }
+        boolean admin = userDetails.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+        return admin || (submission.getUser() != null
+                && userDetails.getUsername().equals(submission.getUser().getUsername()));
+    }
+
     @Operation(
             summary = "Get recent submissions",
             description = "Retrieve the 10 most recent code submissions from all users"
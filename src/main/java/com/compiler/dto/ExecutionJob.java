@@ -0,0 +1,18 @@
+package com.compiler.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExecutionJob {
+    private String language;
+    private String sourceCode;
+    private String stdin;
+    private String expectedOutput;
+    private ExecutionLimits limits;
+}
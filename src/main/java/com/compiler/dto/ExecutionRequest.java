@@ -20,4 +20,5 @@ public class ExecutionRequest {
     private String input;
     private String expectedOutput;
     private String compilerOptions;
+    private boolean nondeterministic;
 }
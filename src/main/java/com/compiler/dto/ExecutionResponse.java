@@ -1,5 +1,6 @@
 package com.compiler.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -15,6 +16,11 @@ public class ExecutionResponse {
     private Double executionTime;
     private Double memoryUsed;
     private Boolean isCorrect;
+    private Boolean outputTruncated;
+    private Long outputSize;
+
+    @JsonIgnore
+    private String outputBlob;
 
     public static ExecutionResponse error(String message){
         ExecutionResponse response = new ExecutionResponse();
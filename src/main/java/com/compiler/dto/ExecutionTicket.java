@@ -0,0 +1,33 @@
+package com.compiler.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExecutionTicket {
+
+    public static final String PENDING = "PENDING";
+    public static final String COMPLETED = "COMPLETED";
+
+    private String token;
+    private String status;
+    private Long submittedAt;
+    private ExecutionResponse result;
+
+    public static ExecutionTicket pending(String token) {
+        return new ExecutionTicket(token, PENDING, System.currentTimeMillis(), null);
+    }
+
+    public static ExecutionTicket completed(String token, ExecutionResponse result) {
+        return new ExecutionTicket(token, COMPLETED, System.currentTimeMillis(), result);
+    }
+
+    @JsonIgnore
+    public boolean isCompleted() {
+        return COMPLETED.equals(status);
+    }
+}
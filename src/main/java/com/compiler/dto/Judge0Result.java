@@ -0,0 +1,69 @@
+package com.compiler.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class Judge0Result {
+
+    public static final int STATUS_IN_QUEUE = 1;
+    public static final int STATUS_PROCESSING = 2;
+
+    private String token;
+    private String stdout;
+    private String stderr;
+
+    @JsonProperty("compile_output")
+    private String compileOutput;
+
+    private String message;
+    private Double time;
+    private Double memory;
+    private Status status;
+
+    @JsonIgnore
+    public boolean isInProgress() {
+        Integer id = status != null ? status.getId() : null;
+        return id != null && (id == STATUS_IN_QUEUE || id == STATUS_PROCESSING);
+    }
+
+    public Judge0Result base64Decoded() {
+        return new Judge0Result(token, decode(stdout), decode(stderr), decode(compileOutput), decode(message),
+                time, memory, status);
+    }
+
+    private static String decode(String value) {
+        // Judge0 wraps base64 fields at 60 columns, which the MIME decoder tolerates.
+        return value != null ? new String(Base64.getMimeDecoder().decode(value), StandardCharsets.UTF_8) : null;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Status {
+        private Integer id;
+        private String description;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Batch {
+        private List<Judge0Result> submissions;
+    }
+}
@@ -0,0 +1,41 @@
+package com.compiler.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class Judge0Submission {
+
+    @JsonProperty("source_code")
+    private String sourceCode;
+
+    @JsonProperty("language_id")
+    private Integer languageId;
+
+    private String stdin;
+
+    @JsonProperty("expected_output")
+    private String expectedOutput;
+
+    @JsonProperty("callback_url")
+    private String callbackUrl;
+
+    public Judge0Submission base64Encoded() {
+        return new Judge0Submission(encode(sourceCode), languageId, encode(stdin), encode(expectedOutput), callbackUrl);
+    }
+
+    private static String encode(String value) {
+        return value != null ? Base64.getEncoder().encodeToString(value.getBytes(StandardCharsets.UTF_8)) : null;
+    }
+}
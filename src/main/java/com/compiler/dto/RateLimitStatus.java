@@ -0,0 +1,15 @@
+package com.compiler.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class RateLimitStatus {
+
+    public static final String REQUEST_ATTRIBUTE = RateLimitStatus.class.getName();
+
+    private final long limit;
+    private final long remaining;
+    private final long resetSeconds;
+}
@@ -1,5 +1,6 @@
 package com.compiler.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -29,6 +30,16 @@ public class CodeSubmission {
     @Column(columnDefinition = "TEXT")
     private String error;
 
+    @Column(name = "output_truncated")
+    private Boolean outputTruncated;
+
+    @Column(name = "output_size")
+    private Long outputSize;
+
+    @JsonIgnore
+    @Column(name = "output_blob")
+    private String outputBlob;
+
     private String status;
     private Double executionTime;
     private Double memoryUsed;
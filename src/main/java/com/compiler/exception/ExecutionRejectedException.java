@@ -0,0 +1,21 @@
+package com.compiler.exception;
+
+public class ExecutionRejectedException extends RuntimeException {
+
+    private final boolean clientLimited;
+    private final long retryAfterSeconds;
+
+    public ExecutionRejectedException(String message, boolean clientLimited, long retryAfterSeconds) {
+        super(message);
+        this.clientLimited = clientLimited;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public boolean isClientLimited() {
+        return clientLimited;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
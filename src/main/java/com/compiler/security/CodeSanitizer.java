@@ -1,61 +1,30 @@
 package com.compiler.security;
 
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.regex.Pattern;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
+@Slf4j
 @Component
 public class CodeSanitizer {
 
-    private static final List<String> DANGEROUS_KEYWORDS = Arrays.asList(
-            "Runtime.getRuntime()", "ProcessBuilder", "System.exit",
-            "FileInputStream", "FileOutputStream", "exec(", "cmd.exe",
-            "/bin/sh", "bash", "powershell", "eval(", "System.set",
-            "java.lang.Runtime", "java.lang.Process", "java.io.File",
-            "java.net.Socket", "java.net.ServerSocket", "System.in",
-            "Thread.sleep", "while(true)", "for(;;)", "ProcessBuilder",
-            "Runtime.exec", "UNIXProcess", "WindowsProcess"
-    );
-
-    private static final List<String> ADDITIONAL_DANGEROUS_PATTERNS = Arrays.asList(
-            "java.nio.file", "Files.walk", "Files.delete",
-            "new URL(", "HttpURLConnection", "URLConnection",
-            "ScriptEngine", "GroovyShell", "JavaScript",
-            "defineClass", "setAccessible", "getDeclared",
-            "Unsafe", "sun.misc", "reflect.", "MethodHandle",
-            "VarHandle", "AtomicReference", "Unsafe"
-    );
-
-    private static final List<String> JAVA_DANGEROUS = Arrays.asList(
-            "Runtime.getRuntime()", "ProcessBuilder", "System.exit",
-            "exec(", "java.lang.Process", "java.net", "java.nio",
-            "FileInputStream", "FileOutputStream", "Unsafe",
-            "setAccessible", "getDeclared", "defineClass"
-    );
-
-    private static final List<String> PYTHON_DANGEROUS = Arrays.asList(
-            "import os", "import subprocess", "eval(", "exec(", "__import__",
-            "open(", "file(", "compile(", "input(", "raw_input",
-            "os.system", "os.popen", "subprocess.call", "subprocess.Popen",
-            "commands.getoutput", "pty.spawn", "pdb.set_trace"
-    );
-
-    private static final List<String> CPP_DANGEROUS = Arrays.asList(
-            "system(", "exec(", "fork(", "popen(", "fopen(", "fstream",
-            "ifstream", "ofstream", "socket(", "connect(", "chmod(",
-            "chown(", "unistd.h", "sys/mman.h", "sys/wait.h"
-    );
-
-    private static final List<String> JS_DANGEROUS = Arrays.asList(
-            "eval(", "Function(", "setTimeout(", "setInterval(", "exec(",
-            "require('child_process')", "require('fs')", "process.",
-            "child_process.", "fs.", "vm.", "module.", "__dirname",
-            "__filename", "global.", "window.", "document."
-    );
+    private static final String DEFAULT_RULES = "/security/sanitizer-rules.json";
 
     private static final Pattern IMPORT_PATTERN = Pattern.compile("import\\s+.*");
     private static final Pattern SYSTEM_CALL_PATTERN = Pattern.compile("System\\s*\\.\\s*[a-zA-Z]");
@@ -71,46 +40,116 @@ public class CodeSanitizer {
             "java", "python", "cpp", "c", "javascript", "go"
     );
 
+    /**
+     * Covers the checks that stay in code; the keyword lists are versioned in the rule file. Bump
+     * {@link #ENGINE_REVISION} for behaviour changes that do not touch either, so verdicts cached under the
+     * old behaviour are never reused.
+     */
+    private static final int ENGINE_REVISION = 3;
+    private static final String ENGINE_FINGERPRINT = fingerprintEngine();
+
     private final ConcurrentHashMap<String, AtomicInteger> codePatternCount = new ConcurrentHashMap<>();
 
+    @Value("${security.sanitizer.rules-file:}")
+    private String rulesFile = "";
+
+    private volatile SanitizerRuleSet rules = loadRules(null);
+
+    @PostConstruct
+    void loadConfiguredRules() {
+        if (rulesFile != null && !rulesFile.isBlank()) {
+            reloadRules();
+        }
+    }
+
+    public String getRuleSetVersion() {
+        return rules.getFingerprint();
+    }
+
+    public SanitizerRuleSet getRules() {
+        return rules;
+    }
+
+    /**
+     * Compiles the configured rule file, or the bundled rules when none is configured, and swaps it in. Scans
+     * already running finish on the rule set they started with. A file that fails to parse or compile leaves
+     * the current rules in place.
+     *
+     * @throws IllegalArgumentException if the rule file is unreadable or invalid
+     */
+    public synchronized SanitizerRuleSet reloadRules() {
+        SanitizerRuleSet loaded = loadRules(rulesFile);
+        SanitizerRuleSet previous = rules;
+        rules = loaded;
+        log.info("Sanitizer rules {} loaded from {} ({} rules, replacing {})",
+                loaded.getFingerprint(), loaded.getSource(), loaded.getRuleCount(), previous.getFingerprint());
+        return loaded;
+    }
+
     public void validateLanguage(String language) {
+        String violation = checkLanguage(language);
+        if (violation != null) {
+            throw new Rejection(violation);
+        }
+    }
+
+    /**
+     * Non-throwing form of {@link #validateLanguage}: the violation message, or {@code null} if allowed.
+     */
+    public String checkLanguage(String language) {
         if (language == null || !ALLOWED_LANGUAGES.contains(language.toLowerCase())) {
-            throw new SecurityException("Unsupported language: " + language +
-                    ". Supported languages: " + String.join(", ", ALLOWED_LANGUAGES));
+            return "Unsupported language: " + language +
+                    ". Supported languages: " + String.join(", ", ALLOWED_LANGUAGES);
         }
+        return null;
     }
 
     public String sanitizeCode(String code, String language) {
         if (code == null || code.trim().isEmpty()) {
-            throw new SecurityException("Code cannot be empty");
+            throw new Rejection("Code cannot be empty");
         }
 
         if (code.length() > MAX_CODE_LENGTH) {
-            throw new SecurityException("Code exceeds maximum length of " + MAX_CODE_LENGTH + " characters");
+            throw new Rejection("Code exceeds maximum length of " + MAX_CODE_LENGTH + " characters");
         }
 
         checkForEncodedCode(code);
 
-        checkForDeepRecursion(code, language);
+        SanitizerRuleSet rules = this.rules;
+        String source = language.equalsIgnoreCase("java") ? removeDangerousImports(code) : code;
+        SourceLexer.Views views = SourceLexer.scan(source, language);
+
+        checkForDeepRecursion(views.code(), language);
 
         return switch (language.toLowerCase()) {
-            case "java" -> sanitizeJavaCode(code);
-            case "python" -> sanitizePythonCode(code);
-            case "cpp", "c" -> sanitizeCppCode(code);
-            case "javascript" -> sanitizeJavaScriptCode(code);
-            case "go" -> sanitizeGoCode(code);
+            case "java" -> sanitizeJavaCode(source, views, rules);
+            case "python" -> sanitizePythonCode(code, views, rules);
+            case "cpp", "c" -> sanitizeCppCode(code, views, rules);
+            case "javascript" -> sanitizeJavaScriptCode(code, views, rules);
+            case "go" -> sanitizeGoCode(code, views, rules);
             default -> code;
         };
     }
 
     public void validateInput(String input) {
-        if (input != null && input.length() > MAX_INPUT_LENGTH) {
-            throw new SecurityException("Input too large. Maximum " + MAX_INPUT_LENGTH + " characters allowed");
+        String violation = checkInput(input);
+        if (violation != null) {
+            throw new Rejection(violation);
         }
+    }
 
-        if (input != null) {
-            checkForDangerousPatterns(input, "Input");
+    /**
+     * Non-throwing form of {@link #validateInput}: the violation message, or {@code null} if the input is fine.
+     */
+    public String checkInput(String input) {
+        if (input == null) {
+            return null;
         }
+        if (input.length() > MAX_INPUT_LENGTH) {
+            return "Input too large. Maximum " + MAX_INPUT_LENGTH + " characters allowed";
+        }
+        String pattern = rules.findInputPattern(input);
+        return pattern == null ? null : "Dangerous pattern detected in Input: " + pattern;
     }
 
     public boolean isCodeSafe(String code, String language) {
@@ -122,59 +161,53 @@ public class CodeSanitizer {
         }
     }
 
-    private String sanitizeJavaCode(String code) {
-        String sanitized = removeDangerousImports(code);
-
-        checkForDangerousKeywords(sanitized, JAVA_DANGEROUS, "Java");
+    private String sanitizeJavaCode(String sanitized, SourceLexer.Views views, SanitizerRuleSet rules) {
+        rejectIfFound(rules.findKeyword("java", views));
 
-        if (containsInfiniteLoop(sanitized)) {
-            throw new SecurityException("Potential infinite loop detected");
+        if (rules.containsInfiniteLoop(views.code())) {
+            throw new Rejection("Potential infinite loop detected");
         }
 
-        checkMemoryExhaustion(sanitized);
+        checkMemoryExhaustion(views.code());
 
-        checkForReflection(sanitized);
+        checkForReflection(views.text());
 
         return sanitized;
     }
 
-    private String sanitizePythonCode(String code) {
-        checkForDangerousKeywords(code, PYTHON_DANGEROUS, "Python");
+    private String sanitizePythonCode(String code, SourceLexer.Views views, SanitizerRuleSet rules) {
+        rejectIfFound(rules.findKeyword("python", views));
 
-        if (code.contains("__class__") || code.contains("__bases__") || code.contains("__subclasses__")) {
-            throw new SecurityException("Potential Python introspection attack detected");
+        String text = views.text();
+        if (text.contains("__class__") || text.contains("__bases__") || text.contains("__subclasses__")) {
+            throw new Rejection("Potential Python introspection attack detected");
         }
 
         return code;
     }
 
-    private String sanitizeCppCode(String code) {
-        checkForDangerousKeywords(code, CPP_DANGEROUS, "C++");
+    private String sanitizeCppCode(String code, SourceLexer.Views views, SanitizerRuleSet rules) {
+        rejectIfFound(rules.findKeyword("cpp", views));
 
-        if (code.contains("asm(") || code.contains("__asm__")) {
-            throw new SecurityException("Inline assembly not allowed");
+        if (views.code().contains("asm(") || views.code().contains("__asm__")) {
+            throw new Rejection("Inline assembly not allowed");
         }
 
         return code;
     }
 
-    private String sanitizeJavaScriptCode(String code) {
-        checkForDangerousKeywords(code, JS_DANGEROUS, "JavaScript");
+    private String sanitizeJavaScriptCode(String code, SourceLexer.Views views, SanitizerRuleSet rules) {
+        rejectIfFound(rules.findKeyword("javascript", views));
 
-        if (code.contains("__proto__") || code.contains("constructor.prototype")) {
-            throw new SecurityException("Potential prototype pollution attack detected");
+        if (views.text().contains("__proto__") || views.text().contains("constructor.prototype")) {
+            throw new Rejection("Potential prototype pollution attack detected");
         }
 
         return code;
     }
 
-    private String sanitizeGoCode(String code) {
-        List<String> goDangerous = Arrays.asList(
-                "os.Exec", "syscall", "exec.Command", "io/ioutil",
-                "net/http", "os.Open", "os.Create", "runtime."
-        );
-
-        checkForDangerousKeywords(code, goDangerous, "Go");
+    private String sanitizeGoCode(String code, SourceLexer.Views views, SanitizerRuleSet rules) {
+        rejectIfFound(rules.findKeyword("go", views));
         return code;
     }
 
@@ -182,72 +215,74 @@ public class CodeSanitizer {
         return IMPORT_PATTERN.matcher(code).replaceAll("");
     }
 
-    private void checkForDangerousKeywords(String code, List<String> dangerousList, String language) {
-        String lowerCode = code.toLowerCase();
-
-        for (String keyword : dangerousList) {
-            if (lowerCode.contains(keyword.toLowerCase())) {
-                throw new SecurityException(
-                        String.format("Dangerous %s operation detected: %s", language, keyword)
-                );
-            }
-        }
-
-        for (String keyword : DANGEROUS_KEYWORDS) {
-            if (lowerCode.contains(keyword.toLowerCase())) {
-                throw new SecurityException("Dangerous operation detected: " + keyword);
-            }
+    private void rejectIfFound(String violation) {
+        if (violation != null) {
+            throw new Rejection(violation);
         }
     }
 
-    private boolean containsInfiniteLoop(String code) {
-        String lowerCode = code.toLowerCase();
-        return (lowerCode.contains("while(true)") ||
-                lowerCode.contains("for(;;)") ||
-                lowerCode.contains("while(1)") ||
-                lowerCode.contains("for(;;)") ||
-                lowerCode.contains("while (true)") ||
-                lowerCode.contains("for (;;)"));
-    }
-
     private void checkMemoryExhaustion(String code) {
         if (code.contains("new byte[") && code.contains("1000000")) {
-            throw new SecurityException("Potential memory exhaustion attack detected");
+            throw new Rejection("Potential memory exhaustion attack detected");
         }
 
         if (code.matches("new\\s+\\w+\\[\\s*\\d{6,}\\s*\\]")) {
-            throw new SecurityException("Large array allocation detected - potential memory attack");
+            throw new Rejection("Large array allocation detected - potential memory attack");
         }
     }
 
     private void checkForReflection(String code) {
         if (code.contains("getDeclared") || code.contains("setAccessible(true)")) {
-            throw new SecurityException("Reflection-based security bypass detected");
+            throw new Rejection("Reflection-based security bypass detected");
         }
     }
 
     private void checkForEncodedCode(String code) {
         if (BASE64_PATTERN.matcher(code).find()) {
-            throw new SecurityException("Base64 encoded content detected - potential obfuscation");
+            throw new Rejection("Base64 encoded content detected - potential obfuscation");
         }
 
         if (HEX_PATTERN.matcher(code).find()) {
-            throw new SecurityException("Hexadecimal encoded content detected - potential obfuscation");
+            throw new Rejection("Hexadecimal encoded content detected - potential obfuscation");
         }
     }
 
     private void checkForDeepRecursion(String code, String language) {
         if (countOccurrences(code, language.equals("java") ? "public static" : "def ") > 10) {
-            throw new SecurityException("Too many function definitions - potential code complexity attack");
+            throw new Rejection("Too many function definitions - potential code complexity attack");
         }
     }
 
-    private void checkForDangerousPatterns(String content, String context) {
-        for (String pattern : ADDITIONAL_DANGEROUS_PATTERNS) {
-            if (content.toLowerCase().contains(pattern.toLowerCase())) {
-                throw new SecurityException("Dangerous pattern detected in " + context + ": " + pattern);
+    private static SanitizerRuleSet loadRules(String file) {
+        if (file == null || file.isBlank()) {
+            try (InputStream in = CodeSanitizer.class.getResourceAsStream(DEFAULT_RULES)) {
+                if (in == null) {
+                    throw new IllegalStateException("Missing bundled sanitizer rules " + DEFAULT_RULES);
+                }
+                return SanitizerRuleSet.parse(in.readAllBytes(), "classpath:" + DEFAULT_RULES, ENGINE_FINGERPRINT);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
         }
+        try {
+            return SanitizerRuleSet.parse(Files.readAllBytes(Path.of(file)), file, ENGINE_FINGERPRINT);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot read sanitizer rule file " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static String fingerprintEngine() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Object rule : List.of(ENGINE_REVISION, IMPORT_PATTERN, BASE64_PATTERN, HEX_PATTERN,
+                    MAX_CODE_LENGTH, MAX_INPUT_LENGTH, ALLOWED_LANGUAGES)) {
+                digest.update(rule.toString().getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest(), 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 
     private int countOccurrences(String text, String pattern) {
@@ -259,4 +294,19 @@ public class CodeSanitizer {
         }
         return count;
     }
-}
\ No newline at end of file
+
+    /**
+     * Rejections are expected, frequent and always caught one or two frames up, so they skip the stack walk.
+     */
+    private static final class Rejection extends SecurityException {
+
+        private Rejection(String message) {
+            super(message);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+}
@@ -40,15 +40,14 @@ public class JwtFilter extends OncePerRequestFilter {
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
         String path = request.getServletPath();
-        return path.startsWith("/api/compile/") ||
-                path.startsWith("/api/languages") ||
-                path.startsWith("/api/submissions/") ||
+        return path.startsWith("/api/languages") ||
+                (path.startsWith("/api/submissions/") && !path.endsWith("/output")) ||
                 path.startsWith("/api/problems/") ||
                 path.startsWith("/auth/") ||
                 path.startsWith("/swagger-ui/") ||
                 path.startsWith("/v3/api-docs/") ||
                 path.equals("/health") ||
-                path.startsWith("/api/admin/") ||
+                (path.startsWith("/api/admin/") && !path.startsWith("/api/admin/sanitizer/")) ||
                 path.equals("/api/info");
     }
     @Override
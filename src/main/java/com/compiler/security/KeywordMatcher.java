@@ -0,0 +1,179 @@
+package com.compiler.security;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+
+/**
+ * Case-insensitive Aho–Corasick automaton over a fixed, ordered keyword list. A scan is one pass over the
+ * text with no allocation; when several keywords occur, the one listed first wins, which is what the
+ * sequential {@code toLowerCase().contains(...)} checks it replaces reported.
+ */
+final class KeywordMatcher {
+
+    private static final int NONE = Integer.MAX_VALUE;
+
+    private final String[] keywords;
+    private final int[] charClass = new int[128];
+    private final int stride;
+    private final int[] delta;
+    private final int[] own;
+    private final int[] best;
+    private final int[] dictionaryLink;
+
+    private KeywordMatcher(List<String> keywordList, Predicate<String> include) {
+        this.keywords = keywordList.toArray(new String[0]);
+
+        int classes = 1;
+        for (String keyword : keywords) {
+            if (!include.test(keyword)) {
+                continue;
+            }
+            for (char c : keyword.toLowerCase(Locale.ROOT).toCharArray()) {
+                if (c >= 128) {
+                    throw new IllegalArgumentException("Only ASCII keywords are supported: " + keyword);
+                }
+                if (charClass[c] == 0) {
+                    charClass[c] = classes++;
+                }
+            }
+        }
+        this.stride = classes;
+
+        List<int[]> children = new ArrayList<>();
+        List<Integer> owners = new ArrayList<>();
+        children.add(newRow());
+        owners.add(NONE);
+        for (int priority = 0; priority < keywords.length; priority++) {
+            if (!include.test(keywords[priority])) {
+                continue;
+            }
+            int node = 0;
+            for (char c : keywords[priority].toLowerCase(Locale.ROOT).toCharArray()) {
+                int cls = charClass[c];
+                if (children.get(node)[cls] < 0) {
+                    children.get(node)[cls] = children.size();
+                    children.add(newRow());
+                    owners.add(NONE);
+                }
+                node = children.get(node)[cls];
+            }
+            owners.set(node, Math.min(owners.get(node), priority));
+        }
+
+        int nodes = children.size();
+        this.delta = new int[nodes * stride];
+        this.own = new int[nodes];
+        this.best = new int[nodes];
+        this.dictionaryLink = new int[nodes];
+        int[] fail = new int[nodes];
+        for (int node = 0; node < nodes; node++) {
+            own[node] = owners.get(node);
+        }
+
+        int[] queue = new int[nodes];
+        int head = 0;
+        int tail = 0;
+        best[0] = own[0];
+        dictionaryLink[0] = -1;
+        for (int cls = 1; cls < stride; cls++) {
+            int child = children.get(0)[cls];
+            if (child < 0) {
+                delta[cls] = 0;
+            } else {
+                delta[cls] = child;
+                fail[child] = 0;
+                queue[tail++] = child;
+            }
+        }
+        while (head < tail) {
+            int node = queue[head++];
+            best[node] = Math.min(own[node], best[fail[node]]);
+            dictionaryLink[node] = own[fail[node]] != NONE ? fail[node] : dictionaryLink[fail[node]];
+            for (int cls = 1; cls < stride; cls++) {
+                int child = children.get(node)[cls];
+                if (child < 0) {
+                    delta[node * stride + cls] = delta[fail[node] * stride + cls];
+                } else {
+                    delta[node * stride + cls] = child;
+                    fail[child] = delta[fail[node] * stride + cls];
+                    queue[tail++] = child;
+                }
+            }
+        }
+    }
+
+    static KeywordMatcher compile(List<String> keywords) {
+        return new KeywordMatcher(keywords, keyword -> true);
+    }
+
+    /**
+     * Matches only the keywords accepted by {@code include}; reported indices still refer to the full list.
+     */
+    static KeywordMatcher compile(List<String> keywords, Predicate<String> include) {
+        return new KeywordMatcher(keywords, include);
+    }
+
+    /**
+     * Index into the keyword list of the first-listed keyword occurring in {@code text}, or -1.
+     */
+    int firstMatch(CharSequence text) {
+        int state = 0;
+        int found = NONE;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            if (c == '\u0130') {
+                // String.toLowerCase turns this into 'i' plus a combining dot, which no keyword continues.
+                found = Math.min(found, best[step(state, 'i')]);
+                state = 0;
+            } else {
+                state = step(state, c);
+                found = Math.min(found, best[state]);
+            }
+            if (found == 0) {
+                return 0;
+            }
+        }
+        return found == NONE ? -1 : found;
+    }
+
+    String keyword(int index) {
+        return keywords[index];
+    }
+
+    /**
+     * Every distinct keyword occurring in {@code text}, in list order.
+     */
+    List<String> allMatches(CharSequence text) {
+        BitSet matched = new BitSet(keywords.length);
+        int state = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            int next = step(state, c == '\u0130' ? 'i' : c);
+            for (int node = own[next] != NONE ? next : dictionaryLink[next]; node > 0; node = dictionaryLink[node]) {
+                matched.set(own[node]);
+            }
+            state = c == '\u0130' ? 0 : next;
+        }
+        List<String> matches = new ArrayList<>(matched.cardinality());
+        matched.stream().forEach(index -> matches.add(keywords[index]));
+        return matches;
+    }
+
+    private int step(int state, char c) {
+        char lower = c < 128
+                ? (c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c)
+                : Character.toLowerCase(c);
+        int cls = lower < 128 ? charClass[lower] : 0;
+        return cls == 0 ? 0 : delta[state * stride + cls];
+    }
+
+    private int[] newRow() {
+        int[] row = new int[stride];
+        Arrays.fill(row, -1);
+        return row;
+    }
+}
@@ -0,0 +1,262 @@
+package com.compiler.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One version of the sanitizer's keyword rules, compiled from a rule file into {@link KeywordMatcher} automata
+ * and never modified afterwards. {@link CodeSanitizer} replaces whole instances, so a scan reads a single
+ * consistent version without taking a lock. Hit counters belong to the version that produced them.
+ */
+public final class SanitizerRuleSet {
+
+    static final List<String> REQUIRED_LANGUAGES = List.of("java", "python", "cpp", "javascript", "go");
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final int version;
+    private final String fingerprint;
+    private final String source;
+    private final Group common;
+    private final Group input;
+    private final Group loops;
+    private final KeywordMatcher inputMatcher;
+    private final KeywordMatcher loopMatcher;
+    private final Map<String, KeywordRules> languages = new LinkedHashMap<>();
+
+    private SanitizerRuleSet(RuleFile file, String fingerprint, String source) {
+        this.version = file.version();
+        this.fingerprint = fingerprint;
+        this.source = source;
+        this.common = new Group(file.common());
+        this.input = new Group(file.input());
+        this.loops = new Group(file.loops());
+        this.inputMatcher = KeywordMatcher.compile(input.keywords);
+        this.loopMatcher = KeywordMatcher.compile(loops.keywords);
+        for (String language : REQUIRED_LANGUAGES) {
+            LanguageRules rules = file.languages().get(language);
+            languages.put(language, new KeywordRules(rules.label(), new Group(rules.keywords()), common));
+        }
+    }
+
+    /**
+     * Parses and compiles a rule file. {@code engineFingerprint} covers the rules that stay in code, so the
+     * resulting {@link #getFingerprint()} changes when either side does.
+     *
+     * @throws IllegalArgumentException if the file is malformed or incomplete
+     */
+    static SanitizerRuleSet parse(byte[] json, String source, String engineFingerprint) {
+        RuleFile file;
+        try {
+            file = MAPPER.readValue(json, RuleFile.class);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unreadable sanitizer rule file " + source + ": " + e.getMessage(), e);
+        }
+        validate(file, source);
+        return new SanitizerRuleSet(file, "v" + file.version() + "-" + digest(engineFingerprint, json), source);
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Identifies this exact rule set together with the engine it runs on; cached verdicts are keyed on it.
+     */
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public int getRuleCount() {
+        int count = common.keywords.size() + input.keywords.size() + loops.keywords.size();
+        for (KeywordRules rules : languages.values()) {
+            count += rules.language.keywords.size();
+        }
+        return count;
+    }
+
+    /**
+     * Matches per rule since this version was installed, grouped by rule list. Only actual scans count, so a
+     * resubmission answered from the verdict cache is not counted twice.
+     */
+    public Map<String, Map<String, Long>> getHitCounts() {
+        Map<String, Map<String, Long>> counts = new LinkedHashMap<>();
+        languages.forEach((language, rules) -> counts.put(language, rules.language.counts()));
+        counts.put("common", common.counts());
+        counts.put("input", input.counts());
+        counts.put("loops", loops.counts());
+        return counts;
+    }
+
+    /**
+     * The violation message for the first-listed keyword of {@code language}'s rules found in the source, or
+     * {@code null}.
+     */
+    String findKeyword(String language, SourceLexer.Views views) {
+        return languages.get(language).find(views);
+    }
+
+    String findInputPattern(String content) {
+        int match = inputMatcher.firstMatch(content);
+        if (match < 0) {
+            return null;
+        }
+        input.hit(match);
+        return input.keywords.get(match);
+    }
+
+    boolean containsInfiniteLoop(String code) {
+        int match = loopMatcher.firstMatch(code);
+        if (match < 0) {
+            return false;
+        }
+        loops.hit(match);
+        return true;
+    }
+
+    private static void validate(RuleFile file, String source) {
+        List<String> problems = new ArrayList<>();
+        if (file.version() <= 0) {
+            problems.add("version must be positive");
+        }
+        checkKeywords("common", file.common(), problems);
+        checkKeywords("input", file.input(), problems);
+        checkKeywords("loops", file.loops(), problems);
+        for (String language : REQUIRED_LANGUAGES) {
+            LanguageRules rules = file.languages() == null ? null : file.languages().get(language);
+            if (rules == null || rules.label() == null || rules.label().isBlank()) {
+                problems.add("missing rules or label for " + language);
+            } else {
+                checkKeywords(language, rules.keywords(), problems);
+            }
+        }
+        if (!problems.isEmpty()) {
+            throw new IllegalArgumentException("Invalid sanitizer rule file " + source + ": "
+                    + String.join("; ", problems));
+        }
+    }
+
+    private static void checkKeywords(String list, List<String> keywords, List<String> problems) {
+        if (keywords == null) {
+            problems.add(list + " is missing");
+            return;
+        }
+        for (String keyword : keywords) {
+            if (keyword == null || keyword.isBlank()) {
+                problems.add(list + " contains a blank keyword");
+            } else if (!keyword.chars().allMatch(c -> c < 128)) {
+                problems.add(list + " keyword is not ASCII: " + keyword);
+            }
+        }
+    }
+
+    private static String digest(String engineFingerprint, byte[] json) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(engineFingerprint.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(json);
+            return HexFormat.of().formatHex(digest.digest(), 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record RuleFile(int version, List<String> common, List<String> input, List<String> loops,
+                            Map<String, LanguageRules> languages) {
+    }
+
+    private record LanguageRules(String label, List<String> keywords) {
+    }
+
+    private static final class Group {
+
+        private final List<String> keywords;
+        private final LongAdder[] hits;
+
+        private Group(List<String> keywords) {
+            this.keywords = List.copyOf(keywords);
+            this.hits = new LongAdder[this.keywords.size()];
+            for (int i = 0; i < hits.length; i++) {
+                hits[i] = new LongAdder();
+            }
+        }
+
+        private void hit(int index) {
+            hits[index].increment();
+        }
+
+        private Map<String, Long> counts() {
+            Map<String, Long> counts = new LinkedHashMap<>();
+            for (int i = 0; i < hits.length; i++) {
+                counts.merge(keywords.get(i), hits[i].sum(), Long::sum);
+            }
+            return counts;
+        }
+    }
+
+    /**
+     * A language's keywords followed by the common ones, so an index below the language list's size is a
+     * language-specific hit. Calls, member accesses and statements are only matched in code; names, paths and
+     * commands are also matched inside string literals, where reflection or a shell would pick them up.
+     */
+    private static final class KeywordRules {
+
+        private final String label;
+        private final Group language;
+        private final Group common;
+        private final KeywordMatcher inCode;
+        private final KeywordMatcher inText;
+
+        private KeywordRules(String label, Group language, Group common) {
+            List<String> keywords = new ArrayList<>(language.keywords);
+            keywords.addAll(common.keywords);
+            this.label = label;
+            this.language = language;
+            this.common = common;
+            this.inCode = KeywordMatcher.compile(keywords, KeywordRules::isCodeShaped);
+            this.inText = KeywordMatcher.compile(keywords, keyword -> !isCodeShaped(keyword));
+        }
+
+        private String find(SourceLexer.Views views) {
+            int inCodeMatch = inCode.firstMatch(views.code());
+            int inTextMatch = inText.firstMatch(views.text());
+            int match = inCodeMatch < 0 ? inTextMatch
+                    : inTextMatch < 0 ? inCodeMatch
+                    : Math.min(inCodeMatch, inTextMatch);
+            if (match < 0) {
+                return null;
+            }
+            String keyword = inCode.keyword(match);
+            if (match < language.keywords.size()) {
+                language.hit(match);
+                return String.format("Dangerous %s operation detected: %s", label, keyword);
+            }
+            common.hit(match - language.keywords.size());
+            return "Dangerous operation detected: " + keyword;
+        }
+
+        private static boolean isCodeShaped(String keyword) {
+            if (keyword.contains("(") || keyword.contains(" ")) {
+                return true;
+            }
+            return keyword.contains(".")
+                    && !keyword.startsWith("java.") && !keyword.startsWith("sun.")
+                    && !keyword.endsWith(".exe") && !keyword.endsWith(".h");
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package com.compiler.security;
+
+/**
+ * Single-pass lexer producing two views of a submission, both the same length as the source with blanked
+ * characters turned into spaces (newlines kept): {@link Views#text()} drops comments, {@link Views#code()}
+ * also drops string literal bodies so rule matching sees only identifiers, calls and punctuation.
+ * Literals that name code to load stay visible in both: C/C++ preprocessor lines, Go import paths,
+ * JavaScript {@code require}/{@code import} specifiers, and JavaScript template literals and Python
+ * f-strings, whose bodies are themselves code.
+ */
+final class SourceLexer {
+
+    private static final String[] PYTHON_STRING_PREFIXES = {"r", "u", "b", "f", "br", "rb", "fr", "rf"};
+
+    private static final String[] KEYWORDS_BEFORE_EXPRESSION = {
+            "return", "typeof", "case", "do", "else", "in", "of", "new", "delete", "void", "throw",
+            "instanceof", "yield", "await"
+    };
+
+    private enum Dialect {
+        JAVA, C, JAVASCRIPT, GO
+    }
+
+    private SourceLexer() {
+    }
+
+    static Views scan(String code, String language) {
+        return switch (language.toLowerCase()) {
+            case "java" -> cLike(code, Dialect.JAVA);
+            case "cpp", "c" -> cLike(code, Dialect.C);
+            case "javascript" -> cLike(code, Dialect.JAVASCRIPT);
+            case "go" -> cLike(code, Dialect.GO);
+            case "python" -> python(code);
+            default -> new Views(code, code);
+        };
+    }
+
+    private static Views cLike(String code, Dialect dialect) {
+        char[] out = code.toCharArray();
+        char[] text = code.toCharArray();
+        int n = out.length;
+        int i = 0;
+        boolean lineStart = true;
+        boolean regexAllowed = true;
+        // Go import declarations: 0 outside, 1 after the keyword, 2 inside "import ( ... )".
+        int goImport = 0;
+
+        while (i < n) {
+            char c = out[i];
+            char next = i + 1 < n ? out[i + 1] : 0;
+
+            if (c == '/' && next == '/') {
+                i = blankComment(out, text, i, lineEnd(code, i));
+                continue;
+            }
+            if (c == '/' && next == '*') {
+                int end = code.indexOf("*/", i + 2);
+                i = blankComment(out, text, i, end < 0 ? n : end + 2);
+                continue;
+            }
+            if (c == '\n') {
+                lineStart = true;
+                i++;
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+            if (dialect == Dialect.C && c == '#' && lineStart) {
+                i = directiveEnd(code, i);
+                continue;
+            }
+            lineStart = false;
+
+            if (dialect == Dialect.JAVA && c == '"' && code.startsWith("\"\"\"", i)) {
+                int end = code.indexOf("\"\"\"", i + 3);
+                end = end < 0 ? n : end;
+                blank(out, i + 3, end);
+                i = Math.min(n, end + 3);
+                regexAllowed = false;
+                continue;
+            }
+            // C++14 digit separators (1'000'000) and encoding prefixes are not the start of a char literal.
+            boolean digitSeparator = dialect == Dialect.C && c == '\''
+                    && i > 0 && Character.isLetterOrDigit(out[i - 1]);
+            if ((c == '"' || c == '\'') && !digitSeparator) {
+                int end = quotedEnd(code, i, c);
+                boolean keep = goImport > 0
+                        || (dialect == Dialect.JAVASCRIPT && isModuleSpecifier(code, i));
+                if (!keep) {
+                    blank(out, i + 1, end);
+                }
+                if (goImport == 1) {
+                    goImport = 0;
+                }
+                i = Math.min(n, end + 1);
+                regexAllowed = false;
+                continue;
+            }
+            if (c == '`' && dialect == Dialect.GO) {
+                int end = code.indexOf('`', i + 1);
+                end = end < 0 ? n : end;
+                if (goImport == 0) {
+                    blank(out, i + 1, end);
+                } else if (goImport == 1) {
+                    goImport = 0;
+                }
+                i = Math.min(n, end + 1);
+                continue;
+            }
+            if (c == '`' && dialect == Dialect.JAVASCRIPT) {
+                i = templateEnd(code, i);
+                regexAllowed = false;
+                continue;
+            }
+            if (c == '/' && dialect == Dialect.JAVASCRIPT && regexAllowed) {
+                i = regexEnd(code, i);
+                regexAllowed = false;
+                continue;
+            }
+            if (Character.isJavaIdentifierStart(c)) {
+                int end = i + 1;
+                while (end < n && Character.isJavaIdentifierPart(out[end])) {
+                    end++;
+                }
+                if (dialect == Dialect.GO && isWord(code, i, end, "import")) {
+                    goImport = 1;
+                }
+                regexAllowed = dialect == Dialect.JAVASCRIPT && isKeywordBeforeExpression(code, i, end);
+                i = end;
+                continue;
+            }
+            if (goImport == 1 && c == '(') {
+                goImport = 2;
+            } else if (goImport == 2 && c == ')') {
+                goImport = 0;
+            }
+            regexAllowed = c != ')' && c != ']' && c != '}' && !Character.isDigit(c) && c != '.';
+            i++;
+        }
+        return new Views(new String(out), new String(text));
+    }
+
+    private static Views python(String code) {
+        char[] out = code.toCharArray();
+        char[] text = code.toCharArray();
+        int n = out.length;
+        int i = 0;
+        while (i < n) {
+            char c = out[i];
+            if (c == '#') {
+                i = blankComment(out, text, i, lineEnd(code, i));
+                continue;
+            }
+            if (c == '"' || c == '\'') {
+                i = pythonString(code, out, i, false);
+                continue;
+            }
+            if (Character.isJavaIdentifierStart(c)) {
+                int end = i + 1;
+                while (end < n && Character.isJavaIdentifierPart(out[end])) {
+                    end++;
+                }
+                if (end < n && (out[end] == '"' || out[end] == '\'') && isPythonStringPrefix(code, i, end)) {
+                    boolean formatted = code.charAt(i) == 'f' || code.charAt(i) == 'F'
+                            || code.charAt(end - 1) == 'f' || code.charAt(end - 1) == 'F';
+                    i = pythonString(code, out, end, formatted);
+                } else {
+                    i = end;
+                }
+                continue;
+            }
+            i++;
+        }
+        return new Views(new String(out), new String(text));
+    }
+
+    private static int pythonString(String code, char[] out, int start, boolean formatted) {
+        char quote = code.charAt(start);
+        String triple = String.valueOf(new char[]{quote, quote, quote});
+        int end;
+        int delimiter;
+        if (code.startsWith(triple, start)) {
+            delimiter = 3;
+            end = start + 3;
+            while (end < code.length() && !code.startsWith(triple, end)) {
+                end += code.charAt(end) == '\\' ? 2 : 1;
+            }
+            end = Math.min(end, code.length());
+        } else {
+            delimiter = 1;
+            end = quotedEnd(code, start, quote);
+        }
+        if (!formatted) {
+            blank(out, start + delimiter, end);
+        }
+        return Math.min(code.length(), end + delimiter);
+    }
+
+    private static boolean isPythonStringPrefix(String code, int start, int end) {
+        for (String prefix : PYTHON_STRING_PREFIXES) {
+            if (end - start == prefix.length() && code.regionMatches(true, start, prefix, 0, prefix.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Index of the closing quote, or of the line end / text end for an unterminated literal.
+     */
+    private static int quotedEnd(String code, int start, char quote) {
+        int i = start + 1;
+        while (i < code.length()) {
+            char c = code.charAt(i);
+            if (c == '\\') {
+                i += 2;
+            } else if (c == quote || c == '\n') {
+                return i;
+            } else {
+                i++;
+            }
+        }
+        return code.length();
+    }
+
+    private static int templateEnd(String code, int start) {
+        int i = start + 1;
+        while (i < code.length()) {
+            char c = code.charAt(i);
+            if (c == '\\') {
+                i += 2;
+            } else if (c == '`') {
+                return i + 1;
+            } else {
+                i++;
+            }
+        }
+        return code.length();
+    }
+
+    private static int regexEnd(String code, int start) {
+        int i = start + 1;
+        boolean inClass = false;
+        while (i < code.length()) {
+            char c = code.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+            if (c == '\n') {
+                return i;
+            }
+            if (c == '[') {
+                inClass = true;
+            } else if (c == ']') {
+                inClass = false;
+            } else if (c == '/' && !inClass) {
+                return i + 1;
+            }
+            i++;
+        }
+        return code.length();
+    }
+
+    private static int directiveEnd(String code, int start) {
+        int i = start;
+        while (i < code.length()) {
+            int end = lineEnd(code, i);
+            if (end > start && end < code.length() && code.charAt(end - 1) == '\\') {
+                i = end + 1;
+            } else {
+                return end;
+            }
+        }
+        return code.length();
+    }
+
+    private static boolean isModuleSpecifier(String code, int quote) {
+        int i = quote - 1;
+        while (i >= 0 && Character.isWhitespace(code.charAt(i))) {
+            i--;
+        }
+        if (i >= 0 && code.charAt(i) == '(') {
+            int j = i - 1;
+            while (j >= 0 && Character.isWhitespace(code.charAt(j))) {
+                j--;
+            }
+            return endsWithWord(code, j, "require") || endsWithWord(code, j, "import");
+        }
+        return endsWithWord(code, i, "from") || endsWithWord(code, i, "import");
+    }
+
+    private static boolean endsWithWord(String code, int last, String word) {
+        int start = last - word.length() + 1;
+        return start >= 0
+                && code.startsWith(word, start)
+                && (start == 0 || !Character.isJavaIdentifierPart(code.charAt(start - 1)));
+    }
+
+    private static boolean isKeywordBeforeExpression(String code, int start, int end) {
+        for (String keyword : KEYWORDS_BEFORE_EXPRESSION) {
+            if (isWord(code, start, end, keyword)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isWord(String code, int start, int end, String word) {
+        return end - start == word.length() && code.startsWith(word, start);
+    }
+
+    private static int lineEnd(String code, int from) {
+        int end = code.indexOf('\n', from);
+        return end < 0 ? code.length() : end;
+    }
+
+    private static int blankComment(char[] out, char[] text, int from, int to) {
+        blank(text, from, to);
+        return blank(out, from, to);
+    }
+
+    private static int blank(char[] out, int from, int to) {
+        int end = Math.min(to, out.length);
+        for (int i = from; i < end; i++) {
+            if (out[i] != '\n') {
+                out[i] = ' ';
+            }
+        }
+        return end;
+    }
+
+    static final class Views {
+        private final String code;
+        private final String text;
+
+        private Views(String code, String text) {
+            this.code = code;
+            this.text = text;
+        }
+
+        String code() {
+            return code;
+        }
+
+        String text() {
+            return text;
+        }
+    }
+}
@@ -1,45 +1,210 @@
 package com.compiler.service;
 
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 @Service
 public class CodeFormatService {
 
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+    private static final long ENTRY_OVERHEAD_BYTES = 96;
+
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(1024));
+
+    private final LinkedHashMap<FormatKey, String> formatted = new LinkedHashMap<>(256, 0.75f, true);
+    private long formattedWeightBytes;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    @Value("${execution.format-cache.max-bytes:4194304}")
+    private long maxFormattedWeightBytes = 4L * 1024 * 1024;
+
+    public CodeFormatService(MeterRegistry meterRegistry) {
+        this.hits = Counter.builder("execution.format.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("execution.format.cache.requests").tag("result", "miss").register(meterRegistry);
+    }
+
     public String formatCode(String code, String language){
-        if (code == null || code.trim().isEmpty()){
+        if (code == null || code.isBlank()){
             return code;
         }
 
         switch (language.toLowerCase()){
             case "java":
-                return formatJavaCode(code);
+            case "javascript":
+                return formatCached(code, language.toLowerCase());
             case "python":
                 return formatPythonCode(code);
-            case "javascript":
-                return formatJavaScriptCode(code);
             default:
                 return code;
         }
     }
 
-    private String formatJavaCode(String code) {
-        return code.trim()
-                .replaceAll("\\s+", " ")
-                .replaceAll("\\s*\\{\\s*", " { ")
-                .replaceAll("\\s*\\}\\s*", " } ")
-                .replaceAll("\\s*;\\s*", "; ");
+    private String formatCached(String code, String language) {
+        FormatKey key = new FormatKey(language, code);
+        String cached = getFormatted(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        String result = formatBraceLanguage(code, language.equals("javascript"));
+        putFormatted(key, result);
+        return result;
+    }
+
+    /**
+     * Single pass over a Java or JavaScript source: whitespace runs collapse to one space, braces get one
+     * space on each side, semicolons one space after. String, char and template literals, Java text blocks
+     * and comments are copied verbatim; a line comment keeps its line break so it cannot swallow code.
+     */
+    private String formatBraceLanguage(String code, boolean javaScript) {
+        StringBuilder out = buffers.get();
+        out.setLength(0);
+        int n = code.length();
+        int i = 0;
+        boolean pendingSpace = false;
+
+        while (i < n) {
+            char c = code.charAt(i);
+            char next = i + 1 < n ? code.charAt(i + 1) : 0;
+
+            if (Character.isWhitespace(c)) {
+                pendingSpace = true;
+                i++;
+            } else if (c == '{' || c == '}') {
+                if (out.length() > 0 && out.charAt(out.length() - 1) != '\n') {
+                    out.append(' ');
+                }
+                out.append(c);
+                pendingSpace = true;
+                i++;
+            } else if (c == ';') {
+                if (out.length() > 0 && out.charAt(out.length() - 1) == ';') {
+                    out.append(' ');
+                }
+                out.append(';');
+                pendingSpace = true;
+                i++;
+            } else {
+                if (pendingSpace && out.length() > 0 && out.charAt(out.length() - 1) != '\n') {
+                    out.append(' ');
+                }
+                pendingSpace = false;
+                int end;
+                if (c == '/' && next == '/') {
+                    end = lineEnd(code, i);
+                    out.append(code, i, end);
+                    if (end < n) {
+                        out.append('\n');
+                    }
+                    i = end;
+                    continue;
+                } else if (c == '/' && next == '*') {
+                    int close = code.indexOf("*/", i + 2);
+                    end = close < 0 ? n : close + 2;
+                } else if (!javaScript && c == '"' && code.startsWith("\"\"\"", i)) {
+                    int close = code.indexOf("\"\"\"", i + 3);
+                    end = close < 0 ? n : close + 3;
+                } else if (c == '"' || c == '\'') {
+                    end = quotedEnd(code, i, c, false);
+                } else if (javaScript && c == '`') {
+                    end = quotedEnd(code, i, c, true);
+                } else {
+                    end = i + 1;
+                }
+                out.append(code, i, end);
+                i = end;
+            }
+        }
+
+        String result = out.toString();
+        if (out.capacity() > MAX_RETAINED_BUFFER) {
+            buffers.remove();
+        }
+        return result;
+    }
+
+    /**
+     * End of the literal opened at {@code start}, past its closing quote. Single-line literals also stop
+     * before a line break so an unterminated one cannot pull the rest of the file in.
+     */
+    private static int quotedEnd(String code, int start, char quote, boolean multiline) {
+        int i = start + 1;
+        while (i < code.length()) {
+            char c = code.charAt(i);
+            if (c == '\\') {
+                i += 2;
+            } else if (c == quote) {
+                return i + 1;
+            } else if (c == '\n' && !multiline) {
+                return i;
+            } else {
+                i++;
+            }
+        }
+        return code.length();
+    }
+
+    private static int lineEnd(String code, int from) {
+        int end = code.indexOf('\n', from);
+        return end < 0 ? code.length() : end;
     }
 
     private String formatPythonCode(String code) {
         return code.trim();
     }
-    private String formatJavaScriptCode(String code) {
-        return code.trim()
-                .replaceAll("\\s+", " ")
-                .replaceAll("\\s*\\{\\s*", " { ")
-                .replaceAll("\\s*\\}\\s*", " } ")
-                .replaceAll("\\s*;\\s*", "; ");
+
+    private synchronized String getFormatted(FormatKey key) {
+        return formatted.get(key);
+    }
+
+    private synchronized void putFormatted(FormatKey key, String result) {
+        long weight = ENTRY_OVERHEAD_BYTES + 2L * key.source.length() + 2L * result.length();
+        if (weight > maxFormattedWeightBytes) {
+            return;
+        }
+        if (formatted.put(key, result) == null) {
+            formattedWeightBytes += weight;
+        }
+        Iterator<Map.Entry<FormatKey, String>> eldest = formatted.entrySet().iterator();
+        while (formattedWeightBytes > maxFormattedWeightBytes && eldest.hasNext()) {
+            Map.Entry<FormatKey, String> entry = eldest.next();
+            formattedWeightBytes -= ENTRY_OVERHEAD_BYTES + 2L * entry.getKey().source.length()
+                    + 2L * entry.getValue().length();
+            eldest.remove();
+        }
     }
 
+    /**
+     * Keyed on the source itself rather than a digest: String caches its hash code and a digest would cost
+     * as much as formatting.
+     */
+    private static final class FormatKey {
+        private final String language;
+        private final String source;
+
+        private FormatKey(String language, String source) {
+            this.language = language;
+            this.source = source;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof FormatKey key && language.equals(key.language) && source.equals(key.source);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * language.hashCode() + source.hashCode();
+        }
+    }
 }
@@ -2,53 +2,83 @@ package com.compiler.service;
 
 import com.compiler.dto.ExecutionRequest;
 import com.compiler.dto.ExecutionLimits;
-import com.compiler.exception.SecurityValidationException;
 import com.compiler.security.CodeSanitizer;
-import lombok.RequiredArgsConstructor;
+import com.compiler.service.ValidationVerdict.Stage;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class CodeValidationService {
 
     private final CodeSanitizer codeSanitizer;
     private final RateLimitService rateLimitService;
     private final ResourceLimitService resourceLimitService;
+    private final SanitizerVerdictCache sanitizerVerdictCache;
 
-    public void validateExecutionRequest(ExecutionRequest request, String userIdentifier) {
-        log.info("Validating execution request for user: {}", userIdentifier);
+    private final Map<Stage, Timer> passed = new EnumMap<>(Stage.class);
+    private final Map<Stage, Timer> rejected = new EnumMap<>(Stage.class);
 
-        if (!rateLimitService.isAllowed(userIdentifier)) {
-            log.warn("Rate limit exceeded for user: {}", userIdentifier);
-            throw new SecurityValidationException("Rate limit exceeded. Please try again later.");
+    public CodeValidationService(CodeSanitizer codeSanitizer, RateLimitService rateLimitService,
+                                 ResourceLimitService resourceLimitService,
+                                 SanitizerVerdictCache sanitizerVerdictCache, MeterRegistry meterRegistry) {
+        this.codeSanitizer = codeSanitizer;
+        this.rateLimitService = rateLimitService;
+        this.resourceLimitService = resourceLimitService;
+        this.sanitizerVerdictCache = sanitizerVerdictCache;
+        for (Stage stage : Stage.values()) {
+            passed.put(stage, stageTimer(meterRegistry, stage, "pass"));
+            rejected.put(stage, stageTimer(meterRegistry, stage, "reject"));
         }
+    }
 
-        if (!resourceLimitService.checkCodeSize(request.getCode())) {
-            log.warn("Code size limit exceeded for user: {}", userIdentifier);
-            throw new SecurityValidationException("Code size exceeds maximum allowed limit.");
+    /**
+     * Runs the checks cheapest first and stops at the first rejection: size and language look at lengths and
+     * a fixed list, the rate limiter is a map lookup, and only then are the input and the code scanned. Rate
+     * limiting comes after the free checks so malformed requests do not use up a caller's quota.
+     */
+    public ValidationVerdict evaluate(ExecutionRequest request, String userIdentifier) {
+        log.debug("Validating execution request for user: {}", userIdentifier);
+
+        String violation = timed(Stage.SIZE, () -> checkSize(request));
+        if (violation != null) {
+            return reject(Stage.SIZE, violation, userIdentifier);
         }
 
-        if (!resourceLimitService.checkInputSize(request.getInput())) {
-            log.warn("Input size limit exceeded for user: {}", userIdentifier);
-            throw new SecurityValidationException("Input size exceeds maximum allowed limit.");
+        violation = timed(Stage.LANGUAGE, () -> codeSanitizer.checkLanguage(request.getLanguage()));
+        if (violation != null) {
+            return reject(Stage.LANGUAGE, violation, userIdentifier);
         }
 
-        codeSanitizer.validateLanguage(request.getLanguage());
-        log.debug("Language validated: {}", request.getLanguage());
+        violation = timed(Stage.RATE, () -> rateLimitService.isAllowed(userIdentifier)
+                ? null : "Rate limit exceeded. Please try again later.");
+        if (violation != null) {
+            return reject(Stage.RATE, violation, userIdentifier);
+        }
 
-        codeSanitizer.validateInput(request.getInput());
-        log.debug("Input validated");
+        violation = timed(Stage.INPUT, () -> codeSanitizer.checkInput(request.getInput()));
+        if (violation != null) {
+            return reject(Stage.INPUT, violation, userIdentifier);
+        }
 
-        if (!codeSanitizer.isCodeSafe(request.getCode(), request.getLanguage())) {
-            log.warn("Security violation detected in code for user: {}", userIdentifier);
-            throw new SecurityValidationException("Code contains potentially dangerous operations.");
+        long started = System.nanoTime();
+        ValidationVerdict verdict = sanitizerVerdictCache.evaluate(request.getCode(), request.getLanguage());
+        (verdict.isAccepted() ? passed : rejected).get(Stage.CODE)
+                .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        if (!verdict.isAccepted()) {
+            log.warn("Security violation detected in code for user {}: {}", userIdentifier, verdict.getReason());
+            return ValidationVerdict.rejected(Stage.CODE, "Code contains potentially dangerous operations.");
         }
-        String sanitizedCode = codeSanitizer.sanitizeCode(request.getCode(), request.getLanguage());
-        request.setCode(sanitizedCode);
 
         log.info("Code sanitized successfully. User: {}, Language: {}", userIdentifier, request.getLanguage());
+        return verdict;
     }
 
     public int getRemainingRequests(String userIdentifier) {
@@ -58,4 +88,34 @@ public class CodeValidationService {
     public ExecutionLimits getExecutionLimits(String userIdentifier) {
         return resourceLimitService.getLimitsForUser(userIdentifier);
     }
-}
\ No newline at end of file
+
+    private String checkSize(ExecutionRequest request) {
+        if (!resourceLimitService.checkCodeSize(request.getCode())) {
+            return "Code size exceeds maximum allowed limit.";
+        }
+        if (!resourceLimitService.checkInputSize(request.getInput())) {
+            return "Input size exceeds maximum allowed limit.";
+        }
+        return null;
+    }
+
+    private String timed(Stage stage, Supplier<String> check) {
+        long started = System.nanoTime();
+        String violation = check.get();
+        (violation == null ? passed : rejected).get(stage)
+                .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return violation;
+    }
+
+    private ValidationVerdict reject(Stage stage, String reason, String userIdentifier) {
+        log.warn("Request from {} rejected at {} stage: {}", userIdentifier, stage, reason);
+        return ValidationVerdict.rejected(stage, reason);
+    }
+
+    private static Timer stageTimer(MeterRegistry meterRegistry, Stage stage, String outcome) {
+        return Timer.builder("validation.stage.duration")
+                .tag("stage", stage.name().toLowerCase())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,273 @@
+package com.compiler.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+public class CompiledArtifactCache {
+
+    private static final String STAGING_PREFIX = ".staging-";
+
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    @Value("${execution.artifact-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${execution.artifact-cache.dir:${java.io.tmpdir}/code-compiler-artifacts}")
+    private String directory;
+
+    @Value("${execution.artifact-cache.max-bytes:536870912}")
+    private long maxBytes;
+
+    private Path root;
+
+    public CompiledArtifactCache(MeterRegistry meterRegistry) {
+        this.hits = Counter.builder("execution.artifact.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("execution.artifact.cache.requests").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("execution.artifact.cache.bytes", this, CompiledArtifactCache::getTotalBytes)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        root = Paths.get(directory).toAbsolutePath().normalize();
+        try {
+            Files.createDirectories(root);
+            // Sandboxed runs must never see, let alone replace, what other runs compiled.
+            Files.setPosixFilePermissions(root, PosixFilePermissions.fromString("rwx------"));
+            loadIndex();
+        } catch (IOException e) {
+            log.warn("Compiled artifact cache disabled, cannot use {}: {}", root, e.getMessage());
+            enabled = false;
+        }
+    }
+
+    public static String key(String source, String language, List<String> flags) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(source.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(language.toLowerCase().getBytes(StandardCharsets.UTF_8));
+            for (String flag : flags) {
+                digest.update((byte) 0);
+                digest.update(flag.getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public boolean restore(String key, Path targetDir) {
+        if (!enabled || !touch(key)) {
+            misses.increment();
+            return false;
+        }
+        Path entry = root.resolve(key);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(entry)) {
+            for (Path file : files) {
+                Files.copy(file, targetDir.resolve(file.getFileName().toString()),
+                        StandardCopyOption.COPY_ATTRIBUTES, StandardCopyOption.REPLACE_EXISTING);
+            }
+            hits.increment();
+            return true;
+        } catch (IOException e) {
+            log.debug("Cached artifact {} unavailable: {}", key, e.getMessage());
+            forget(key);
+            misses.increment();
+            return false;
+        }
+    }
+
+    public Optional<Map<String, byte[]>> loadClasses(String key) {
+        if (!enabled || !touch(key)) {
+            misses.increment();
+            return Optional.empty();
+        }
+        Map<String, byte[]> classes = new HashMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(root.resolve(key), "*.class")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                classes.put(name.substring(0, name.length() - ".class".length()), Files.readAllBytes(file));
+            }
+            hits.increment();
+            return Optional.of(classes);
+        } catch (IOException e) {
+            log.debug("Cached classes {} unavailable: {}", key, e.getMessage());
+            forget(key);
+            misses.increment();
+            return Optional.empty();
+        }
+    }
+
+    public void store(String key, Path sourceDir, List<String> fileNames) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Path staging = stage();
+            for (String name : fileNames) {
+                Files.copy(sourceDir.resolve(name), staging.resolve(name), StandardCopyOption.COPY_ATTRIBUTES);
+            }
+            publish(key, staging);
+        } catch (IOException e) {
+            log.warn("Failed to cache compiled artifact {}: {}", key, e.getMessage());
+        }
+    }
+
+    public void storeClasses(String key, Map<String, byte[]> classes) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Path staging = stage();
+            for (Map.Entry<String, byte[]> entry : classes.entrySet()) {
+                Files.write(staging.resolve(entry.getKey() + ".class"), entry.getValue());
+            }
+            publish(key, staging);
+        } catch (IOException e) {
+            log.warn("Failed to cache compiled classes {}: {}", key, e.getMessage());
+        }
+    }
+
+    private Path stage() throws IOException {
+        return Files.createDirectory(root.resolve(STAGING_PREFIX + UUID.randomUUID()));
+    }
+
+    private void publish(String key, Path staging) throws IOException {
+        long size = sizeOf(staging);
+        if (size > maxBytes) {
+            deleteQuietly(staging);
+            return;
+        }
+        try {
+            Files.move(staging, root.resolve(key), StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileSystemException e) {
+            // Another run compiled the same source first; keep its copy.
+            deleteQuietly(staging);
+            return;
+        }
+
+        List<String> evicted = new ArrayList<>();
+        synchronized (this) {
+            Long previous = entries.put(key, size);
+            totalBytes += size - (previous != null ? previous : 0);
+
+            Iterator<Map.Entry<String, Long>> eldest = entries.entrySet().iterator();
+            while (totalBytes > maxBytes && eldest.hasNext()) {
+                Map.Entry<String, Long> entry = eldest.next();
+                if (entry.getKey().equals(key)) {
+                    continue;
+                }
+                totalBytes -= entry.getValue();
+                evicted.add(entry.getKey());
+                eldest.remove();
+            }
+        }
+        for (String victim : evicted) {
+            deleteQuietly(root.resolve(victim));
+        }
+    }
+
+    private synchronized boolean touch(String key) {
+        return entries.get(key) != null;
+    }
+
+    private synchronized void forget(String key) {
+        Long size = entries.remove(key);
+        if (size != null) {
+            totalBytes -= size;
+        }
+    }
+
+    private void loadIndex() throws IOException {
+        List<Path> existing = new ArrayList<>();
+        try (DirectoryStream<Path> dirs = Files.newDirectoryStream(root)) {
+            for (Path dir : dirs) {
+                if (dir.getFileName().toString().startsWith(STAGING_PREFIX)) {
+                    deleteQuietly(dir);
+                } else if (Files.isDirectory(dir)) {
+                    existing.add(dir);
+                }
+            }
+        }
+        existing.sort(Comparator.comparing(this::lastModified));
+        for (Path dir : existing) {
+            long size = sizeOf(dir);
+            entries.put(dir.getFileName().toString(), size);
+            totalBytes += size;
+        }
+        log.info("Compiled artifact cache at {} holds {} entries ({} bytes)", root, entries.size(), totalBytes);
+    }
+
+    private FileTime lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private long sizeOf(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            return files.filter(Files::isRegularFile).mapToLong(file -> file.toFile().length()).sum();
+        }
+    }
+
+    private void deleteQuietly(Path dir) {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            log.debug("Failed to delete {}: {}", dir, e.getMessage());
+        }
+    }
+
+    public Path getRoot() {
+        return enabled ? root : null;
+    }
+
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+}
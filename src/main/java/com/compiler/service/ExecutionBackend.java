@@ -0,0 +1,19 @@
+package com.compiler.service;
+
+import com.compiler.dto.ExecutionJob;
+import com.compiler.dto.ExecutionResponse;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface ExecutionBackend {
+
+    String getName();
+
+    boolean supports(String language);
+
+    CompletableFuture<ExecutionResponse> execute(ExecutionJob job);
+
+    default CompletableFuture<ExecutionResponse> execute(ExecutionJob job, ExecutionListener listener) {
+        return execute(job);
+    }
+}
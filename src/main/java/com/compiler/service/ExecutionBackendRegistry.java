@@ -0,0 +1,45 @@
+package com.compiler.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+@Slf4j
+@Service
+public class ExecutionBackendRegistry {
+
+    private final List<ExecutionBackend> backends;
+
+    public ExecutionBackendRegistry(List<ExecutionBackend> backends,
+                                    @Value("${execution.backends.order:warm-jvm,local,judge0}") List<String> order) {
+        List<ExecutionBackend> ordered = new ArrayList<>(backends);
+        ordered.sort(Comparator.comparingInt(backend -> {
+            int index = order.indexOf(backend.getName());
+            return index >= 0 ? index : Integer.MAX_VALUE;
+        }));
+        this.backends = List.copyOf(ordered);
+        log.info("Execution backends in order of preference: {}",
+                this.backends.stream().map(ExecutionBackend::getName).toList());
+    }
+
+    public Optional<ExecutionBackend> resolve(String language) {
+        if (language == null) {
+            return Optional.empty();
+        }
+        for (ExecutionBackend backend : backends) {
+            if (backend.supports(language)) {
+                return Optional.of(backend);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public List<ExecutionBackend> getBackends() {
+        return backends;
+    }
+}
@@ -0,0 +1,104 @@
+package com.compiler.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@Slf4j
+@Service
+public class ExecutionCoalescer {
+
+    private final Map<String, CompletableFuture<?>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter leaders;
+    private final Counter followers;
+    private final Counter fallbacks;
+
+    @Value("${execution.coalesce.enabled:true}")
+    private boolean enabled;
+
+    @Value("${execution.coalesce.max-wait-ms:20000}")
+    private long maxWaitMs;
+
+    public ExecutionCoalescer(MeterRegistry meterRegistry) {
+        this.leaders = Counter.builder("execution.coalesce.calls").tag("role", "leader").register(meterRegistry);
+        this.followers = Counter.builder("execution.coalesce.calls").tag("role", "follower").register(meterRegistry);
+        this.fallbacks = Counter.builder("execution.coalesce.calls").tag("role", "fallback").register(meterRegistry);
+    }
+
+    public <T> CompletableFuture<T> execute(String key, Supplier<CompletableFuture<T>> call) {
+        if (!enabled) {
+            return invoke(call);
+        }
+        return execute(key, call, true);
+    }
+
+    private <T> CompletableFuture<T> execute(String key, Supplier<CompletableFuture<T>> call, boolean retryOnFailure) {
+
+        CompletableFuture<T> promise = new CompletableFuture<>();
+        CompletableFuture<T> existing = (CompletableFuture<T>) inFlight.putIfAbsent(key, promise);
+
+        if (existing == null) {
+            leaders.increment();
+            lead(key, promise, call);
+            return promise;
+        }
+
+        followers.increment();
+        log.debug("Attaching to in-flight execution {}", key);
+
+        CompletableFuture<T> follower = new CompletableFuture<>();
+        existing.copy()
+                .orTimeout(maxWaitMs, TimeUnit.MILLISECONDS)
+                .whenComplete((result, error) -> {
+                    if (error == null) {
+                        follower.complete(result);
+                        return;
+                    }
+                    // The leader failed or is taking too long: retry once, coalescing with the other
+                    // followers so that a failed leader does not turn into a burst of duplicate calls.
+                    fallbacks.increment();
+                    log.debug("In-flight execution {} failed for follower, retrying: {}", key, error.getMessage());
+                    CompletableFuture<T> retry = retryOnFailure ? execute(key, call, false) : invoke(call);
+                    retry.whenComplete((retried, retryError) -> {
+                        if (retryError == null) {
+                            follower.complete(retried);
+                        } else {
+                            follower.completeExceptionally(retryError);
+                        }
+                    });
+                });
+        return follower;
+    }
+
+    private <T> void lead(String key, CompletableFuture<T> promise, Supplier<CompletableFuture<T>> call) {
+        invoke(call).whenComplete((result, error) -> {
+            inFlight.remove(key, promise);
+            if (error == null) {
+                promise.complete(result);
+            } else {
+                promise.completeExceptionally(error);
+            }
+        });
+    }
+
+    private <T> CompletableFuture<T> invoke(Supplier<CompletableFuture<T>> call) {
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,38 @@
+package com.compiler.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+public final class ExecutionFingerprint {
+
+    private static final byte SEPARATOR = 0;
+
+    private ExecutionFingerprint() {
+    }
+
+    public static String of(String formattedSource, String language, String stdin, String expectedOutput) {
+        MessageDigest digest = sha256();
+        update(digest, formattedSource);
+        update(digest, language != null ? language.toLowerCase() : "");
+        update(digest, stdin);
+        update(digest, expectedOutput);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        if (value != null) {
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+        }
+        digest.update(SEPARATOR);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.compiler.service;
+
+public interface ExecutionListener {
+
+    ExecutionListener NONE = new ExecutionListener() {
+    };
+
+    String STDOUT = "stdout";
+    String STDERR = "stderr";
+
+    default void onStatus(String status) {
+    }
+
+    default void onOutput(String stream, String chunk) {
+    }
+}
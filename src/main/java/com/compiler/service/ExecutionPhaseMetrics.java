@@ -0,0 +1,37 @@
+package com.compiler.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class ExecutionPhaseMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public ExecutionPhaseMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void recordCompile(String backend, String language, long nanos, boolean cached) {
+        Timer.builder("execution.phase.duration")
+                .tag("backend", backend)
+                .tag("language", language)
+                .tag("phase", "compile")
+                .tag("cache", cached ? "hit" : "miss")
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordRun(String backend, String language, long nanos) {
+        Timer.builder("execution.phase.duration")
+                .tag("backend", backend)
+                .tag("language", language)
+                .tag("phase", "run")
+                .tag("cache", "none")
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
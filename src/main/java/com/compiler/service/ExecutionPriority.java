@@ -0,0 +1,28 @@
+package com.compiler.service;
+
+import com.compiler.entity.User;
+
+public enum ExecutionPriority {
+
+    GRADED,
+    STANDARD,
+    PLAYGROUND;
+
+    public String tag() {
+        return name().toLowerCase();
+    }
+
+    public static ExecutionPriority forGradedSubmission() {
+        return GRADED;
+    }
+
+    public static ExecutionPriority forInteractiveRun(User user) {
+        if (user == null) {
+            return PLAYGROUND;
+        }
+        if ("ROLE_ADMIN".equals(user.getRole())) {
+            return GRADED;
+        }
+        return STANDARD;
+    }
+}
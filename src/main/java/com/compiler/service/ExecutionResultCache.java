@@ -0,0 +1,212 @@
+package com.compiler.service;
+
+import com.compiler.dto.ExecutionResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+@Slf4j
+@Service
+public class ExecutionResultCache {
+
+    private static final String KEY_PREFIX = "execution:cache:";
+    private static final long ENTRY_OVERHEAD_BYTES = 128;
+
+    private static final Set<String> UNCACHEABLE_STATUSES = Set.of(
+            "Error", "Time Limit Exceeded", "Internal Error", "Exec Format Error"
+    );
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    private final LinkedHashMap<String, CachedResult> localEntries = new LinkedHashMap<>(256, 0.75f, true);
+    private long localWeightBytes;
+
+    private final Map<String, Long> languageTtlSeconds = createLanguageTtls();
+
+    private final Counter localHits;
+    private final Counter redisHits;
+    private final Counter misses;
+
+    @Value("${execution.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${execution.cache.local.max-bytes:33554432}")
+    private long maxLocalWeightBytes;
+
+    @Value("${execution.cache.ttl-seconds:600}")
+    private long defaultTtlSeconds;
+
+    public ExecutionResultCache(StringRedisTemplate redisTemplate, ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.localHits = Counter.builder("execution.cache.requests")
+                .tag("tier", "local").tag("result", "hit").register(meterRegistry);
+        this.redisHits = Counter.builder("execution.cache.requests")
+                .tag("tier", "redis").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("execution.cache.requests")
+                .tag("tier", "none").tag("result", "miss").register(meterRegistry);
+    }
+
+    private Map<String, Long> createLanguageTtls() {
+        Map<String, Long> ttls = new HashMap<>();
+        ttls.put("python", 600L);
+        ttls.put("javascript", 600L);
+        ttls.put("ruby", 600L);
+        ttls.put("c", 3600L);
+        ttls.put("cpp", 3600L);
+        ttls.put("java", 3600L);
+        ttls.put("csharp", 3600L);
+        ttls.put("go", 3600L);
+        ttls.put("rust", 3600L);
+        ttls.put("kotlin", 3600L);
+        ttls.put("swift", 3600L);
+        return ttls;
+    }
+
+    public Optional<ExecutionResponse> get(String fingerprint) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        CachedResult local = getLocal(fingerprint);
+        if (local != null) {
+            localHits.increment();
+            return Optional.of(copy(local.response));
+        }
+
+        try {
+            String key = KEY_PREFIX + fingerprint;
+            String json = redisTemplate.opsForValue().get(key);
+            if (json != null) {
+                ExecutionResponse response = objectMapper.readValue(json, ExecutionResponse.class);
+                Long ttlSeconds = redisTemplate.getExpire(key);
+                putLocal(fingerprint, response, ttlSeconds != null && ttlSeconds > 0 ? ttlSeconds : defaultTtlSeconds);
+                redisHits.increment();
+                return Optional.of(copy(response));
+            }
+        } catch (Exception e) {
+            log.warn("Failed to read cached execution result {}: {}", fingerprint, e.getMessage());
+        }
+
+        misses.increment();
+        return Optional.empty();
+    }
+
+    public void put(String fingerprint, String language, ExecutionResponse response) {
+        if (!enabled || !isCacheable(response)) {
+            return;
+        }
+
+        ExecutionResponse stored = copy(response);
+
+        long ttlSeconds = languageTtlSeconds.getOrDefault(
+                language != null ? language.toLowerCase() : "", defaultTtlSeconds);
+        putLocal(fingerprint, stored, ttlSeconds);
+
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + fingerprint,
+                    objectMapper.writeValueAsString(stored), Duration.ofSeconds(ttlSeconds));
+        } catch (Exception e) {
+            log.warn("Failed to cache execution result {}: {}", fingerprint, e.getMessage());
+        }
+    }
+
+    public boolean isCacheable(ExecutionResponse response) {
+        // Spilled output lives in a local blob that the shared tier cannot reference.
+        return response != null && response.getStatus() != null
+                && !UNCACHEABLE_STATUSES.contains(response.getStatus())
+                && !Boolean.TRUE.equals(response.getOutputTruncated());
+    }
+
+    private synchronized CachedResult getLocal(String fingerprint) {
+        CachedResult cached = localEntries.get(fingerprint);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.expiresAt <= System.currentTimeMillis()) {
+            localEntries.remove(fingerprint);
+            localWeightBytes -= cached.weightBytes;
+            return null;
+        }
+        return cached;
+    }
+
+    private synchronized void putLocal(String fingerprint, ExecutionResponse response, long ttlSeconds) {
+        long weight = weigh(fingerprint, response);
+        if (weight > maxLocalWeightBytes) {
+            return;
+        }
+
+        CachedResult previous = localEntries.put(fingerprint,
+                new CachedResult(response, System.currentTimeMillis() + ttlSeconds * 1000, weight));
+        if (previous != null) {
+            localWeightBytes -= previous.weightBytes;
+        }
+        localWeightBytes += weight;
+
+        Iterator<CachedResult> eldest = localEntries.values().iterator();
+        while (localWeightBytes > maxLocalWeightBytes && eldest.hasNext()) {
+            localWeightBytes -= eldest.next().weightBytes;
+            eldest.remove();
+        }
+    }
+
+    private long weigh(String fingerprint, ExecutionResponse response) {
+        return ENTRY_OVERHEAD_BYTES
+                + 2L * fingerprint.length()
+                + 2L * length(response.getOutput())
+                + 2L * length(response.getError())
+                + 2L * length(response.getStatus());
+    }
+
+    private int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+
+    private ExecutionResponse copy(ExecutionResponse response) {
+        ExecutionResponse copy = new ExecutionResponse();
+        copy.setOutput(response.getOutput());
+        copy.setError(response.getError());
+        copy.setStatus(response.getStatus());
+        copy.setExecutionTime(response.getExecutionTime());
+        copy.setMemoryUsed(response.getMemoryUsed());
+        copy.setIsCorrect(response.getIsCorrect());
+        copy.setOutputTruncated(response.getOutputTruncated());
+        copy.setOutputSize(response.getOutputSize());
+        return copy;
+    }
+
+    public synchronized int getLocalSize() {
+        return localEntries.size();
+    }
+
+    public synchronized long getLocalWeightBytes() {
+        return localWeightBytes;
+    }
+
+    private static final class CachedResult {
+        private final ExecutionResponse response;
+        private final long expiresAt;
+        private final long weightBytes;
+
+        private CachedResult(ExecutionResponse response, long expiresAt, long weightBytes) {
+            this.response = response;
+            this.expiresAt = expiresAt;
+            this.weightBytes = weightBytes;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.compiler.service;
+
+import com.compiler.dto.ExecutionResponse;
+import com.compiler.dto.ExecutionTicket;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Service
+public class ExecutionResultStore {
+
+    private static final String KEY_PREFIX = "execution:result:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, Waiter> waiters = new ConcurrentHashMap<>();
+
+    @Value("${execution.result.ttl-seconds:3600}")
+    private long resultTtlSeconds;
+
+    public ExecutionResultStore(StringRedisTemplate redisTemplate, ObjectMapper objectMapper) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    public ExecutionTicket register(String token, String owner) {
+        ExecutionTicket ticket = ExecutionTicket.pending(token);
+        waiters.computeIfAbsent(token, t -> new Waiter(owner));
+        write(ticket, owner);
+        return ticket;
+    }
+
+    public ExecutionTicket complete(String token, String owner, ExecutionResponse response) {
+        ExecutionTicket ticket = ExecutionTicket.completed(token, response);
+        write(ticket, owner);
+
+        Waiter waiter = waiters.remove(token);
+        if (waiter != null) {
+            waiter.result.complete(response);
+        }
+        return ticket;
+    }
+
+    /**
+     * Tokens submitted by a signed-in user can only be read back by that user; anonymous tokens are bearer
+     * secrets. A token owned by someone else looks exactly like an unknown one.
+     */
+    public Optional<ExecutionTicket> find(String token, String caller) {
+        Waiter waiter = waiters.get(token);
+        if (waiter != null && !waiter.result.isDone()) {
+            return readableBy(waiter.owner, caller) ? Optional.of(ExecutionTicket.pending(token)) : Optional.empty();
+        }
+        return read(token, caller);
+    }
+
+    public Optional<CompletableFuture<ExecutionResponse>> await(String token, String caller) {
+        Waiter waiter = waiters.get(token);
+        if (waiter != null) {
+            return readableBy(waiter.owner, caller) ? Optional.of(waiter.result) : Optional.empty();
+        }
+
+        return read(token, caller)
+                .filter(ExecutionTicket::isCompleted)
+                .map(ticket -> CompletableFuture.completedFuture(ticket.getResult()));
+    }
+
+    private static boolean readableBy(String owner, String caller) {
+        return owner == null || owner.equals(caller);
+    }
+
+    private void write(ExecutionTicket ticket, String owner) {
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + ticket.getToken(),
+                    objectMapper.writeValueAsString(new StoredTicket(owner, ticket)),
+                    Duration.ofSeconds(resultTtlSeconds));
+        } catch (Exception e) {
+            log.warn("Failed to store execution ticket {} in Redis: {}", ticket.getToken(), e.getMessage());
+        }
+    }
+
+    private Optional<ExecutionTicket> read(String token, String caller) {
+        try {
+            String json = redisTemplate.opsForValue().get(KEY_PREFIX + token);
+            if (json == null) {
+                return Optional.empty();
+            }
+            StoredTicket stored = objectMapper.readValue(json, StoredTicket.class);
+            return readableBy(stored.getOwner(), caller) ? Optional.ofNullable(stored.getTicket()) : Optional.empty();
+        } catch (Exception e) {
+            log.warn("Failed to read execution ticket {} from Redis: {}", token, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static final class Waiter {
+        private final String owner;
+        private final CompletableFuture<ExecutionResponse> result = new CompletableFuture<>();
+
+        private Waiter(String owner) {
+            this.owner = owner;
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class StoredTicket {
+        private String owner;
+        private ExecutionTicket ticket;
+    }
+}
@@ -0,0 +1,454 @@
+package com.compiler.service;
+
+import com.compiler.exception.ExecutionRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@Slf4j
+@Service
+public class ExecutionScheduler {
+
+    private final Map<ExecutionPriority, Lane> lanes = new EnumMap<>(ExecutionPriority.class);
+    private int queuedCount;
+    private int runningCount;
+    private double averageServiceMs = 1000;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${execution.scheduler.max-concurrency:16}")
+    private int maxConcurrency;
+
+    @Value("${execution.scheduler.max-queue:200}")
+    private int maxQueue;
+
+    @Value("${execution.scheduler.max-queue-per-client:10}")
+    private int maxQueuePerClient;
+
+    @Value("${execution.scheduler.quantum:1}")
+    private long quantum;
+
+    @Value("${execution.scheduler.max-queue-wait-ms:30000}")
+    private long maxQueueWaitMs;
+
+    @Value("${execution.scheduler.reserved-share.graded:0.5}")
+    private double gradedShare;
+
+    @Value("${execution.scheduler.reserved-share.standard:0.2}")
+    private double standardShare;
+
+    @Value("${execution.scheduler.reserved-share.playground:0.1}")
+    private double playgroundShare;
+
+    public ExecutionScheduler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        for (ExecutionPriority priority : ExecutionPriority.values()) {
+            Lane lane = new Lane(priority, Timer.builder("execution.scheduler.wait")
+                    .tag("priority", priority.tag())
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry));
+            lanes.put(priority, lane);
+            Gauge.builder("execution.scheduler.queue.depth", this, s -> s.getQueuedCount(priority))
+                    .tag("priority", priority.tag())
+                    .register(meterRegistry);
+            Gauge.builder("execution.scheduler.running", this, s -> s.getRunningCount(priority))
+                    .tag("priority", priority.tag())
+                    .register(meterRegistry);
+        }
+    }
+
+    public <T> CompletableFuture<T> submit(String clientId, Supplier<CompletableFuture<T>> call) {
+        return submit(clientId, ExecutionPriority.STANDARD, 1, call);
+    }
+
+    public <T> CompletableFuture<T> submit(String clientId, ExecutionPriority priority,
+                                           Supplier<CompletableFuture<T>> call) {
+        return submit(clientId, priority, 1, call);
+    }
+
+    public <T> CompletableFuture<T> submit(String clientId, ExecutionPriority priority, long cost,
+                                           Supplier<CompletableFuture<T>> call) {
+        Task<T> task = new Task<>(clientId, call, priority, Math.max(1, cost));
+        task.result.whenComplete((value, error) -> {
+            if (task.result.isCancelled()) {
+                cancel(task);
+            }
+        });
+        Task<?> preempted = null;
+        List<Task<?>> expired = new ArrayList<>();
+        boolean startNow = false;
+
+        synchronized (this) {
+            Lane lane = lanes.get(priority);
+            if (!hasQueuedAtOrAbove(priority) && canStart(priority)) {
+                lane.running++;
+                runningCount++;
+                startNow = true;
+            } else {
+                ClientQueue queue = lane.queues.get(clientId);
+                if (queue != null && queue.tasks.size() >= maxQueuePerClient) {
+                    reject("client-queue-full", priority);
+                    throw new ExecutionRejectedException("Too many executions queued for this client",
+                            true, retryAfterSeconds(queue.tasks.size()));
+                }
+                if (queuedCount >= maxQueue) {
+                    removeExpired(expired);
+                }
+                if (queuedCount >= maxQueue) {
+                    preempted = evictBelow(priority);
+                    if (preempted == null) {
+                        reject("queue-full", priority);
+                        expireAll(expired);
+                        throw new ExecutionRejectedException("Execution queue is full, please retry later",
+                                false, retryAfterSeconds(queuedCount));
+                    }
+                }
+                if (queue == null) {
+                    queue = new ClientQueue(clientId);
+                    lane.queues.put(clientId, queue);
+                }
+                enqueue(lane, queue, task);
+                log.debug("Queued {} execution for client {} (queue depth {})", priority.tag(), clientId, queuedCount);
+            }
+        }
+
+        expireAll(expired);
+        if (preempted != null) {
+            preempted.result.completeExceptionally(new ExecutionRejectedException(
+                    "Execution was preempted by higher-priority work, please retry later",
+                    false, retryAfterSeconds(getQueuedCount())));
+        }
+        if (startNow) {
+            start(task);
+        }
+        return task.result;
+    }
+
+    @Scheduled(fixedDelayString = "${execution.scheduler.expiry-interval-ms:1000}")
+    public void expireQueued() {
+        List<Task<?>> expired = new ArrayList<>();
+        synchronized (this) {
+            removeExpired(expired);
+        }
+        expireAll(expired);
+    }
+
+    private void removeExpired(List<Task<?>> expired) {
+        long deadline = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(maxQueueWaitMs);
+        for (Lane lane : lanes.values()) {
+            for (ClientQueue queue : new ArrayList<>(lane.queues.values())) {
+                // Each client queue is FIFO, so expired tasks are always at its head.
+                while (!queue.tasks.isEmpty() && queue.tasks.peekFirst().enqueuedAt - deadline < 0) {
+                    Task<?> task = queue.tasks.pollFirst();
+                    task.queued = false;
+                    lane.queued--;
+                    queuedCount--;
+                    reject("expired", lane.priority);
+                    expired.add(task);
+                }
+                if (queue.tasks.isEmpty()) {
+                    deactivate(lane, queue);
+                }
+            }
+        }
+    }
+
+    private void expireAll(List<Task<?>> expired) {
+        if (expired.isEmpty()) {
+            return;
+        }
+        long retryAfter = retryAfterSeconds(getQueuedCount());
+        for (Task<?> task : expired) {
+            task.result.completeExceptionally(new ExecutionRejectedException(
+                    "Execution waited too long in queue", false, retryAfter));
+        }
+    }
+
+    private void cancel(Task<?> task) {
+        CompletableFuture<?> upstream;
+        synchronized (this) {
+            Lane lane = lanes.get(task.priority);
+            ClientQueue queue = lane.queues.get(task.clientId);
+            if (task.queued && queue != null && queue.tasks.remove(task)) {
+                task.queued = false;
+                lane.queued--;
+                queuedCount--;
+                if (queue.tasks.isEmpty()) {
+                    deactivate(lane, queue);
+                }
+                log.debug("Cancelled queued {} execution for client {}", lane.priority.tag(), task.clientId);
+                return;
+            }
+            upstream = task.upstream;
+        }
+        // Already running: cancelling the backend call completes it, which releases the slot.
+        if (upstream != null) {
+            upstream.cancel(true);
+        }
+    }
+
+    private boolean hasQueuedAtOrAbove(ExecutionPriority priority) {
+        for (Lane lane : lanes.values()) {
+            if (lane.priority.compareTo(priority) > 0) {
+                break;
+            }
+            if (lane.queued > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean canStart(ExecutionPriority priority) {
+        if (runningCount >= maxConcurrency) {
+            return false;
+        }
+        // Slots reserved for other classes stay free until those classes use them.
+        int heldForOthers = 0;
+        for (Lane other : lanes.values()) {
+            if (other.priority != priority) {
+                heldForOthers += Math.max(0, reservedSlots(other.priority) - other.running);
+            }
+        }
+        return runningCount + heldForOthers < maxConcurrency;
+    }
+
+    private int reservedSlots(ExecutionPriority priority) {
+        double share = switch (priority) {
+            case GRADED -> gradedShare;
+            case STANDARD -> standardShare;
+            case PLAYGROUND -> playgroundShare;
+        };
+        return (int) Math.floor(Math.max(0, share) * maxConcurrency);
+    }
+
+    private Task<?> evictBelow(ExecutionPriority priority) {
+        ExecutionPriority[] order = ExecutionPriority.values();
+        for (int i = order.length - 1; i > priority.ordinal(); i--) {
+            Lane lane = lanes.get(order[i]);
+            ClientQueue victim = null;
+            for (ClientQueue queue : lane.active) {
+                if (victim == null || queue.tasks.size() > victim.tasks.size()) {
+                    victim = queue;
+                }
+            }
+            if (victim == null || victim.tasks.isEmpty()) {
+                continue;
+            }
+            Task<?> task = victim.tasks.pollLast();
+            task.queued = false;
+            lane.queued--;
+            queuedCount--;
+            if (victim.tasks.isEmpty()) {
+                deactivate(lane, victim);
+            }
+            reject("preempted", lane.priority);
+            log.debug("Preempted queued {} execution for client {}", lane.priority.tag(), victim.clientId);
+            return task;
+        }
+        return null;
+    }
+
+    private void enqueue(Lane lane, ClientQueue queue, Task<?> task) {
+        task.queued = true;
+        queue.tasks.addLast(task);
+        lane.queued++;
+        queuedCount++;
+        if (!queue.active) {
+            queue.active = true;
+            queue.deficit = 0;
+            lane.active.addLast(queue);
+        }
+    }
+
+    private void start(Task<?> task) {
+        long startedAt = System.nanoTime();
+        lanes.get(task.priority).waitTimer.record(startedAt - task.enqueuedAt, TimeUnit.NANOSECONDS);
+        task.run().whenComplete((result, error) -> {
+            recordServiceTime(System.nanoTime() - startedAt);
+            release(task.priority);
+        });
+    }
+
+    private void release(ExecutionPriority priority) {
+        List<Task<?>> ready = new ArrayList<>(1);
+        List<Task<?>> expired = new ArrayList<>();
+        synchronized (this) {
+            lanes.get(priority).running--;
+            runningCount--;
+            removeExpired(expired);
+            for (Lane lane : lanes.values()) {
+                while (lane.queued > 0 && canStart(lane.priority)) {
+                    Task<?> next = nextTask(lane);
+                    if (next == null) {
+                        break;
+                    }
+                    lane.running++;
+                    runningCount++;
+                    ready.add(next);
+                }
+            }
+        }
+        expireAll(expired);
+        ready.forEach(this::start);
+    }
+
+    private Task<?> nextTask(Lane lane) {
+        ArrayDeque<ClientQueue> activeClients = lane.active;
+        while (!activeClients.isEmpty()) {
+            ClientQueue queue = activeClients.peekFirst();
+            Task<?> head = queue.tasks.peekFirst();
+
+            if (head == null) {
+                deactivate(lane, queue);
+                continue;
+            }
+            if (queue.deficit < head.cost) {
+                // Deficit round robin: each visit to the front of the rotation earns one quantum.
+                queue.deficit += quantum;
+                if (queue.deficit < head.cost) {
+                    activeClients.addLast(activeClients.pollFirst());
+                    continue;
+                }
+            }
+
+            queue.tasks.pollFirst();
+            head.queued = false;
+            lane.queued--;
+            queuedCount--;
+            queue.deficit -= head.cost;
+            if (queue.tasks.isEmpty()) {
+                deactivate(lane, queue);
+            } else if (queue.deficit < queue.tasks.peekFirst().cost) {
+                activeClients.addLast(activeClients.pollFirst());
+            }
+            return head;
+        }
+        return null;
+    }
+
+    private void deactivate(Lane lane, ClientQueue queue) {
+        lane.active.remove(queue);
+        queue.active = false;
+        queue.deficit = 0;
+        if (queue.tasks.isEmpty()) {
+            lane.queues.remove(queue.clientId);
+        }
+    }
+
+    private void reject(String reason, ExecutionPriority priority) {
+        Counter.builder("execution.scheduler.rejected")
+                .tag("reason", reason)
+                .tag("priority", priority.tag())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private synchronized void recordServiceTime(long nanos) {
+        averageServiceMs = 0.9 * averageServiceMs + 0.1 * (nanos / 1_000_000.0);
+    }
+
+    private long retryAfterSeconds(int queuedAhead) {
+        double drainMs = (queuedAhead + 1) * averageServiceMs / Math.max(1, maxConcurrency);
+        return Math.max(1, (long) Math.ceil(drainMs / 1000));
+    }
+
+    public synchronized int getQueuedCount() {
+        return queuedCount;
+    }
+
+    public synchronized int getRunningCount() {
+        return runningCount;
+    }
+
+    public synchronized int getQueuedCount(ExecutionPriority priority) {
+        return lanes.get(priority).queued;
+    }
+
+    public synchronized int getRunningCount(ExecutionPriority priority) {
+        return lanes.get(priority).running;
+    }
+
+    private static final class Lane {
+        private final ExecutionPriority priority;
+        private final Timer waitTimer;
+        private final Map<String, ClientQueue> queues = new HashMap<>();
+        private final ArrayDeque<ClientQueue> active = new ArrayDeque<>();
+        private int queued;
+        private int running;
+
+        private Lane(ExecutionPriority priority, Timer waitTimer) {
+            this.priority = priority;
+            this.waitTimer = waitTimer;
+        }
+    }
+
+    private static final class ClientQueue {
+        private final String clientId;
+        private final ArrayDeque<Task<?>> tasks = new ArrayDeque<>();
+        private long deficit;
+        private boolean active;
+
+        private ClientQueue(String clientId) {
+            this.clientId = clientId;
+        }
+    }
+
+    private static final class Task<T> {
+        private final String clientId;
+        private final Supplier<CompletableFuture<T>> call;
+        private final ExecutionPriority priority;
+        private final long cost;
+        private final long enqueuedAt = System.nanoTime();
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private boolean queued;
+        private volatile CompletableFuture<T> upstream;
+
+        private Task(String clientId, Supplier<CompletableFuture<T>> call, ExecutionPriority priority, long cost) {
+            this.clientId = clientId;
+            this.call = call;
+            this.priority = priority;
+            this.cost = cost;
+        }
+
+        private CompletableFuture<T> run() {
+            if (result.isDone()) {
+                // Cancelled between leaving the queue and starting.
+                return CompletableFuture.completedFuture(null);
+            }
+            CompletableFuture<T> upstream;
+            try {
+                upstream = call.get();
+            } catch (RuntimeException e) {
+                upstream = CompletableFuture.failedFuture(e);
+            }
+            this.upstream = upstream;
+            if (result.isCancelled()) {
+                upstream.cancel(true);
+            }
+            upstream.whenComplete((value, error) -> {
+                if (error == null) {
+                    result.complete(value);
+                } else {
+                    result.completeExceptionally(error);
+                }
+            });
+            return upstream;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.compiler.service;
+
+import com.compiler.dto.ExecutionRequest;
+import com.compiler.dto.ExecutionResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+
+@Slf4j
+@Service
+public class ExecutionStreamService {
+
+    private final Judge0Service judge0Service;
+
+    @Value("${execution.stream.chunk-chars:4096}")
+    private int chunkChars;
+
+    @Value("${execution.stream.timeout-ms:120000}")
+    private long timeoutMs;
+
+    public ExecutionStreamService(Judge0Service judge0Service) {
+        this.judge0Service = judge0Service;
+    }
+
+    public SseEmitter stream(ExecutionRequest request, HttpServletRequest httpRequest) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        EventSink sink = new EventSink(emitter, Math.max(1, chunkChars));
+        emitter.onTimeout(sink::close);
+        emitter.onError(e -> sink.close());
+        emitter.onCompletion(sink::close);
+
+        judge0Service.executeStreaming(request, httpRequest, sink)
+                .whenComplete(sink::finish);
+        return emitter;
+    }
+
+    static final class EventSink implements ExecutionListener {
+
+        private final SseEmitter emitter;
+        private final int chunkChars;
+        private volatile boolean closed;
+        private volatile boolean streamedStdout;
+        private volatile boolean streamedStderr;
+
+        EventSink(SseEmitter emitter, int chunkChars) {
+            this.emitter = emitter;
+            this.chunkChars = chunkChars;
+        }
+
+        @Override
+        public void onStatus(String status) {
+            send("status", Map.of("status", status));
+        }
+
+        @Override
+        public void onOutput(String stream, String chunk) {
+            if (STDERR.equals(stream)) {
+                streamedStderr = true;
+            } else {
+                streamedStdout = true;
+            }
+            sendChunked(stream, chunk);
+        }
+
+        void finish(ExecutionResponse response, Throwable error) {
+            if (response == null) {
+                response = ExecutionResponse.error("Execution failed: "
+                        + (error != null ? error.getMessage() : "no result"));
+            }
+            if (!streamedStdout && response.getOutput() != null) {
+                sendChunked(STDOUT, response.getOutput());
+            }
+
+            ExecutionResponse summary = new ExecutionResponse();
+            summary.setStatus(response.getStatus());
+            summary.setError(streamedStderr ? null : response.getError());
+            summary.setExecutionTime(response.getExecutionTime());
+            summary.setMemoryUsed(response.getMemoryUsed());
+            summary.setIsCorrect(response.getIsCorrect());
+            send("result", summary);
+
+            if (!closed) {
+                closed = true;
+                emitter.complete();
+            }
+        }
+
+        void close() {
+            closed = true;
+        }
+
+        private void sendChunked(String event, String text) {
+            int from = 0;
+            while (from < text.length() && !closed) {
+                int to = Math.min(text.length(), from + chunkChars);
+                if (to < text.length() && to - from > 1 && Character.isHighSurrogate(text.charAt(to - 1))) {
+                    to--;
+                }
+                send(event, Map.of("text", text.substring(from, to)));
+                from = to;
+            }
+        }
+
+        private void send(String event, Object data) {
+            if (closed) {
+                return;
+            }
+            try {
+                emitter.send(SseEmitter.event().name(event).data(data, MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Execution stream closed by client: {}", e.getMessage());
+                closed = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.compiler.service;
+
+import com.compiler.exception.ExecutionRejectedException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Slf4j
+@Component
+public class InMemoryJavaCompiler {
+
+    private static final Pattern PUBLIC_CLASS =
+            Pattern.compile("public\\s+(?:final\\s+|abstract\\s+)*class\\s+([A-Za-z_$][A-Za-z0-9_$]*)");
+
+    private static final List<String> OPTIONS = List.of("-proc:none", "-g:source,lines", "-Xlint:none",
+            "-encoding", "UTF-8");
+
+    private static final int FILE_MANAGER_POOL_SIZE = 4;
+    private static final int COMPILE_QUEUE_SIZE = 64;
+
+    private final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    private final BlockingQueue<StandardJavaFileManager> fileManagers = new ArrayBlockingQueue<>(FILE_MANAGER_POOL_SIZE);
+
+    // javac runs inside the service JVM, so it gets a fixed number of threads and a deadline of its own.
+    private final ExecutorService compileThreads = new ThreadPoolExecutor(FILE_MANAGER_POOL_SIZE,
+            FILE_MANAGER_POOL_SIZE, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(COMPILE_QUEUE_SIZE),
+            runnable -> {
+                Thread thread = new Thread(runnable, "javac");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    @Value("${execution.warm-jvm.compile-timeout-ms:10000}")
+    private long compileTimeoutMs = 10000;
+
+    public List<String> getFlags() {
+        List<String> flags = new ArrayList<>();
+        flags.add("javax.tools");
+        flags.add(Runtime.version().toString());
+        flags.addAll(OPTIONS);
+        return flags;
+    }
+
+    public boolean isAvailable() {
+        return compiler != null;
+    }
+
+    public Result compile(String source) {
+        if (compiler == null) {
+            throw new IllegalStateException("No system Java compiler available; run the service on a JDK");
+        }
+
+        String className = mainClassName(source);
+        Future<Result> task;
+        try {
+            task = compileThreads.submit(() -> compile(className, source));
+        } catch (RejectedExecutionException e) {
+            throw new ExecutionRejectedException("Java compiler is busy, please retry later", false, 1);
+        }
+        try {
+            return task.get(compileTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            task.cancel(true);
+            return new Result(className, null, "Compilation timed out");
+        } catch (InterruptedException e) {
+            task.cancel(true);
+            Thread.currentThread().interrupt();
+            return new Result(className, null, "Compilation interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Compilation failed", e.getCause());
+        }
+    }
+
+    private Result compile(String className, String source) {
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        StandardJavaFileManager standard = fileManagers.poll();
+        if (standard == null) {
+            standard = newFileManager();
+        }
+
+        try {
+            ClassCollector collector = new ClassCollector(standard);
+            JavaFileObject unit = new SourceFile(className, source);
+            boolean success = compiler.getTask(null, collector, diagnostics, OPTIONS, null, List.of(unit)).call();
+
+            if (!success) {
+                return new Result(className, null, formatDiagnostics(className, diagnostics));
+            }
+            return new Result(className, collector.classes, null);
+        } finally {
+            if (!fileManagers.offer(standard)) {
+                try {
+                    standard.close();
+                } catch (Exception e) {
+                    log.debug("Failed to close file manager: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        compileThreads.shutdownNow();
+    }
+
+    private StandardJavaFileManager newFileManager() {
+        StandardJavaFileManager manager = compiler.getStandardFileManager(null, Locale.ROOT, StandardCharsets.UTF_8);
+        try {
+            manager.setLocation(StandardLocation.CLASS_PATH, List.of());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return manager;
+    }
+
+    String mainClassName(String source) {
+        Matcher matcher = PUBLIC_CLASS.matcher(source);
+        return matcher.find() ? matcher.group(1) : "Main";
+    }
+
+    private String formatDiagnostics(String className, DiagnosticCollector<JavaFileObject> diagnostics) {
+        StringBuilder out = new StringBuilder();
+        int errors = 0;
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() != Diagnostic.Kind.ERROR) {
+                continue;
+            }
+            errors++;
+            out.append(className).append(".java:").append(diagnostic.getLineNumber())
+                    .append(": error: ").append(diagnostic.getMessage(Locale.ROOT)).append('\n');
+        }
+        out.append(errors).append(errors == 1 ? " error" : " errors");
+        return out.toString();
+    }
+
+    public static final class Result {
+        private final String mainClass;
+        private final Map<String, byte[]> classes;
+        private final String diagnostics;
+
+        private Result(String mainClass, Map<String, byte[]> classes, String diagnostics) {
+            this.mainClass = mainClass;
+            this.classes = classes;
+            this.diagnostics = diagnostics;
+        }
+
+        public boolean isSuccess() {
+            return classes != null;
+        }
+
+        public String getMainClass() {
+            return mainClass;
+        }
+
+        public Map<String, byte[]> getClasses() {
+            return classes;
+        }
+
+        public String getDiagnostics() {
+            return diagnostics;
+        }
+    }
+
+    private static final class SourceFile extends SimpleJavaFileObject {
+        private final String source;
+
+        private SourceFile(String className, String source) {
+            super(URI.create("string:///" + className + Kind.SOURCE.extension), Kind.SOURCE);
+            this.source = source;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return source;
+        }
+    }
+
+    private static final class ClassFile extends SimpleJavaFileObject {
+        private final String className;
+        private final Map<String, byte[]> sink;
+
+        private ClassFile(String className, Map<String, byte[]> sink) {
+            super(URI.create("mem:///" + className.replace('.', '/') + Kind.CLASS.extension), Kind.CLASS);
+            this.className = className;
+            this.sink = sink;
+        }
+
+        @Override
+        public OutputStream openOutputStream() {
+            return new ByteArrayOutputStream() {
+                @Override
+                public void close() {
+                    sink.put(className, toByteArray());
+                }
+            };
+        }
+    }
+
+    private static final class ClassCollector extends ForwardingJavaFileManager<JavaFileManager> {
+        private final Map<String, byte[]> classes = new ConcurrentHashMap<>();
+
+        private ClassCollector(JavaFileManager delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind,
+                                                   FileObject sibling) {
+            return new ClassFile(className, classes);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
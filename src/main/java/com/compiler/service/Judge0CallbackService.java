@@ -0,0 +1,182 @@
+package com.compiler.service;
+
+import com.compiler.dto.Judge0Result;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Issues and redeems Judge0 callback URLs. Every URL carries a signed nonce that is recorded when issued,
+ * bound to the Judge0 token once the submission is accepted, and redeemed at most once, by a callback for
+ * that token, before it expires. A callback that beats the binding is held on its nonce and only delivered
+ * if the token it claims turns out to be the bound one.
+ */
+@Slf4j
+@Service
+public class Judge0CallbackService {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    public enum Outcome {
+        REJECTED, COMPLETED, HELD
+    }
+
+    private final Judge0PollingScheduler judge0PollingScheduler;
+    private final Judge0Client judge0Client;
+
+    private final Map<String, PendingCallback> pending = new ConcurrentHashMap<>();
+
+    @Value("${judge0.callback.enabled:false}")
+    private boolean enabled;
+
+    @Value("${judge0.callback.url:}")
+    private String callbackUrl;
+
+    @Value("${judge0.callback.secret:}")
+    private String secret;
+
+    @Value("${judge0.callback.ttl-ms:120000}")
+    private long ttlMs = 120000;
+
+    public Judge0CallbackService(Judge0PollingScheduler judge0PollingScheduler, Judge0Client judge0Client) {
+        this.judge0PollingScheduler = judge0PollingScheduler;
+        this.judge0Client = judge0Client;
+    }
+
+    public boolean isEnabled() {
+        return enabled && callbackUrl != null && !callbackUrl.isBlank() && secret != null && !secret.isBlank();
+    }
+
+    public Callback newCallback() {
+        String nonce = UUID.randomUUID().toString();
+        pending.put(nonce, new PendingCallback(System.currentTimeMillis() + ttlMs));
+        String url = UriComponentsBuilder.fromUriString(callbackUrl)
+                .queryParam("nonce", nonce)
+                .queryParam("signature", sign(nonce))
+                .build()
+                .toUriString();
+        return new Callback(nonce, url);
+    }
+
+    /**
+     * Ties the callback to the token Judge0 returned for its submission, delivering a result that already
+     * arrived for that token.
+     */
+    public void bind(Callback callback, String judge0Token) {
+        Judge0Result[] held = new Judge0Result[1];
+        pending.computeIfPresent(callback.nonce(), (nonce, entry) -> {
+            if (entry.held == null) {
+                entry.judge0Token = judge0Token;
+                return entry;
+            }
+            if (judge0Token.equals(entry.held.getToken())) {
+                held[0] = entry.held;
+            } else {
+                log.warn("Dropped a Judge0 callback claiming token {} on a nonce issued for {}",
+                        entry.held.getToken(), judge0Token);
+            }
+            return null;
+        });
+        if (held[0] != null) {
+            judge0PollingScheduler.complete(judge0Token, held[0]);
+        }
+    }
+
+    /**
+     * Forgets a callback whose submission failed or whose run finished another way.
+     */
+    public void discard(Callback callback) {
+        pending.remove(callback.nonce());
+    }
+
+    public Outcome accept(String nonce, String signature, Judge0Result result) {
+        if (!verify(nonce, signature) || result == null || result.getToken() == null) {
+            return Outcome.REJECTED;
+        }
+        Judge0Result decoded = judge0Client.isBase64() ? result.base64Decoded() : result;
+        if (decoded.isInProgress()) {
+            return pending.containsKey(nonce) ? Outcome.HELD : Outcome.REJECTED;
+        }
+
+        long now = System.currentTimeMillis();
+        Outcome[] outcome = {Outcome.REJECTED};
+        pending.computeIfPresent(nonce, (key, entry) -> {
+            if (entry.expiresAt < now) {
+                return null;
+            }
+            if (entry.judge0Token == null) {
+                if (entry.held != null) {
+                    return entry;
+                }
+                entry.held = decoded;
+                outcome[0] = Outcome.HELD;
+                return entry;
+            }
+            if (!entry.judge0Token.equals(decoded.getToken())) {
+                return entry;
+            }
+            outcome[0] = Outcome.COMPLETED;
+            return null;
+        });
+
+        if (outcome[0] == Outcome.COMPLETED) {
+            boolean completed = judge0PollingScheduler.complete(decoded.getToken(), decoded);
+            log.debug("Judge0 callback for {} {}", decoded.getToken(), completed ? "completed a waiting run" : "held");
+        }
+        return outcome[0];
+    }
+
+    @Scheduled(fixedDelayString = "${judge0.callback.sweep-interval-ms:30000}")
+    public void expireCallbacks() {
+        long now = System.currentTimeMillis();
+        pending.values().removeIf(entry -> entry.expiresAt < now);
+    }
+
+    int getPendingCount() {
+        return pending.size();
+    }
+
+    private boolean verify(String nonce, String signature) {
+        if (!isEnabled() || nonce == null || signature == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(sign(nonce).getBytes(StandardCharsets.US_ASCII),
+                signature.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private String sign(String nonce) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
+            byte[] digest = mac.doFinal(nonce.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot sign Judge0 callback", e);
+        }
+    }
+
+    public record Callback(String nonce, String url) {
+    }
+
+    private static final class PendingCallback {
+        private final long expiresAt;
+        private String judge0Token;
+        private Judge0Result held;
+
+        private PendingCallback(long expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.compiler.service;
+
+import com.compiler.dto.Judge0Result;
+import com.compiler.dto.Judge0Submission;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.*;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+@Slf4j
+@Component
+public class Judge0Client {
+
+    private static final String RESULT_FIELDS = "token,stdout,stderr,compile_output,message,time,memory,status";
+
+    private final RestTemplate restTemplate;
+
+    @Value("${judge0.api.base64:true}")
+    private boolean base64 = true;
+
+    public Judge0Client(@Qualifier("judge0RestTemplate") RestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
+    }
+
+    public String submit(Judge0Endpoint endpoint, Judge0Submission submission) {
+        String submissionUrl = endpoint.getBaseUrl() + "/submissions?base64_encoded=" + base64 + "&wait=false";
+        log.debug("Making request to: {}", submissionUrl);
+
+        // The converter streams the typed body straight to and from the connection.
+        ResponseEntity<Judge0Result> response = restTemplate.exchange(
+                submissionUrl,
+                HttpMethod.POST,
+                new HttpEntity<>(base64 ? submission.base64Encoded() : submission, headers(endpoint)),
+                Judge0Result.class
+        );
+
+        log.debug("Response Status: {}", response.getStatusCode());
+
+        if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+            throw new IllegalStateException("Unexpected response from Judge0: " + response.getStatusCode());
+        }
+        if (response.getBody().getToken() == null) {
+            throw new IllegalStateException("Judge0 did not return a submission token");
+        }
+        return response.getBody().getToken();
+    }
+
+    public List<Judge0Result> fetchBatch(Judge0Endpoint endpoint, Collection<String> tokens) {
+        String batchUrl = endpoint.getBaseUrl() + "/submissions/batch?tokens=" + String.join(",", tokens)
+                + "&base64_encoded=" + base64 + "&fields=" + RESULT_FIELDS;
+
+        ResponseEntity<Judge0Result.Batch> response = restTemplate.exchange(
+                batchUrl,
+                HttpMethod.GET,
+                new HttpEntity<>(headers(endpoint)),
+                Judge0Result.Batch.class
+        );
+
+        if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+            throw new IllegalStateException("Unexpected response from Judge0: " + response.getStatusCode());
+        }
+
+        List<Judge0Result> submissions = response.getBody().getSubmissions();
+        if (submissions == null) {
+            return List.of();
+        }
+        List<Judge0Result> results = new ArrayList<>(submissions.size());
+        for (Judge0Result submission : submissions) {
+            results.add(submission != null && base64 ? submission.base64Decoded() : submission);
+        }
+        return results;
+    }
+
+    public boolean isBase64() {
+        return base64;
+    }
+
+    private HttpHeaders headers(Judge0Endpoint endpoint) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        if (endpoint.isSelfHosted()) {
+            if (endpoint.getApiKey() != null && !endpoint.getApiKey().isBlank()) {
+                headers.set("X-Auth-Token", endpoint.getApiKey());
+            }
+        } else {
+            headers.set("X-RapidAPI-Key", endpoint.getApiKey());
+            headers.set("X-RapidAPI-Host", endpoint.getApiHost());
+        }
+        return headers;
+    }
+}
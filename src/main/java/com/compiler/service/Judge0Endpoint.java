@@ -0,0 +1,71 @@
+package com.compiler.service;
+
+import java.util.Set;
+
+public final class Judge0Endpoint {
+
+    private final String name;
+    private final String baseUrl;
+    private final String apiKey;
+    private final String apiHost;
+    private final int weight;
+    private final Set<Integer> languageIds;
+
+    public Judge0Endpoint(String name, String baseUrl, String apiKey, String apiHost) {
+        this(name, baseUrl, apiKey, apiHost, 1, Set.of());
+    }
+
+    public Judge0Endpoint(String name, String baseUrl, String apiKey, String apiHost,
+                          int weight, Set<Integer> languageIds) {
+        this.name = name;
+        this.baseUrl = baseUrl;
+        this.apiKey = apiKey;
+        this.apiHost = apiHost;
+        this.weight = Math.max(1, weight);
+        this.languageIds = languageIds != null ? Set.copyOf(languageIds) : Set.of();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public String getApiKey() {
+        return apiKey;
+    }
+
+    public String getApiHost() {
+        return apiHost;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    public Set<Integer> getLanguageIds() {
+        return languageIds;
+    }
+
+    public boolean supports(int languageId) {
+        return languageIds.isEmpty() || languageIds.contains(languageId);
+    }
+
+    public boolean isSelfHosted() {
+        return apiHost == null || apiHost.isBlank();
+    }
+
+    public boolean isConfigured() {
+        if (baseUrl == null || baseUrl.isBlank()) {
+            return false;
+        }
+        return isSelfHosted() || (apiKey != null && !apiKey.trim().isEmpty());
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,165 @@
+package com.compiler.service;
+
+import com.compiler.dto.ExecutionJob;
+import com.compiler.dto.ExecutionLimits;
+import com.compiler.dto.ExecutionResponse;
+import com.compiler.dto.Judge0Result;
+import com.compiler.dto.Judge0Submission;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+@Slf4j
+@Component
+public class Judge0ExecutionBackend implements ExecutionBackend {
+
+    public static final String NAME = "judge0";
+
+    private final Judge0Gateway judge0Gateway;
+    private final Judge0PollingScheduler judge0PollingScheduler;
+    private final OutputSpillStore outputSpillStore;
+    private final Judge0CallbackService judge0CallbackService;
+
+    private final Map<String, Integer> LANGUAGE_IDS = createLanguageMap();
+
+    public Judge0ExecutionBackend(Judge0Gateway judge0Gateway, Judge0PollingScheduler judge0PollingScheduler,
+                                  OutputSpillStore outputSpillStore, Judge0CallbackService judge0CallbackService) {
+        this.judge0Gateway = judge0Gateway;
+        this.judge0PollingScheduler = judge0PollingScheduler;
+        this.outputSpillStore = outputSpillStore;
+        this.judge0CallbackService = judge0CallbackService;
+    }
+
+    private Map<String, Integer> createLanguageMap() {
+        Map<String, Integer> languages = new HashMap<>();
+        languages.put("java", 62);
+        languages.put("python", 71);
+        languages.put("cpp", 54);
+        languages.put("c", 50);
+        languages.put("javascript", 63);
+        languages.put("csharp", 51);
+        languages.put("ruby", 72);
+        languages.put("go", 60);
+        languages.put("rust", 73);
+        languages.put("kotlin", 78);
+        languages.put("swift", 83);
+        return languages;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean supports(String language) {
+        return language != null && LANGUAGE_IDS.containsKey(language.toLowerCase());
+    }
+
+    @Override
+    public CompletableFuture<ExecutionResponse> execute(ExecutionJob job) {
+        return execute(job, ExecutionListener.NONE);
+    }
+
+    @Override
+    public CompletableFuture<ExecutionResponse> execute(ExecutionJob job, ExecutionListener listener) {
+        if (!judge0Gateway.isConfigured()) {
+            return CompletableFuture.completedFuture(ExecutionResponse.error("Judge0 API key is not configured"));
+        }
+
+        Integer languageId = LANGUAGE_IDS.get(job.getLanguage().toLowerCase());
+        ExecutionLimits limits = job.getLimits() != null ? job.getLimits() : new ExecutionLimits();
+        log.debug("Language ID resolved: {} for language: {}", languageId, job.getLanguage());
+
+        Judge0CallbackService.Callback callback = judge0CallbackService != null && judge0CallbackService.isEnabled()
+                ? judge0CallbackService.newCallback() : null;
+        Judge0Submission submission = Judge0Submission.builder()
+                .sourceCode(job.getSourceCode())
+                .languageId(languageId)
+                .stdin(job.getStdin() != null ? job.getStdin() : "")
+                .expectedOutput(job.getExpectedOutput())
+                .callbackUrl(callback != null ? callback.url() : null)
+                .build();
+
+        log.debug("Sending request to Judge0 API");
+        return judge0Gateway.submit(submission)
+                .thenCompose(accepted -> {
+                    CompletableFuture<Judge0Result> tracked = judge0PollingScheduler.track(accepted.getEndpoint(),
+                            accepted.getToken(), job.getLanguage(), listener, callback != null);
+                    if (callback != null) {
+                        judge0CallbackService.bind(callback, accepted.getToken());
+                    }
+                    return tracked.whenComplete((result, error) -> accepted.release());
+                })
+                .whenComplete((result, error) -> {
+                    if (callback != null) {
+                        judge0CallbackService.discard(callback);
+                    }
+                })
+                .thenApply(result -> outputSpillStore.bound(mapToExecutionResponse(result, job.getExpectedOutput()),
+                        limits.getMaxOutputBytes()))
+                .handle(this::failFast);
+    }
+
+    private ExecutionResponse failFast(ExecutionResponse response, Throwable error) {
+        if (error == null) {
+            return response;
+        }
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof CallNotPermittedException) {
+            return ExecutionResponse.error("Judge0 is temporarily unavailable, please retry shortly");
+        }
+        if (cause instanceof BulkheadFullException) {
+            return ExecutionResponse.error("Judge0 is at capacity, please retry shortly");
+        }
+        throw error instanceof CompletionException ? (CompletionException) error : new CompletionException(error);
+    }
+
+    ExecutionResponse mapToExecutionResponse(Judge0Result response, String expectedOutput) {
+        ExecutionResponse result = new ExecutionResponse();
+
+        if (response != null) {
+            if (response.getStdout() != null) {
+                result.setOutput(response.getStdout().trim());
+            } else if (response.getCompileOutput() != null) {
+                result.setOutput(response.getCompileOutput().trim());
+            }
+
+            if (response.getStderr() != null) {
+                String stderr = response.getStderr().trim();
+                if (!stderr.isEmpty()) {
+                    result.setError(stderr);
+                }
+            }
+
+            if (response.getTime() != null) {
+                result.setExecutionTime(response.getTime());
+            }
+
+            if (response.getMemory() != null) {
+                result.setMemoryUsed(response.getMemory());
+            }
+
+            if (response.getStatus() != null && response.getStatus().getDescription() != null) {
+                result.setStatus(response.getStatus().getDescription());
+            }
+
+            if (expectedOutput != null && !expectedOutput.isEmpty()) {
+                String actualOutput = result.getOutput() != null ? result.getOutput().trim() : "";
+                result.setIsCorrect(actualOutput.equals(expectedOutput.trim()));
+            }
+
+            if (result.getStatus() == null) {
+                result.setStatus("Completed");
+            }
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,624 @@
+package com.compiler.service;
+
+import com.compiler.dto.Judge0Result;
+import com.compiler.dto.Judge0Submission;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+@Slf4j
+@Component
+public class Judge0Gateway {
+
+    private static final String INSTANCE_PREFIX = "judge0-";
+    private static final String POOL_PREFIX = "judge0.pool.";
+    private static final int LATENCY_WINDOW = 256;
+    private static final int MIN_LATENCY_SAMPLES = 20;
+    private static final int MIN_OUTLIER_POOL = 3;
+
+    private final Judge0Client judge0Client;
+    private final Environment environment;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+    private final TimeLimiterRegistry timeLimiterRegistry;
+    private final Counter hedgesSent;
+    private final Counter hedgesWon;
+    private final Counter ejections;
+    private final Map<String, Member> members = new LinkedHashMap<>();
+
+    private ExecutorService callExecutor;
+    private final ScheduledExecutorService timers = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "judge0-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${judge0.api.url}")
+    private String apiUrl;
+
+    @Value("${judge0.api.key}")
+    private String apiKey;
+
+    @Value("${judge0.api.host:judge0-ce.p.rapidapi.com}")
+    private String apiHost;
+
+    @Value("${judge0.api.weight:1}")
+    private int apiWeight = 1;
+
+    @Value("${judge0.api.standby:false}")
+    private boolean apiStandby;
+
+    @Value("${judge0.pool.endpoints:}")
+    private List<String> poolEndpoints = List.of();
+
+    @Value("${judge0.hedge.url:}")
+    private String hedgeUrl;
+
+    @Value("${judge0.hedge.key:${judge0.api.key:}}")
+    private String hedgeKey;
+
+    @Value("${judge0.hedge.host:${judge0.api.host:judge0-ce.p.rapidapi.com}}")
+    private String hedgeHost;
+
+    @Value("${judge0.hedge.enabled:false}")
+    private boolean hedgingEnabled;
+
+    @Value("${judge0.hedge.initial-delay-ms:1000}")
+    private long hedgeInitialDelayMs;
+
+    @Value("${judge0.hedge.min-delay-ms:100}")
+    private long hedgeMinDelayMs;
+
+    @Value("${judge0.resilience.call-timeout-ms:10000}")
+    private long callTimeoutMs;
+
+    @Value("${judge0.resilience.max-concurrent-calls:32}")
+    private int maxConcurrentCalls;
+
+    @Value("${judge0.resilience.call-threads:64}")
+    private int callThreads = 64;
+
+    @Value("${judge0.resilience.failure-rate-threshold:50}")
+    private float failureRateThreshold;
+
+    @Value("${judge0.resilience.slow-call-ms:5000}")
+    private long slowCallMs;
+
+    @Value("${judge0.resilience.open-state-ms:30000}")
+    private long openStateMs;
+
+    @Value("${judge0.pool.ejection.consecutive-failures:5}")
+    private int ejectionConsecutiveFailures = 5;
+
+    @Value("${judge0.pool.ejection.base-ms:30000}")
+    private long ejectionBaseMs = 30000;
+
+    @Value("${judge0.pool.ejection.max-ms:300000}")
+    private long ejectionMaxMs = 300000;
+
+    @Value("${judge0.pool.ejection.max-percent:50}")
+    private int ejectionMaxPercent = 50;
+
+    @Value("${judge0.pool.ejection.latency-factor:3.0}")
+    private double ejectionLatencyFactor = 3.0;
+
+    @Value("${judge0.pool.ejection.min-latency-ms:1000}")
+    private long ejectionMinLatencyMs = 1000;
+
+    public Judge0Gateway(Judge0Client judge0Client,
+                         Environment environment,
+                         ObjectProvider<CircuitBreakerRegistry> circuitBreakerRegistry,
+                         ObjectProvider<BulkheadRegistry> bulkheadRegistry,
+                         ObjectProvider<TimeLimiterRegistry> timeLimiterRegistry,
+                         MeterRegistry meterRegistry) {
+        this.judge0Client = judge0Client;
+        this.environment = environment;
+        this.circuitBreakerRegistry = circuitBreakerRegistry.getIfAvailable(CircuitBreakerRegistry::ofDefaults);
+        this.bulkheadRegistry = bulkheadRegistry.getIfAvailable(BulkheadRegistry::ofDefaults);
+        this.timeLimiterRegistry = timeLimiterRegistry.getIfAvailable(TimeLimiterRegistry::ofDefaults);
+        this.hedgesSent = Counter.builder("judge0.hedge.requests").tag("outcome", "sent").register(meterRegistry);
+        this.hedgesWon = Counter.builder("judge0.hedge.requests").tag("outcome", "won").register(meterRegistry);
+        this.ejections = Counter.builder("judge0.pool.ejections").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        // Timed-out calls keep their thread until the HTTP client gives up, so the pool must be bounded on its own.
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(callThreads, callThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(callThreads), runnable -> {
+                    Thread thread = new Thread(runnable, "judge0-call");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        callExecutor = executor;
+
+        for (String name : poolEndpoints) {
+            if (name == null || name.isBlank()) {
+                continue;
+            }
+            String prefix = POOL_PREFIX + name.trim() + ".";
+            Judge0Endpoint endpoint = new Judge0Endpoint(name.trim(),
+                    environment.getProperty(prefix + "url"),
+                    environment.getProperty(prefix + "key", ""),
+                    environment.getProperty(prefix + "host", ""),
+                    environment.getProperty(prefix + "weight", Integer.class, 1),
+                    parseLanguageIds(environment.getProperty(prefix + "languages", "")));
+            addMember(endpoint, environment.getProperty(prefix + "standby", Boolean.class, false));
+        }
+
+        Judge0Endpoint primary = new Judge0Endpoint("primary", apiUrl, apiKey, apiHost, apiWeight, Set.of());
+        if (members.isEmpty() || primary.isConfigured()) {
+            addMember(primary, apiStandby && !members.isEmpty());
+        }
+        if (hedgeUrl != null && !hedgeUrl.isBlank()) {
+            // The dedicated hedge endpoint only takes hedges and fail-overs, never first attempts.
+            addMember(new Judge0Endpoint("hedge", hedgeUrl, hedgeKey, hedgeHost), true);
+        }
+        log.info("Judge0 gateway ready with endpoints {} (hedging {})", members.keySet(),
+                hedgingEnabled ? "enabled" : "disabled");
+    }
+
+    private static Set<Integer> parseLanguageIds(String languages) {
+        Set<Integer> ids = new HashSet<>();
+        for (String id : languages.split(",")) {
+            if (!id.isBlank()) {
+                ids.add(Integer.parseInt(id.trim()));
+            }
+        }
+        return ids;
+    }
+
+    private void addMember(Judge0Endpoint endpoint, boolean standby) {
+        if (members.containsKey(endpoint.getName())) {
+            throw new IllegalStateException("Duplicate Judge0 endpoint name: " + endpoint.getName());
+        }
+        members.put(endpoint.getName(), createMember(endpoint, standby));
+    }
+
+    private Member createMember(Judge0Endpoint endpoint, boolean standby) {
+        String name = INSTANCE_PREFIX + endpoint.getName();
+        // Instances configured under resilience4j.*.instances.<name> take precedence over these defaults.
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(name, CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallDurationThreshold(Duration.ofMillis(slowCallMs))
+                .slowCallRateThreshold(80)
+                .slidingWindowSize(20)
+                .minimumNumberOfCalls(10)
+                .permittedNumberOfCallsInHalfOpenState(3)
+                .waitDurationInOpenState(Duration.ofMillis(openStateMs))
+                .recordException(Judge0Gateway::isEndpointFailure)
+                .build());
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(name, BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        TimeLimiter timeLimiter = timeLimiterRegistry.timeLimiter(name, TimeLimiterConfig.custom()
+                .timeoutDuration(Duration.ofMillis(callTimeoutMs))
+                .cancelRunningFuture(true)
+                .build());
+        return new Member(endpoint, standby, circuitBreaker, bulkhead, timeLimiter);
+    }
+
+    private static boolean isEndpointFailure(Throwable error) {
+        // A rejected request says nothing about the endpoint's health, except when it is throttling us.
+        if (error instanceof RejectedExecutionException) {
+            return false;
+        }
+        return !(error instanceof HttpClientErrorException)
+                || ((HttpClientErrorException) error).getStatusCode() == HttpStatus.TOO_MANY_REQUESTS;
+    }
+
+    public boolean isConfigured() {
+        return members.values().stream().anyMatch(member -> member.endpoint.isConfigured());
+    }
+
+    public CompletableFuture<Submission> submit(Judge0Submission submission) {
+        int languageId = submission.getLanguageId() != null ? submission.getLanguageId() : -1;
+        Member first = choose(languageId, null);
+        if (first == null) {
+            return CompletableFuture.failedFuture(
+                    new IllegalStateException("No Judge0 endpoint supports language id " + languageId));
+        }
+        CompletableFuture<Submission> attempt = attempt(first, submission);
+        if (!hedgingEnabled) {
+            return attempt;
+        }
+        return hedged(first, attempt, languageId, submission);
+    }
+
+    public CompletableFuture<List<Judge0Result>> fetchBatch(Judge0Endpoint endpoint, Collection<String> tokens) {
+        Member member = members.get(endpoint.getName());
+        if (member == null) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Unknown Judge0 endpoint: " + endpoint));
+        }
+        return call(member, () -> judge0Client.fetchBatch(member.endpoint, tokens));
+    }
+
+    private Member choose(int languageId, Member exclude) {
+        long now = System.currentTimeMillis();
+        Member best = pick(languageId, exclude, false, now, true);
+        if (best == null) {
+            best = pick(languageId, exclude, true, now, true);
+        }
+        if (best == null) {
+            // Every capable endpoint is ejected or open: route anyway rather than refuse outright.
+            best = pick(languageId, exclude, true, now, false);
+        }
+        return best;
+    }
+
+    private Member pick(int languageId, Member exclude, boolean allowStandby, long now, boolean healthyOnly) {
+        Member best = null;
+        double bestLoad = Double.MAX_VALUE;
+        int ties = 0;
+        for (Member member : members.values()) {
+            if (member == exclude || !member.endpoint.isConfigured() || !member.endpoint.supports(languageId)
+                    || (member.standby && !allowStandby) || (healthyOnly && !member.isAvailable(now))) {
+                continue;
+            }
+            double load = (member.inFlight.get() + 1.0) / member.endpoint.getWeight();
+            if (load < bestLoad) {
+                best = member;
+                bestLoad = load;
+                ties = 1;
+            } else if (load == bestLoad && ThreadLocalRandom.current().nextInt(++ties) == 0) {
+                best = member;
+            }
+        }
+        return best;
+    }
+
+    private CompletableFuture<Submission> attempt(Member member, Judge0Submission submission) {
+        member.inFlight.incrementAndGet();
+        long startedAt = System.nanoTime();
+        return call(member, () -> new Submission(member, judge0Client.submit(member.endpoint, submission)))
+                .whenComplete((result, error) -> {
+                    if (error == null) {
+                        member.latency.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+                    } else {
+                        member.inFlight.decrementAndGet();
+                    }
+                });
+    }
+
+    private CompletableFuture<Submission> hedged(Member first, CompletableFuture<Submission> firstAttempt,
+                                                 int languageId, Judge0Submission submission) {
+        CompletableFuture<Submission> result = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(1);
+        AtomicBoolean hedgeStarted = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        // Settles one attempt, or a hedge that was never sent; the last one out fails the submission.
+        Consumer<Throwable> settle = error -> {
+            if (error != null) {
+                failure.set(error);
+            }
+            if (pending.decrementAndGet() == 0) {
+                result.completeExceptionally(failure.get());
+            }
+        };
+
+        Runnable sendHedge = () -> {
+            if (result.isDone()) {
+                return;
+            }
+            // Counted before claiming the hedge, so a failing first attempt cannot see zero while it is sent.
+            pending.incrementAndGet();
+            if (!hedgeStarted.compareAndSet(false, true)) {
+                pending.decrementAndGet();
+                return;
+            }
+            Member second = choose(languageId, first);
+            if (second == null) {
+                settle.accept(null);
+                return;
+            }
+            hedgesSent.increment();
+            attempt(second, submission).whenComplete((value, error) -> {
+                if (error == null) {
+                    if (result.complete(value)) {
+                        hedgesWon.increment();
+                    } else {
+                        value.release();
+                    }
+                } else {
+                    settle.accept(error);
+                }
+            });
+        };
+
+        ScheduledFuture<?> timer = timers.schedule(sendHedge, hedgeDelayMs(first), TimeUnit.MILLISECONDS);
+        firstAttempt.whenComplete((value, error) -> {
+            timer.cancel(false);
+            if (error == null) {
+                if (!result.complete(value)) {
+                    value.release();
+                }
+                return;
+            }
+            // The first attempt failed before the hedge fired: fail over right away.
+            sendHedge.run();
+            settle.accept(error);
+        });
+        return result;
+    }
+
+    private long hedgeDelayMs(Member member) {
+        long p95 = member.latency.percentile(0.95, MIN_LATENCY_SAMPLES);
+        return p95 < 0 ? hedgeInitialDelayMs : Math.max(hedgeMinDelayMs, p95);
+    }
+
+    private <T> CompletableFuture<T> call(Member member, Callable<T> request) {
+        Supplier<CompletionStage<T>> attempt = () -> {
+            try {
+                return CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return request.call();
+                    } catch (Exception e) {
+                        throw new CompletionException(e);
+                    }
+                }, callExecutor);
+            } catch (RejectedExecutionException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        };
+        Supplier<CompletionStage<T>> timed = member.timeLimiter.decorateCompletionStage(timers, attempt);
+        Supplier<CompletionStage<T>> guarded = CircuitBreaker.decorateCompletionStage(member.circuitBreaker, timed);
+        return Bulkhead.decorateCompletionStage(member.bulkhead, guarded).get().toCompletableFuture()
+                .whenComplete((result, error) -> recordOutcome(member, error));
+    }
+
+    private void recordOutcome(Member member, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause == null) {
+            member.onSuccess();
+        } else if (!(cause instanceof CallNotPermittedException) && !(cause instanceof BulkheadFullException)
+                && isEndpointFailure(cause) && member.onFailure(ejectionConsecutiveFailures)) {
+            eject(member, "consecutive failures");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${judge0.pool.ejection.interval-ms:10000}")
+    public void detectOutliers() {
+        long now = System.currentTimeMillis();
+        Map<Member, Long> latencies = new LinkedHashMap<>();
+        for (Member member : members.values()) {
+            member.decayEjections(now);
+            long p95 = member.latency.percentile(0.95, MIN_LATENCY_SAMPLES);
+            if (p95 >= 0 && member.isAvailable(now)) {
+                latencies.put(member, p95);
+            }
+        }
+        if (latencies.size() < MIN_OUTLIER_POOL) {
+            return;
+        }
+        long[] sorted = latencies.values().stream().mapToLong(Long::longValue).sorted().toArray();
+        long median = sorted[sorted.length / 2];
+        latencies.forEach((member, p95) -> {
+            if (p95 >= ejectionMinLatencyMs && p95 > median * ejectionLatencyFactor) {
+                eject(member, "p95 latency " + p95 + "ms vs pool median " + median + "ms");
+            }
+        });
+    }
+
+    private synchronized void eject(Member member, String reason) {
+        long now = System.currentTimeMillis();
+        long ejected = members.values().stream().filter(m -> m.isEjected(now)).count();
+        if (member.isEjected(now) || (ejected + 1) * 100 > (long) ejectionMaxPercent * members.size()) {
+            return;
+        }
+        long duration = member.eject(now, ejectionBaseMs, ejectionMaxMs);
+        ejections.increment();
+        log.warn("Ejected Judge0 endpoint {} for {}ms: {}", member.endpoint, duration, reason);
+    }
+
+    public Map<String, Object> describe() {
+        long now = System.currentTimeMillis();
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        members.forEach((name, member) -> {
+            CircuitBreaker.Metrics breaker = member.circuitBreaker.getMetrics();
+            Map<String, Object> state = new LinkedHashMap<>();
+            state.put("weight", member.endpoint.getWeight());
+            state.put("standby", member.standby);
+            state.put("languages", member.endpoint.getLanguageIds().isEmpty()
+                    ? "all" : member.endpoint.getLanguageIds());
+            state.put("inFlight", member.inFlight.get());
+            state.put("ejected", member.isEjected(now));
+            state.put("circuitBreaker", member.circuitBreaker.getState().name());
+            state.put("failureRate", breaker.getFailureRate());
+            state.put("slowCallRate", breaker.getSlowCallRate());
+            state.put("notPermittedCalls", breaker.getNumberOfNotPermittedCalls());
+            state.put("bulkheadAvailable", member.bulkhead.getMetrics().getAvailableConcurrentCalls());
+            state.put("bulkheadMax", member.bulkhead.getMetrics().getMaxAllowedConcurrentCalls());
+            state.put("timeoutMs", member.timeLimiter.getTimeLimiterConfig().getTimeoutDuration().toMillis());
+            state.put("p95Ms", member.latency.percentile(0.95, MIN_LATENCY_SAMPLES));
+            endpoints.put(name, state);
+        });
+
+        Map<String, Object> hedging = new LinkedHashMap<>();
+        hedging.put("enabled", hedgingEnabled && members.size() > 1);
+        hedging.put("sent", (long) hedgesSent.count());
+        hedging.put("won", (long) hedgesWon.count());
+
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("endpoints", endpoints);
+        description.put("hedging", hedging);
+        return description;
+    }
+
+    public List<Judge0Endpoint> getEndpoints() {
+        List<Judge0Endpoint> endpoints = new ArrayList<>(members.size());
+        members.values().forEach(member -> endpoints.add(member.endpoint));
+        return endpoints;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timers.shutdownNow();
+        if (callExecutor != null) {
+            callExecutor.shutdownNow();
+        }
+    }
+
+    public static final class Submission {
+        private final Member member;
+        private final String token;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Submission(Member member, String token) {
+            this.member = member;
+            this.token = token;
+        }
+
+        public Judge0Endpoint getEndpoint() {
+            return member.endpoint;
+        }
+
+        public String getToken() {
+            return token;
+        }
+
+        /**
+         * Marks the submission as no longer in flight on its endpoint. Call once its result is in or abandoned.
+         */
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                member.inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    private static final class Member {
+        private final Judge0Endpoint endpoint;
+        private final boolean standby;
+        private final CircuitBreaker circuitBreaker;
+        private final Bulkhead bulkhead;
+        private final TimeLimiter timeLimiter;
+        private final LatencyWindow latency = new LatencyWindow(LATENCY_WINDOW);
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private int consecutiveFailures;
+        private int ejectionCount;
+        private long ejectedUntil;
+
+        private Member(Judge0Endpoint endpoint, boolean standby, CircuitBreaker circuitBreaker,
+                       Bulkhead bulkhead, TimeLimiter timeLimiter) {
+            this.endpoint = endpoint;
+            this.standby = standby;
+            this.circuitBreaker = circuitBreaker;
+            this.bulkhead = bulkhead;
+            this.timeLimiter = timeLimiter;
+        }
+
+        private boolean isAvailable(long now) {
+            CircuitBreaker.State state = circuitBreaker.getState();
+            return !isEjected(now) && state != CircuitBreaker.State.OPEN && state != CircuitBreaker.State.FORCED_OPEN;
+        }
+
+        private synchronized boolean isEjected(long now) {
+            return now < ejectedUntil;
+        }
+
+        private synchronized void onSuccess() {
+            consecutiveFailures = 0;
+        }
+
+        private synchronized boolean onFailure(int threshold) {
+            return ++consecutiveFailures >= threshold;
+        }
+
+        private synchronized long eject(long now, long baseMs, long maxMs) {
+            ejectionCount++;
+            consecutiveFailures = 0;
+            long duration = Math.min(maxMs, baseMs * ejectionCount);
+            ejectedUntil = now + duration;
+            // Samples from before the ejection would otherwise keep it flagged once it is back.
+            latency.clear();
+            return duration;
+        }
+
+        private synchronized void decayEjections(long now) {
+            if (ejectionCount > 0 && now >= ejectedUntil && consecutiveFailures == 0) {
+                ejectionCount--;
+            }
+        }
+    }
+
+    private static final class LatencyWindow {
+        private final long[] samples;
+        private int next;
+        private int count;
+
+        private LatencyWindow(int size) {
+            this.samples = new long[size];
+        }
+
+        private synchronized void record(long millis) {
+            samples[next] = millis;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+        }
+
+        private synchronized void clear() {
+            next = 0;
+            count = 0;
+        }
+
+        private synchronized long percentile(double quantile, int minSamples) {
+            if (count < minSamples) {
+                return -1;
+            }
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            return sorted[(int) Math.min(count - 1, Math.ceil(quantile * count) - 1)];
+        }
+    }
+}
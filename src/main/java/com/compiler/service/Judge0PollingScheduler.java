@@ -0,0 +1,361 @@
+package com.compiler.service;
+
+import com.compiler.dto.Judge0Result;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Component
+public class Judge0PollingScheduler {
+
+    private static final long DEFAULT_EXPECTED_MS = 1500;
+    private static final double EWMA_WEIGHT = 0.2;
+
+    private final Judge0Gateway judge0Gateway;
+
+    private final Map<String, TrackedSubmission> outstanding = new ConcurrentHashMap<>();
+
+    private final Map<String, AtomicLong> expectedRuntimeMs = new ConcurrentHashMap<>(createRuntimeDefaults());
+
+    private final Map<String, EarlyResult> earlyResults = new ConcurrentHashMap<>();
+
+    private final AtomicLong batchRequests = new AtomicLong();
+
+    private final AtomicLong callbackCompletions = new AtomicLong();
+
+    private final ExecutorService completions;
+
+    @Value("${judge0.poll.batch-size:20}")
+    private int batchSize;
+
+    @Value("${judge0.poll.min-interval-ms:100}")
+    private long minIntervalMs;
+
+    @Value("${judge0.poll.max-interval-ms:2000}")
+    private long maxIntervalMs;
+
+    @Value("${judge0.poll.max-wait-ms:30000}")
+    private long maxWaitMs;
+
+    @Value("${judge0.callback.fallback-poll-ms:3000}")
+    private long callbackFallbackMs;
+
+    @Value("${judge0.callback.max-early-results:10000}")
+    private int maxEarlyResults = 10000;
+
+    public Judge0PollingScheduler(Judge0Gateway judge0Gateway) {
+        this(judge0Gateway, 4);
+    }
+
+    @Autowired
+    public Judge0PollingScheduler(Judge0Gateway judge0Gateway,
+                                  @Value("${judge0.poll.completion-threads:4}") int completionThreads) {
+        this.judge0Gateway = judge0Gateway;
+        this.completions = Executors.newFixedThreadPool(completionThreads, runnable -> {
+            Thread thread = new Thread(runnable, "judge0-complete");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static Map<String, AtomicLong> createRuntimeDefaults() {
+        Map<String, AtomicLong> defaults = new HashMap<>();
+        defaults.put("python", new AtomicLong(300));
+        defaults.put("javascript", new AtomicLong(300));
+        defaults.put("ruby", new AtomicLong(400));
+        defaults.put("c", new AtomicLong(1000));
+        defaults.put("cpp", new AtomicLong(1200));
+        defaults.put("go", new AtomicLong(1500));
+        defaults.put("java", new AtomicLong(1500));
+        defaults.put("csharp", new AtomicLong(1500));
+        defaults.put("rust", new AtomicLong(2500));
+        defaults.put("kotlin", new AtomicLong(4000));
+        defaults.put("swift", new AtomicLong(4000));
+        return defaults;
+    }
+
+    public CompletableFuture<Judge0Result> track(Judge0Endpoint endpoint, String judge0Token, String language) {
+        return track(endpoint, judge0Token, language, ExecutionListener.NONE);
+    }
+
+    public CompletableFuture<Judge0Result> track(Judge0Endpoint endpoint, String judge0Token, String language,
+                                                 ExecutionListener listener) {
+        return track(endpoint, judge0Token, language, listener, false);
+    }
+
+    public CompletableFuture<Judge0Result> track(Judge0Endpoint endpoint, String judge0Token, String language,
+                                                 ExecutionListener listener, boolean awaitCallback) {
+        long now = System.currentTimeMillis();
+        String key = language != null ? language.toLowerCase() : "";
+
+        TrackedSubmission tracked = new TrackedSubmission(endpoint, judge0Token, key, now, now + maxWaitMs, listener);
+        // With a callback on its way, polling is only the fallback for a callback that never arrives.
+        tracked.nextPollAt = now + (awaitCallback
+                ? Math.max(callbackFallbackMs, 2 * expectedRuntime(key))
+                : firstPollDelay(key));
+        outstanding.put(judge0Token, tracked);
+
+        EarlyResult early = earlyResults.remove(judge0Token);
+        if (early != null) {
+            complete(judge0Token, early.result);
+        }
+        return tracked.future;
+    }
+
+    public boolean complete(String judge0Token, Judge0Result result) {
+        if (judge0Token == null || result == null || result.isInProgress()) {
+            return false;
+        }
+        TrackedSubmission tracked = outstanding.remove(judge0Token);
+        if (tracked == null) {
+            // The callback can beat the submit response; hold it until the token is tracked.
+            if (earlyResults.size() < maxEarlyResults) {
+                earlyResults.put(judge0Token, new EarlyResult(result, System.currentTimeMillis()));
+            }
+            tracked = outstanding.remove(judge0Token);
+            if (tracked == null) {
+                return false;
+            }
+            earlyResults.remove(judge0Token);
+        }
+        callbackCompletions.incrementAndGet();
+        recordRuntime(tracked.language, System.currentTimeMillis() - tracked.submittedAt);
+        tracked.future.complete(result);
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${judge0.poll.tick-ms:100}")
+    public void pollOutstanding() {
+        long now = System.currentTimeMillis();
+        if (!earlyResults.isEmpty()) {
+            earlyResults.values().removeIf(early -> now - early.receivedAt > maxWaitMs);
+        }
+        if (outstanding.isEmpty()) {
+            return;
+        }
+
+        // Tokens are only meaningful to the endpoint that issued them, so batches never mix endpoints.
+        Map<Judge0Endpoint, List<TrackedSubmission>> due = new LinkedHashMap<>();
+        for (TrackedSubmission tracked : outstanding.values()) {
+            if (now >= tracked.deadline) {
+                fail(tracked, new TimeoutException("Execution timed out waiting for Judge0"));
+            } else if (now >= tracked.nextPollAt && !tracked.polling) {
+                due.computeIfAbsent(tracked.endpoint, endpoint -> new ArrayList<>()).add(tracked);
+            }
+        }
+
+        due.forEach((endpoint, submissions) -> {
+            for (int from = 0; from < submissions.size(); from += batchSize) {
+                pollBatch(endpoint, submissions.subList(from, Math.min(from + batchSize, submissions.size())));
+            }
+        });
+    }
+
+    private void pollBatch(Judge0Endpoint endpoint, List<TrackedSubmission> batch) {
+        List<String> tokens = new ArrayList<>(batch.size());
+        for (TrackedSubmission tracked : batch) {
+            tokens.add(tracked.judge0Token);
+            tracked.polling = true;
+        }
+
+        // The request runs on the gateway's call pool; this tick only fires it and moves on.
+        batchRequests.incrementAndGet();
+        judge0Gateway.fetchBatch(endpoint, tokens).whenComplete((results, error) -> {
+            try {
+                if (error != null) {
+                    onBatchFailed(endpoint, batch, error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error);
+                } else {
+                    onBatchFetched(batch, results);
+                }
+            } finally {
+                batch.forEach(tracked -> tracked.polling = false);
+            }
+        });
+    }
+
+    private void onBatchFailed(Judge0Endpoint endpoint, List<TrackedSubmission> batch, Throwable error) {
+        if (error instanceof HttpClientErrorException && !isTransient((HttpClientErrorException) error)) {
+            batch.forEach(tracked -> fail(tracked, error));
+            return;
+        }
+        long delayMs = maxIntervalMs;
+        if (error instanceof HttpClientErrorException) {
+            delayMs = Math.max(maxIntervalMs, retryAfterMs((HttpClientErrorException) error));
+            log.warn("Judge0 {} throttled batch poll for {} tokens, retrying in {} ms",
+                    endpoint, batch.size(), delayMs);
+        } else {
+            log.warn("Judge0 batch poll to {} failed for {} tokens: {}", endpoint, batch.size(), error.getMessage());
+        }
+        long retryAt = System.currentTimeMillis() + delayMs;
+        batch.forEach(tracked -> tracked.nextPollAt = retryAt);
+    }
+
+    private void onBatchFetched(List<TrackedSubmission> batch, List<Judge0Result> results) {
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < batch.size(); i++) {
+            TrackedSubmission tracked = batch.get(i);
+            Judge0Result result = results != null && i < results.size() ? results.get(i) : null;
+
+            if (result == null || result.isInProgress()) {
+                if (result != null) {
+                    tracked.reportStatus(result);
+                }
+                tracked.nextPollAt = now + pollInterval(tracked.language);
+                continue;
+            }
+
+            // A callback may have completed the run while this batch was in flight.
+            if (outstanding.remove(tracked.judge0Token, tracked)) {
+                recordRuntime(tracked.language, now - tracked.submittedAt);
+                tracked.future.completeAsync(() -> result, completions);
+            }
+        }
+    }
+
+    private void fail(TrackedSubmission tracked, Throwable error) {
+        if (outstanding.remove(tracked.judge0Token, tracked)) {
+            // Completion runs the caller's whole chain (history, result store, SSE), so keep it off this thread.
+            completions.execute(() -> tracked.future.completeExceptionally(error));
+        }
+    }
+
+    private static boolean isTransient(HttpClientErrorException e) {
+        HttpStatusCode status = e.getStatusCode();
+        return status.isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS)
+                || status.isSameCodeAs(HttpStatus.REQUEST_TIMEOUT)
+                || status.isSameCodeAs(HttpStatus.TOO_EARLY);
+    }
+
+    /**
+     * Reads Retry-After as either delay seconds or an HTTP date; 0 when absent or unparseable.
+     */
+    private static long retryAfterMs(HttpClientErrorException e) {
+        String retryAfter = e.getResponseHeaders() != null
+                ? e.getResponseHeaders().getFirst(HttpHeaders.RETRY_AFTER) : null;
+        if (retryAfter == null || retryAfter.isBlank()) {
+            return 0;
+        }
+        try {
+            return TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter.trim()));
+        } catch (NumberFormatException notSeconds) {
+            try {
+                ZonedDateTime at = ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                return Math.max(0, at.toInstant().toEpochMilli() - System.currentTimeMillis());
+            } catch (DateTimeParseException notDate) {
+                return 0;
+            }
+        }
+    }
+
+    private long firstPollDelay(String language) {
+        return clamp(expectedRuntime(language) * 4 / 5);
+    }
+
+    private long pollInterval(String language) {
+        return clamp(expectedRuntime(language) / 4);
+    }
+
+    private long expectedRuntime(String language) {
+        AtomicLong expected = expectedRuntimeMs.get(language);
+        return expected != null ? expected.get() : DEFAULT_EXPECTED_MS;
+    }
+
+    private void recordRuntime(String language, long observedMs) {
+        AtomicLong expected = expectedRuntimeMs.computeIfAbsent(language, l -> new AtomicLong(DEFAULT_EXPECTED_MS));
+        expected.getAndUpdate(current -> Math.round(current * (1 - EWMA_WEIGHT) + observedMs * EWMA_WEIGHT));
+    }
+
+    private long clamp(long intervalMs) {
+        return Math.max(minIntervalMs, Math.min(maxIntervalMs, intervalMs));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        completions.shutdownNow();
+    }
+
+    public int getOutstandingCount() {
+        return outstanding.size();
+    }
+
+    public long getBatchRequestCount() {
+        return batchRequests.get();
+    }
+
+    public long getCallbackCompletionCount() {
+        return callbackCompletions.get();
+    }
+
+    public Map<String, Long> getExpectedRuntimes() {
+        Map<String, Long> runtimes = new HashMap<>();
+        expectedRuntimeMs.forEach((language, expected) -> runtimes.put(language, expected.get()));
+        return runtimes;
+    }
+
+    private static final class EarlyResult {
+        private final Judge0Result result;
+        private final long receivedAt;
+
+        private EarlyResult(Judge0Result result, long receivedAt) {
+            this.result = result;
+            this.receivedAt = receivedAt;
+        }
+    }
+
+    private static final class TrackedSubmission {
+        private final Judge0Endpoint endpoint;
+        private final String judge0Token;
+        private final String language;
+        private final long submittedAt;
+        private final long deadline;
+        private final ExecutionListener listener;
+        private final CompletableFuture<Judge0Result> future = new CompletableFuture<>();
+        private volatile long nextPollAt;
+        private volatile boolean polling;
+        private String lastStatus;
+
+        private TrackedSubmission(Judge0Endpoint endpoint, String judge0Token, String language, long submittedAt,
+                                  long deadline, ExecutionListener listener) {
+            this.endpoint = endpoint;
+            this.judge0Token = judge0Token;
+            this.language = language;
+            this.submittedAt = submittedAt;
+            this.deadline = deadline;
+            this.listener = listener;
+        }
+
+        private void reportStatus(Judge0Result response) {
+            String description = response.getStatus() != null ? response.getStatus().getDescription() : null;
+            if (description != null && !description.equals(lastStatus)) {
+                lastStatus = description;
+                listener.onStatus(lastStatus);
+            }
+        }
+    }
+}
@@ -1,41 +1,42 @@
 package com.compiler.service;
 
+import com.compiler.dto.ExecutionJob;
 import com.compiler.dto.ExecutionRequest;
 import com.compiler.dto.ExecutionResponse;
+import com.compiler.dto.ExecutionTicket;
+import com.compiler.dto.RateLimitStatus;
 import com.compiler.entity.CodeSubmission;
 import com.compiler.entity.User;
+import com.compiler.exception.ExecutionRejectedException;
 import com.compiler.security.JwtUtil;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.*;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.RestTemplate;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 @Slf4j
 @Service
 public class Judge0Service {
 
-    @Value("${judge0.api.key}")
-    private String rapidApiKey;
-
-    @Value("${judge0.api.url}")
-    private String judge0BaseUrl;
-
-    private final RestTemplate restTemplate;
-    private final ObjectMapper objectMapper;
+    private final ExecutionBackendRegistry executionBackendRegistry;
     private final SubmissionHistoryService submissionHistoryService;
 
-    private final Map<String, Integer> LANGUAGE_IDS = createLanguageMap();
-
     private final RateLimitService rateLimitService;
 
     private final UserService userService;
@@ -46,35 +47,39 @@ public class Judge0Service {
 
     private final CodeValidationService codeValidationService;
 
-    public Judge0Service(RestTemplate restTemplate, ObjectMapper objectMapper,
+    private final ExecutionResultStore executionResultStore;
+
+    private final ExecutionResultCache executionResultCache;
+
+    private final ExecutionCoalescer executionCoalescer;
+
+    private final ExecutionScheduler executionScheduler;
+
+    private static final long SYNC_WAIT_GRACE_MS = 5000;
+
+    @Value("${judge0.poll.max-wait-ms:30000}")
+    private long maxWaitMs;
+
+    public Judge0Service(ExecutionBackendRegistry executionBackendRegistry,
                          SubmissionHistoryService submissionHistoryService,
                          RateLimitService rateLimitService, UserService userService,
                          JwtUtil jwtUtil, CodeFormatService codeFormatService,
-                         CodeValidationService codeValidationService) {
-        this.restTemplate = restTemplate;
-        this.objectMapper = objectMapper;
+                         CodeValidationService codeValidationService,
+                         ExecutionResultStore executionResultStore,
+                         ExecutionResultCache executionResultCache,
+                         ExecutionCoalescer executionCoalescer,
+                         ExecutionScheduler executionScheduler) {
+        this.executionBackendRegistry = executionBackendRegistry;
         this.submissionHistoryService = submissionHistoryService;
         this.rateLimitService = rateLimitService;
         this.userService = userService;
         this.jwtUtil = jwtUtil;
         this.codeFormatService = codeFormatService;
         this.codeValidationService = codeValidationService;
-    }
-
-    private Map<String, Integer> createLanguageMap() {
-        Map<String, Integer> languages = new HashMap<>();
-        languages.put("java", 62);
-        languages.put("python", 71);
-        languages.put("cpp", 54);
-        languages.put("c", 50);
-        languages.put("javascript", 63);
-        languages.put("csharp", 51);
-        languages.put("ruby", 72);
-        languages.put("go", 60);
-        languages.put("rust", 73);
-        languages.put("kotlin", 78);
-        languages.put("swift", 83);
-        return languages;
+        this.executionResultStore = executionResultStore;
+        this.executionResultCache = executionResultCache;
+        this.executionCoalescer = executionCoalescer;
+        this.executionScheduler = executionScheduler;
     }
 
     public ExecutionResponse executeCode(ExecutionRequest request) {
@@ -82,120 +87,220 @@ public class Judge0Service {
     }
 
     public ExecutionResponse executeCode(ExecutionRequest request, HttpServletRequest httpRequest) {
+        try {
+            return executeCodeAsync(request, httpRequest)
+                    .get(maxWaitMs + SYNC_WAIT_GRACE_MS, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return ExecutionResponse.error("Execution timed out waiting for Judge0");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ExecutionResponse.error("Execution interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ExecutionRejectedException) {
+                throw (ExecutionRejectedException) e.getCause();
+            }
+            return ExecutionResponse.error("Execution failed: " + e.getCause().getMessage());
+        }
+    }
+
+    public CompletableFuture<ExecutionResponse> executeCodeAsync(ExecutionRequest request,
+                                                                 HttpServletRequest httpRequest) {
+        return submit(request, httpRequest, ExecutionListener.NONE).result;
+    }
+
+    public CompletableFuture<ExecutionResponse> executeStreaming(ExecutionRequest request,
+                                                                 HttpServletRequest httpRequest,
+                                                                 ExecutionListener listener) {
+        return submit(request, httpRequest, listener).result;
+    }
+
+    public Optional<ExecutionTicket> getResult(String token, String caller) {
+        return executionResultStore.find(token, caller);
+    }
+
+    public Optional<CompletableFuture<ExecutionResponse>> awaitResult(String token, String caller) {
+        return executionResultStore.await(token, caller);
+    }
+
+    public ExecutionTicket submitExecution(ExecutionRequest request, HttpServletRequest httpRequest) {
+        PendingExecution pending = submit(request, httpRequest, ExecutionListener.NONE);
+        ExecutionResponse result = pending.result.getNow(null);
+        return result != null
+                ? ExecutionTicket.completed(pending.token, result)
+                : ExecutionTicket.pending(pending.token);
+    }
+
+    private PendingExecution submit(ExecutionRequest request, HttpServletRequest httpRequest,
+                                    ExecutionListener listener) {
 
         log.info("=== JUDGE0 SECURE EXECUTION ===");
 
+        PendingExecution pending = new PendingExecution(UUID.randomUUID().toString(), request);
+
         if (request == null) {
-            return ExecutionResponse.error("Execution request cannot be null");
+            return complete(pending, ExecutionResponse.error("Execution request cannot be null"));
         }
 
         if (request.getLanguage() == null || request.getLanguage().trim().isEmpty()) {
-            return ExecutionResponse.error("Language must be specified");
+            return complete(pending, ExecutionResponse.error("Language must be specified"));
         }
 
         if (request.getCode() == null || request.getCode().trim().isEmpty()) {
-            return ExecutionResponse.error("Code cannot be empty");
+            return complete(pending, ExecutionResponse.error("Code cannot be empty"));
         }
 
         log.info("Language: {}", request.getLanguage());
 
         String clientId = getClientIdentifier(httpRequest);
+        pending.clientId = clientId;
+        pending.sessionId = resolveSessionId(httpRequest);
+        pending.user = getCurrentUser();
 
         try {
-            codeValidationService.validateExecutionRequest(request, clientId);
-            log.info("Security validation passed for client: {}", clientId);
-
-            if (rapidApiKey == null || rapidApiKey.trim().isEmpty()) {
-                return ExecutionResponse.error("Judge0 API key is not configured");
+            ValidationVerdict verdict = codeValidationService.evaluate(request, clientId);
+            if (httpRequest != null) {
+                httpRequest.setAttribute(RateLimitStatus.REQUEST_ATTRIBUTE, rateLimitService.getStatus(clientId));
             }
-
-            Integer languageId = LANGUAGE_IDS.get(request.getLanguage().toLowerCase());
-            log.debug("Language ID resolved: {} for language: {}", languageId, request.getLanguage());
-
-            if (languageId == null) {
-                return ExecutionResponse.error("Unsupported language: " + request.getLanguage());
+            if (!verdict.isAccepted()) {
+                return finish(pending, ExecutionResponse.error(verdict.getMessage()));
             }
+            request.setCode(verdict.getSanitizedCode());
+            log.info("Security validation passed for client: {}", clientId);
 
-            Map<String, Object> submission = new HashMap<>();
+            Optional<ExecutionBackend> backend = executionBackendRegistry.resolve(request.getLanguage());
+            if (backend.isEmpty()) {
+                return finish(pending, ExecutionResponse.error("Unsupported language: " + request.getLanguage()));
+            }
 
             String formattedCode = codeFormatService.formatCode(request.getCode(), request.getLanguage());
 
-            submission.put("source_code", formattedCode);
-            submission.put("language_id", languageId);
-            submission.put("stdin", request.getInput() != null ? request.getInput() : "");
-
-            if (request.getExpectedOutput() != null && !request.getExpectedOutput().trim().isEmpty()) {
-                submission.put("expected_output", request.getExpectedOutput());
+            String stdin = request.getInput() != null ? request.getInput() : "";
+            String expectedOutput = request.getExpectedOutput() != null && !request.getExpectedOutput().trim().isEmpty()
+                    ? request.getExpectedOutput() : null;
+
+            String fingerprint = null;
+            if (!request.isNondeterministic()) {
+                fingerprint = ExecutionFingerprint.of(formattedCode, request.getLanguage(), stdin, expectedOutput);
+                Optional<ExecutionResponse> cached = executionResultCache.get(fingerprint);
+                if (cached.isPresent()) {
+                    log.info("Serving cached execution result for client: {}", clientId);
+                    return finish(pending, cached.get());
+                }
             }
 
-            log.debug("Submission prepared for language: {}", request.getLanguage());
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("X-RapidAPI-Key", rapidApiKey);
-            headers.set("X-RapidAPI-Host", "judge0-ce.p.rapidapi.com");
+            ExecutionJob job = ExecutionJob.builder()
+                    .language(request.getLanguage().toLowerCase())
+                    .sourceCode(formattedCode)
+                    .stdin(stdin)
+                    .expectedOutput(expectedOutput)
+                    .limits(codeValidationService.getExecutionLimits(clientId))
+                    .build();
+
+            ExecutionBackend selected = backend.get();
+            log.debug("Execution prepared for language: {} on backend: {}", request.getLanguage(), selected.getName());
+
+            ExecutionPriority priority = ExecutionPriority.forInteractiveRun(pending.user);
+            Supplier<CompletableFuture<ExecutionResponse>> admitted =
+                    () -> executionScheduler.submit(clientId, priority, () -> selected.execute(job, listener));
+            // A streaming caller has to observe its own run, so it never joins an in-flight execution.
+            listener.onStatus("Queued");
+            CompletableFuture<ExecutionResponse> outcome = fingerprint != null && listener == ExecutionListener.NONE
+                    ? executionCoalescer.execute(fingerprint, admitted)
+                    : admitted.get();
+            rethrowIfRejected(outcome);
+
+            executionResultStore.register(pending.token, pending.owner());
+            String cacheKey = fingerprint;
+            outcome.whenComplete((response, error) -> onExecutionComplete(pending, cacheKey, response, error));
+            log.info("Code submitted to {} for client: {}, token: {}", selected.getName(), clientId, pending.token);
+            return pending;
+
+        } catch (ExecutionRejectedException e) {
+            throw e;
 
-            String submissionJson = objectMapper.writeValueAsString(submission);
-            log.debug("Sending request to Judge0 API");
-
-            HttpEntity<String> entity = new HttpEntity<>(submissionJson, headers);
-
-            String submissionUrl = judge0BaseUrl + "/submissions?base64_encoded=false&wait=true";
-            log.debug("Making request to: {}", submissionUrl);
-
-            ResponseEntity<String> response = restTemplate.exchange(
-                    submissionUrl,
-                    HttpMethod.POST,
-                    entity,
-                    String.class
-            );
+        } catch (SecurityException e) {
+            log.warn("Security violation detected for client {}: {}", clientId, e.getMessage());
+            return finish(pending, ExecutionResponse.error("Security violation: " + e.getMessage()));
 
-            log.debug("Response Status: {}", response.getStatusCode());
+        } catch (Exception e) {
+            log.error("Judge0 service error for client {}: {}", clientId, e.getMessage(), e);
+            return finish(pending, ExecutionResponse.error("Execution failed: " + e.getMessage()));
+        }
+    }
 
-            ExecutionResponse executionResponse;
+    private void rethrowIfRejected(CompletableFuture<ExecutionResponse> outcome) {
+        if (!outcome.isCompletedExceptionally()) {
+            return;
+        }
+        try {
+            outcome.getNow(null);
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof ExecutionRejectedException) {
+                throw (ExecutionRejectedException) e.getCause();
+            }
+        }
+    }
 
-            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                Map<String, Object> responseBody = objectMapper.readValue(response.getBody(), Map.class);
-                executionResponse = mapToExecutionResponse(responseBody, request.getExpectedOutput());
-                log.info("Code execution completed successfully for client: {}", clientId);
+    private void onExecutionComplete(PendingExecution pending, String fingerprint,
+                                     ExecutionResponse response, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        try {
+            if (cause == null) {
+                log.info("Code execution completed successfully for client: {}", pending.clientId);
+                if (fingerprint != null) {
+                    executionResultCache.put(fingerprint, pending.request.getLanguage(), response);
+                }
+                finish(pending, response);
+            } else if (cause instanceof ExecutionRejectedException) {
+                // Preempted or expired while queued: the run never happened, so there is no history to record.
+                log.info("Execution {} rejected for client {}: {}",
+                        pending.token, pending.clientId, cause.getMessage());
+                executionResultStore.complete(pending.token, pending.owner(),
+                        ExecutionResponse.error(cause.getMessage()));
+                pending.result.completeExceptionally(cause);
+            } else if (cause instanceof HttpClientErrorException) {
+                finish(pending, mapHttpError((HttpClientErrorException) cause));
+            } else if (cause instanceof TimeoutException) {
+                finish(pending, ExecutionResponse.error(cause.getMessage()));
             } else {
-                executionResponse = ExecutionResponse.error("Unexpected response from Judge0: " + response.getStatusCode());
-                log.warn("Unexpected response from Judge0: {}", response.getStatusCode());
+                log.error("Judge0 service error for client {}: {}", pending.clientId, cause.getMessage(), cause);
+                finish(pending, ExecutionResponse.error("Execution failed: " + cause.getMessage()));
             }
+        } catch (Exception e) {
+            log.error("Failed to complete execution {}: {}", pending.token, e.getMessage(), e);
+            complete(pending, ExecutionResponse.error("Execution failed: " + e.getMessage()));
+        }
+    }
 
-            saveSubmissionHistory(request, executionResponse, httpRequest);
-            return executionResponse;
-
-        } catch (SecurityException e) {
-            log.warn("Security violation detected for client {}: {}", clientId, e.getMessage());
-            ExecutionResponse securityResponse = ExecutionResponse.error("Security violation: " + e.getMessage());
-            saveSubmissionHistory(request, securityResponse, httpRequest);
-            return securityResponse;
-
-        } catch (HttpClientErrorException e) {
-            log.error("Judge0 API HTTP error: {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
+    private PendingExecution finish(PendingExecution pending, ExecutionResponse response) {
+        saveSubmissionHistory(pending.request, response, pending.sessionId, pending.user);
+        return complete(pending, response);
+    }
 
-            ExecutionResponse errorResponse;
+    private PendingExecution complete(PendingExecution pending, ExecutionResponse response) {
+        executionResultStore.complete(pending.token, pending.owner(), response);
+        pending.result.complete(response);
+        return pending;
+    }
 
-            if (e.getStatusCode() == HttpStatus.FORBIDDEN) {
-                errorResponse = ExecutionResponse.error("Authentication failed. Please check your Judge0 API key.");
-            } else if (e.getStatusCode() == HttpStatus.TOO_MANY_REQUESTS) {
-                errorResponse = ExecutionResponse.error("Rate limit exceeded. Please try again later.");
-            } else if (e.getStatusCode() == HttpStatus.UNPROCESSABLE_ENTITY) {
-                errorResponse = ExecutionResponse.error("Invalid request format: " + e.getResponseBodyAsString());
-            } else {
-                errorResponse = ExecutionResponse.error("Judge0 API error: " + e.getStatusCode());
-            }
+    private ExecutionResponse mapHttpError(HttpClientErrorException e) {
+        log.error("Judge0 API HTTP error: {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
 
-            saveSubmissionHistory(request, errorResponse, httpRequest);
-            return errorResponse;
+        if (e.getStatusCode() == HttpStatus.FORBIDDEN) {
+            return ExecutionResponse.error("Authentication failed. Please check your Judge0 API key.");
+        } else if (e.getStatusCode() == HttpStatus.TOO_MANY_REQUESTS) {
+            return ExecutionResponse.error("Rate limit exceeded. Please try again later.");
+        } else if (e.getStatusCode() == HttpStatus.UNPROCESSABLE_ENTITY) {
+            return ExecutionResponse.error("Invalid request format: " + e.getResponseBodyAsString());
+        }
+        return ExecutionResponse.error("Judge0 API error: " + e.getStatusCode());
+    }
 
-        } catch (Exception e) {
-            log.error("Judge0 service error for client {}: {}", clientId, e.getMessage(), e);
-            ExecutionResponse errorResponse = ExecutionResponse.error("Execution failed: " + e.getMessage());
-            saveSubmissionHistory(request, errorResponse, httpRequest);
-            return errorResponse;
+    private String resolveSessionId(HttpServletRequest httpRequest) {
+        if (httpRequest != null && httpRequest.getSession() != null) {
+            return httpRequest.getSession().getId();
         }
+        return null;
     }
 
     private User getCurrentUser() {
@@ -213,30 +318,23 @@ public class Judge0Service {
     }
 
     private void saveSubmissionHistory(ExecutionRequest request, ExecutionResponse response,
-                                       HttpServletRequest httpRequest) {
+                                       String sessionId, User currentUser) {
         try {
             log.info("🔄 SAVE SUBMISSION - Starting save process for language: {}", request.getLanguage());
 
-            String sessionId = "no-session";
-            if (httpRequest != null && httpRequest.getSession() != null) {
-                sessionId = httpRequest.getSession().getId();
+            if (sessionId != null) {
                 log.info("📱 Session ID: {}", sessionId);
             } else {
+                sessionId = "no-session";
                 log.warn("⚠️ No HTTP request or session available");
             }
 
-            User currentUser = getCurrentUser();
             log.info("👤 Current user: {}", currentUser != null ? currentUser.getUsername() : "anonymous");
 
             CodeSubmission savedSubmission = submissionHistoryService.saveSubmissionWithResult(
                     request.getCode(),
                     request.getLanguage(),
-                    response.getOutput(),
-                    response.getError(),
-                    response.getStatus(),
-                    response.getExecutionTime(),
-                    response.getMemoryUsed(),
-                    response.getIsCorrect(),
+                    response,
                     currentUser,
                     sessionId
             );
@@ -249,64 +347,6 @@ public class Judge0Service {
         }
     }
 
-    private ExecutionResponse mapToExecutionResponse(Map<String, Object> response, String expectedOutput) {
-        ExecutionResponse result = new ExecutionResponse();
-
-        if (response != null) {
-            if (response.containsKey("stdout") && response.get("stdout") != null) {
-                result.setOutput(response.get("stdout").toString().trim());
-            } else if (response.containsKey("compile_output") && response.get("compile_output") != null) {
-                result.setOutput(response.get("compile_output").toString().trim());
-            }
-
-            if (response.containsKey("stderr") && response.get("stderr") != null) {
-                String stderr = response.get("stderr").toString().trim();
-                if (!stderr.isEmpty()) {
-                    result.setError(stderr);
-                }
-            }
-
-            if (response.containsKey("time") && response.get("time") != null) {
-                try {
-                    result.setExecutionTime(Double.parseDouble(response.get("time").toString()));
-                } catch (NumberFormatException e) {
-                    result.setExecutionTime(0.0);
-                    log.debug("Failed to parse execution time: {}", response.get("time"));
-                }
-            }
-
-            if (response.containsKey("memory") && response.get("memory") != null) {
-                try {
-                    result.setMemoryUsed(Double.parseDouble(response.get("memory").toString()));
-                } catch (NumberFormatException e) {
-                    result.setMemoryUsed(0.0);
-                    log.debug("Failed to parse memory usage: {}", response.get("memory"));
-                }
-            }
-
-            if (response.containsKey("status")) {
-                Object statusObj = response.get("status");
-                if (statusObj instanceof Map) {
-                    Map<String, Object> status = (Map<String, Object>) statusObj;
-                    if (status.containsKey("description")) {
-                        result.setStatus(status.get("description").toString());
-                    }
-                }
-            }
-
-            if (expectedOutput != null && !expectedOutput.isEmpty()) {
-                String actualOutput = result.getOutput() != null ? result.getOutput().trim() : "";
-                result.setIsCorrect(actualOutput.equals(expectedOutput.trim()));
-            }
-
-            if (result.getStatus() == null) {
-                result.setStatus("Completed");
-            }
-        }
-
-        return result;
-    }
-
     private String getClientIdentifier(HttpServletRequest request) {
         if (request == null) {
             return "anonymous-client";
@@ -339,4 +379,22 @@ public class Judge0Service {
         languages.put("swift", "Swift (5.2.3)");
         return languages;
     }
-}
\ No newline at end of file
+
+    private static final class PendingExecution {
+        private final String token;
+        private final ExecutionRequest request;
+        private final CompletableFuture<ExecutionResponse> result = new CompletableFuture<>();
+        private String clientId;
+        private String sessionId;
+        private User user;
+
+        private PendingExecution(String token, ExecutionRequest request) {
+            this.token = token;
+            this.request = request;
+        }
+
+        private String owner() {
+            return user != null ? user.getUsername() : null;
+        }
+    }
+}
@@ -0,0 +1,693 @@
+package com.compiler.service;
+
+import com.compiler.dto.ExecutionJob;
+import com.compiler.dto.ExecutionLimits;
+import com.compiler.dto.ExecutionResponse;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+@Slf4j
+@Component
+public class LocalProcessExecutionBackend implements ExecutionBackend {
+
+    public static final String NAME = "local";
+
+    private static final String SANDBOX_SCRIPT =
+            "if [ -n \"$SANDBOX_CGROUP\" ]; then echo $$ > \"$SANDBOX_CGROUP/cgroup.procs\" || exit 125; fi; "
+                    + "ulimit -t \"$SANDBOX_CPU_SECONDS\"; "
+                    // bash and busybox call the process limit -u, dash calls it -p
+                    + "{ ulimit -u \"$SANDBOX_NPROC\" || ulimit -p \"$SANDBOX_NPROC\"; } 2>/dev/null || exit 125; "
+                    + "if [ -n \"$SANDBOX_AS_KB\" ]; then ulimit -v \"$SANDBOX_AS_KB\"; fi; "
+                    + "ulimit -f \"$SANDBOX_FILE_BLOCKS\"; "
+                    + "ulimit -c 0; "
+                    + "exec \"$@\"";
+
+    // Keeps the submitted program off pid 1 of its namespace, where signals such as SIGXCPU would be ignored.
+    private static final String NAMESPACE_INIT = "\"$@\"; exit $?";
+
+    private static final String SANDBOX_PATH = "/usr/local/bin:/usr/bin:/bin";
+    private static final int SANDBOX_EXIT_CODE = 125;
+    private static final long FILE_SIZE_BLOCKS = 131072;
+    private static final long ADDRESS_SPACE_OVERHEAD_MB = 64;
+    private static final int MAX_PIDS = 64;
+    private static final int MAX_COMPILE_OUTPUT_BYTES = 64 * 1024;
+    private static final long FULL_COMPARE_SLACK_BYTES = 4096;
+    private static final long COMPILE_MEMORY_MB = 1024;
+
+    private static final Pattern JAVA_PUBLIC_CLASS =
+            Pattern.compile("public\\s+(?:final\\s+|abstract\\s+)*class\\s+([A-Za-z_$][A-Za-z0-9_$]*)");
+
+    private final Map<String, Toolchain> toolchains = createToolchains();
+    private final Set<String> availableLanguages = new HashSet<>();
+
+    private final boolean enabled;
+    private final Path workDir;
+    private final String cgroupRoot;
+    private final long compileTimeoutMs;
+    private final int sandboxUid;
+    private final int sandboxGid;
+    private final int sandboxNproc;
+    private final String unshare;
+    private final ExecutorService runners;
+    private final ExecutorService pumps;
+    private final CompiledArtifactCache artifactCache;
+    private final ExecutionPhaseMetrics phaseMetrics;
+    private final OutputSpillStore outputSpillStore;
+
+    public LocalProcessExecutionBackend(
+            CompiledArtifactCache artifactCache,
+            ExecutionPhaseMetrics phaseMetrics,
+            OutputSpillStore outputSpillStore,
+            @Value("${execution.local.enabled:false}") boolean enabled,
+            @Value("${execution.local.languages:python,javascript,c,cpp,go,rust,java,kotlin}") List<String> languages,
+            @Value("${execution.local.work-dir:${java.io.tmpdir}/code-compiler}") String workDir,
+            @Value("${execution.local.cgroup-root:}") String cgroupRoot,
+            @Value("${execution.local.compile-timeout-ms:30000}") long compileTimeoutMs,
+            @Value("${execution.local.max-concurrency:4}") int maxConcurrency,
+            @Value("${execution.local.sandbox-uid:65534}") int sandboxUid,
+            @Value("${execution.local.sandbox-gid:65534}") int sandboxGid) {
+        this.artifactCache = artifactCache;
+        this.phaseMetrics = phaseMetrics;
+        this.outputSpillStore = outputSpillStore;
+        this.enabled = enabled;
+        this.workDir = Paths.get(workDir);
+        this.cgroupRoot = cgroupRoot;
+        this.compileTimeoutMs = compileTimeoutMs;
+        this.sandboxUid = sandboxUid;
+        this.sandboxGid = sandboxGid;
+        // RLIMIT_NPROC counts every process of the sandbox user, so the budget is shared by concurrent runs.
+        this.sandboxNproc = MAX_PIDS * Math.max(1, maxConcurrency);
+        this.unshare = findOnPath("unshare");
+        this.runners = Executors.newFixedThreadPool(maxConcurrency, daemonThreads("local-exec-"));
+        this.pumps = Executors.newCachedThreadPool(daemonThreads("local-exec-io-"));
+
+        if (enabled && !isolationAvailable()) {
+            log.error("Local process execution disabled: submissions cannot be isolated from the service");
+        } else if (enabled) {
+            for (String language : languages) {
+                Toolchain toolchain = toolchains.get(language.trim().toLowerCase());
+                if (toolchain == null) {
+                    log.warn("No local toolchain definition for language: {}", language);
+                } else if (!toolchain.limitAddressSpace && !hasCgroupRoot()) {
+                    log.warn("Local execution of {} refused: its runtime cannot be memory-capped without "
+                            + "execution.local.cgroup-root", language);
+                } else if (toolchain.binaries.stream().allMatch(this::isOnPath)) {
+                    availableLanguages.add(language.trim().toLowerCase());
+                } else {
+                    log.warn("Local toolchain for {} not found on PATH: {}", language, toolchain.binaries);
+                }
+            }
+            log.info("Local process execution enabled for languages: {}", availableLanguages);
+        }
+    }
+
+    private Map<String, Toolchain> createToolchains() {
+        Map<String, Toolchain> chains = new HashMap<>();
+        chains.put("python", new Toolchain("main.py", null, null,
+                List.of("python3", "-B", "main.py"), true, List.of("python3")));
+        chains.put("javascript", new Toolchain("main.js", null, null,
+                List.of("node", "--max-old-space-size={memory}", "main.js"), false, List.of("node")));
+        chains.put("c", new Toolchain("main.c",
+                List.of("gcc", "-O2", "-std=c11", "-o", "main", "main.c", "-lm"), "main",
+                List.of("./main"), true, List.of("gcc")));
+        chains.put("cpp", new Toolchain("main.cpp",
+                List.of("g++", "-O2", "-std=c++17", "-o", "main", "main.cpp"), "main",
+                List.of("./main"), true, List.of("g++")));
+        chains.put("go", new Toolchain("main.go",
+                List.of("go", "build", "-o", "main", "main.go"), "main",
+                List.of("./main"), false, List.of("go")));
+        chains.put("rust", new Toolchain("main.rs",
+                List.of("rustc", "-O", "-o", "main", "main.rs"), "main",
+                List.of("./main"), true, List.of("rustc")));
+        chains.put("java", new Toolchain("{class}.java",
+                List.of("javac", "-J-Xmx512m", "-d", ".", "{class}.java"), "*.class",
+                List.of("java", "-Xmx{memory}m", "-Xss64m", "-XX:+UseSerialGC", "-cp", ".", "{class}"),
+                false, List.of("javac", "java")));
+        chains.put("kotlin", new Toolchain("main.kt",
+                List.of("kotlinc", "main.kt", "-include-runtime", "-d", "main.jar"), "main.jar",
+                List.of("java", "-Xmx{memory}m", "-Xss64m", "-XX:+UseSerialGC", "-jar", "main.jar"),
+                false, List.of("kotlinc", "java")));
+        return chains;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean supports(String language) {
+        return enabled && language != null && availableLanguages.contains(language.toLowerCase());
+    }
+
+    @Override
+    public CompletableFuture<ExecutionResponse> execute(ExecutionJob job) {
+        return execute(job, ExecutionListener.NONE);
+    }
+
+    @Override
+    public CompletableFuture<ExecutionResponse> execute(ExecutionJob job, ExecutionListener listener) {
+        return CompletableFuture.supplyAsync(() -> run(job, listener), runners);
+    }
+
+    private ExecutionResponse run(ExecutionJob job, ExecutionListener listener) {
+        String language = job.getLanguage().toLowerCase();
+        Toolchain toolchain = toolchains.get(language);
+        ExecutionLimits limits = job.getLimits() != null ? job.getLimits() : new ExecutionLimits();
+        Path runDir = null;
+
+        try {
+            runDir = createRunDir();
+
+            Map<String, String> placeholders = new HashMap<>();
+            placeholders.put("{class}", "java".equals(language) ? javaClassName(job.getSourceCode()) : "Main");
+            placeholders.put("{memory}", String.valueOf(limits.getMaxMemoryMb()));
+
+            Files.writeString(runDir.resolve(expand(toolchain.sourceFile, placeholders)),
+                    job.getSourceCode(), StandardCharsets.UTF_8);
+
+            if (toolchain.compile != null) {
+                List<String> compileCommand = expand(toolchain.compile, placeholders);
+                String artifactKey = CompiledArtifactCache.key(job.getSourceCode(), language, compileCommand);
+                long compileStartedAt = System.nanoTime();
+                boolean cached = artifactCache.restore(artifactKey, runDir);
+
+                if (!cached) {
+                    listener.onStatus("Compiling");
+                    SandboxResult compiled = runSandboxed(runDir, compileCommand, "",
+                            compileTimeoutMs, COMPILE_MEMORY_MB, false, false, MAX_COMPILE_OUTPUT_BYTES, false,
+                            ExecutionListener.NONE);
+                    phaseMetrics.recordCompile(NAME, language, System.nanoTime() - compileStartedAt, false);
+                    if (compiled.timedOut || compiled.exitCode != 0) {
+                        ExecutionResponse response = new ExecutionResponse();
+                        String compileOutput = (compiled.stderr.getPreview() + compiled.stdout.getPreview()).trim();
+                        response.setOutput(compiled.timedOut ? "Compilation timed out" : compileOutput);
+                        response.setStatus("Compilation Error");
+                        return response;
+                    }
+                    artifactCache.store(artifactKey, runDir, listArtifacts(runDir, toolchain.artifacts));
+                } else {
+                    phaseMetrics.recordCompile(NAME, language, System.nanoTime() - compileStartedAt, true);
+                }
+            }
+
+            listener.onStatus("Running");
+            long runStartedAt = System.nanoTime();
+            SandboxResult result = runSandboxed(runDir, expand(toolchain.run, placeholders),
+                    job.getStdin() != null ? job.getStdin() : "", limits.getTimeoutMs(),
+                    limits.getMaxMemoryMb(), toolchain.limitAddressSpace, !toolchain.limitAddressSpace,
+                    limits.getMaxOutputBytes(), true, listener);
+            phaseMetrics.recordRun(NAME, language, System.nanoTime() - runStartedAt);
+            return toExecutionResponse(result, job.getExpectedOutput());
+
+        } catch (IOException e) {
+            log.error("Local execution failed for language {}: {}", language, e.getMessage(), e);
+            return ExecutionResponse.error("Execution failed: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ExecutionResponse.error("Execution interrupted");
+        } finally {
+            deleteQuietly(runDir);
+        }
+    }
+
+    private SandboxResult runSandboxed(Path dir, List<String> command, String stdin, long timeoutMs,
+                                       long memoryMb, boolean limitAddressSpace, boolean requireCgroup,
+                                       long inlineOutputBytes, boolean spillStdout, ExecutionListener listener)
+            throws IOException, InterruptedException {
+
+        Path cgroup = createCgroup(memoryMb);
+        if (cgroup == null && requireCgroup) {
+            throw new IOException("no memory cgroup available to cap this run");
+        }
+
+        List<String> argv = new ArrayList<>();
+        argv.add("/bin/sh");
+        argv.add("-c");
+        argv.add(SANDBOX_SCRIPT);
+        argv.add("sandbox");
+        argv.addAll(isolate(command));
+
+        ProcessBuilder builder = new ProcessBuilder(argv).directory(dir.toFile());
+        Map<String, String> env = builder.environment();
+        env.clear();
+        env.put("PATH", SANDBOX_PATH);
+        env.put("HOME", dir.toString());
+        env.put("TMPDIR", dir.toString());
+        env.put("LANG", "C.UTF-8");
+        env.put("GOCACHE", dir.resolve(".gocache").toString());
+        env.put("SANDBOX_CGROUP", cgroup != null ? cgroup.toString() : "");
+        env.put("SANDBOX_CPU_SECONDS", String.valueOf(Math.max(1, (timeoutMs + 999) / 1000 + 1)));
+        env.put("SANDBOX_AS_KB", limitAddressSpace ? String.valueOf((memoryMb + ADDRESS_SPACE_OVERHEAD_MB) * 1024) : "");
+        env.put("SANDBOX_FILE_BLOCKS", String.valueOf(FILE_SIZE_BLOCKS));
+        env.put("SANDBOX_NPROC", String.valueOf(sandboxNproc));
+
+        long startedAt = System.nanoTime();
+        Process process = builder.start();
+
+        BoundedCapture stdout = new BoundedCapture(outputSpillStore.open(inlineOutputBytes, spillStdout),
+                ExecutionListener.STDOUT, listener);
+        BoundedCapture stderr = new BoundedCapture(outputSpillStore.open(inlineOutputBytes, false),
+                ExecutionListener.STDERR, listener);
+        Future<?> stdoutPump = pumps.submit(() -> stdout.drain(process.getInputStream(), process));
+        Future<?> stderrPump = pumps.submit(() -> stderr.drain(process.getErrorStream(), process));
+        pumps.submit(() -> feed(process.getOutputStream(), stdin));
+
+        try {
+            boolean exited = process.waitFor(timeoutMs, TimeUnit.MILLISECONDS);
+            if (!exited) {
+                kill(process, cgroup);
+                process.waitFor(1, TimeUnit.SECONDS);
+            }
+            long elapsedNanos = System.nanoTime() - startedAt;
+            awaitPump(stdoutPump);
+            awaitPump(stderrPump);
+
+            SandboxResult result = new SandboxResult();
+            result.timedOut = !exited;
+            result.exitCode = process.isAlive() ? -1 : process.exitValue();
+            result.stdout = stdout.capture.finish();
+            result.stderr = stderr.capture.finish();
+            result.outputExceeded = stdout.exceeded || stderr.exceeded;
+            result.wallSeconds = elapsedNanos / 1_000_000_000.0;
+            result.sandboxFailed = cgroup != null && result.exitCode == SANDBOX_EXIT_CODE;
+            if (cgroup != null) {
+                result.memoryPeakKb = readCgroupLong(cgroup, "memory.peak") / 1024.0;
+                result.oomKilled = readCgroupEvent(cgroup, "memory.events", "oom_kill") > 0;
+            }
+            return result;
+        } finally {
+            if (process.isAlive()) {
+                kill(process, cgroup);
+            }
+            removeCgroup(cgroup);
+        }
+    }
+
+    private ExecutionResponse toExecutionResponse(SandboxResult result, String expectedOutput) {
+        if (result.sandboxFailed) {
+            return ExecutionResponse.error("Failed to place process in execution sandbox");
+        }
+
+        ExecutionResponse response = new ExecutionResponse();
+        result.stdout.applyTo(response);
+        if (!result.stderr.getPreview().trim().isEmpty()) {
+            response.setError(result.stderr.getPreview().trim());
+        }
+        response.setExecutionTime(result.wallSeconds);
+        if (result.memoryPeakKb > 0) {
+            response.setMemoryUsed(result.memoryPeakKb);
+        }
+
+        int signal = result.exitCode > 128 ? result.exitCode - 128 : 0;
+        if (result.timedOut || signal == 24) {
+            response.setStatus("Time Limit Exceeded");
+        } else if (result.outputExceeded) {
+            response.setStatus("Runtime Error (Other)");
+            response.setError("Output limit exceeded");
+        } else if (result.oomKilled) {
+            response.setStatus("Runtime Error (SIGKILL)");
+            response.setError("Memory limit exceeded");
+        } else if (result.exitCode != 0) {
+            response.setStatus(runtimeErrorStatus(signal));
+        } else if (expectedOutput != null && !expectedOutput.isEmpty()) {
+            boolean correct = fullOutput(result.stdout, expectedOutput)
+                    .map(output -> output.trim().equals(expectedOutput.trim()))
+                    .orElse(false);
+            response.setIsCorrect(correct);
+            response.setStatus(correct ? "Accepted" : "Wrong Answer");
+        } else {
+            response.setStatus("Accepted");
+        }
+        return response;
+    }
+
+    private Optional<String> fullOutput(OutputSpillStore.CapturedOutput stdout, String expectedOutput) {
+        if (!stdout.isTruncated()) {
+            return Optional.of(stdout.getPreview());
+        }
+        long expectedBytes = expectedOutput.getBytes(StandardCharsets.UTF_8).length;
+        if (stdout.getBlobId() == null || stdout.getSize() > expectedBytes + FULL_COMPARE_SLACK_BYTES) {
+            return Optional.empty();
+        }
+        return outputSpillStore.read(stdout.getBlobId(), 0, (int) stdout.getSize())
+                .map(bytes -> new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    private String runtimeErrorStatus(int signal) {
+        return switch (signal) {
+            case 6 -> "Runtime Error (SIGABRT)";
+            case 8 -> "Runtime Error (SIGFPE)";
+            case 9 -> "Runtime Error (SIGKILL)";
+            case 11 -> "Runtime Error (SIGSEGV)";
+            case 25 -> "Runtime Error (SIGXFSZ)";
+            default -> "Runtime Error (NZEC)";
+        };
+    }
+
+    /**
+     * Wraps a command so it runs as the unprivileged sandbox user in fresh network, pid, ipc, uts and mount
+     * namespaces. The resource limits are applied by the sandbox script before this, as the service user.
+     */
+    private List<String> isolate(List<String> command) {
+        List<String> argv = new ArrayList<>(List.of(unshare,
+                "--net", "--pid", "--ipc", "--uts", "--mount-proc", "--fork", "--kill-child",
+                "--setuid", String.valueOf(sandboxUid), "--setgid", String.valueOf(sandboxGid),
+                "--", "/bin/sh", "-c", NAMESPACE_INIT, "init"));
+        argv.addAll(command);
+        return argv;
+    }
+
+    private boolean isolationAvailable() {
+        if (unshare == null) {
+            log.error("unshare not found on {}", SANDBOX_PATH);
+            return false;
+        }
+        if (sandboxUid <= 0 || sandboxGid <= 0) {
+            log.error("Sandbox uid/gid must be unprivileged, got {}:{}", sandboxUid, sandboxGid);
+            return false;
+        }
+        Path cacheRoot = artifactCache.getRoot();
+        Path runRoot = workDir.toAbsolutePath().normalize();
+        if (cacheRoot != null && (cacheRoot.startsWith(runRoot) || runRoot.startsWith(cacheRoot))) {
+            log.error("Artifact cache {} overlaps the sandbox work dir {}", cacheRoot, runRoot);
+            return false;
+        }
+
+        Path probeDir = null;
+        try {
+            probeDir = createRunDir();
+            Process probe = new ProcessBuilder(isolate(List.of("/bin/sh", "-c", "touch probe")))
+                    .directory(probeDir.toFile())
+                    .redirectErrorStream(true)
+                    .start();
+            String output = new String(probe.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+            if (!probe.waitFor(5, TimeUnit.SECONDS) || probe.exitValue() != 0) {
+                probe.destroyForcibly();
+                log.error("Sandbox isolation probe failed: {}", output);
+                return false;
+            }
+            return true;
+        } catch (IOException e) {
+            log.error("Sandbox isolation probe failed: {}", e.getMessage());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            deleteQuietly(probeDir);
+        }
+    }
+
+    /**
+     * Creates a run directory owned by the sandbox user. The work dir itself stays with the service user and is
+     * not listable, so a run can only reach its own directory.
+     */
+    private Path createRunDir() throws IOException {
+        Files.createDirectories(workDir);
+        Files.setPosixFilePermissions(workDir, PosixFilePermissions.fromString("rwx--x--x"));
+        Path runDir = Files.createDirectory(workDir.resolve("run-" + UUID.randomUUID()),
+                PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+        Files.setAttribute(runDir, "unix:uid", sandboxUid);
+        Files.setAttribute(runDir, "unix:gid", sandboxGid);
+        return runDir;
+    }
+
+    private boolean hasCgroupRoot() {
+        return cgroupRoot != null && !cgroupRoot.isBlank();
+    }
+
+    private Path createCgroup(long memoryMb) {
+        if (!hasCgroupRoot()) {
+            return null;
+        }
+        Path cgroup = Paths.get(cgroupRoot, "run-" + UUID.randomUUID());
+        try {
+            Files.createDirectory(cgroup);
+            Files.writeString(cgroup.resolve("memory.max"), String.valueOf(memoryMb * 1024 * 1024));
+            Files.writeString(cgroup.resolve("pids.max"), String.valueOf(MAX_PIDS));
+            Files.writeString(cgroup.resolve("cpu.max"), "100000 100000");
+            writeOptional(cgroup.resolve("memory.swap.max"), "0");
+            return cgroup;
+        } catch (IOException e) {
+            log.warn("Failed to create cgroup under {}, falling back to rlimits only: {}", cgroupRoot, e.getMessage());
+            removeCgroup(cgroup);
+            return null;
+        }
+    }
+
+    private void removeCgroup(Path cgroup) {
+        if (cgroup == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(cgroup);
+        } catch (IOException e) {
+            log.debug("Failed to remove cgroup {}: {}", cgroup, e.getMessage());
+        }
+    }
+
+    private void kill(Process process, Path cgroup) {
+        if (cgroup != null) {
+            writeOptional(cgroup.resolve("cgroup.kill"), "1");
+        }
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+        process.destroyForcibly();
+    }
+
+    private long readCgroupLong(Path cgroup, String file) {
+        try {
+            return Long.parseLong(Files.readString(cgroup.resolve(file)).trim());
+        } catch (IOException | NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private long readCgroupEvent(Path cgroup, String file, String event) {
+        try {
+            for (String line : Files.readAllLines(cgroup.resolve(file))) {
+                String[] parts = line.trim().split("\\s+");
+                if (parts.length == 2 && parts[0].equals(event)) {
+                    return Long.parseLong(parts[1]);
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            log.debug("Failed to read {} from {}: {}", event, cgroup, e.getMessage());
+        }
+        return 0;
+    }
+
+    private void writeOptional(Path file, String value) {
+        try {
+            Files.writeString(file, value);
+        } catch (IOException e) {
+            log.debug("Failed to write {}: {}", file, e.getMessage());
+        }
+    }
+
+    private void feed(OutputStream stdin, String input) {
+        try (OutputStream out = stdin) {
+            out.write(input.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            log.debug("Process closed stdin early: {}", e.getMessage());
+        }
+    }
+
+    private void awaitPump(Future<?> pump) throws InterruptedException {
+        try {
+            pump.get(1, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                throw (InterruptedException) e;
+            }
+            pump.cancel(true);
+        }
+    }
+
+    private List<String> listArtifacts(Path dir, String pattern) throws IOException {
+        List<String> names = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, pattern)) {
+            for (Path file : files) {
+                if (Files.isRegularFile(file)) {
+                    names.add(file.getFileName().toString());
+                }
+            }
+        }
+        return names;
+    }
+
+    private String javaClassName(String source) {
+        Matcher matcher = JAVA_PUBLIC_CLASS.matcher(source);
+        return matcher.find() ? matcher.group(1) : "Main";
+    }
+
+    private String expand(String value, Map<String, String> placeholders) {
+        for (Map.Entry<String, String> entry : placeholders.entrySet()) {
+            value = value.replace(entry.getKey(), entry.getValue());
+        }
+        return value;
+    }
+
+    private List<String> expand(List<String> values, Map<String, String> placeholders) {
+        List<String> expanded = new ArrayList<>(values.size());
+        for (String value : values) {
+            expanded.add(expand(value, placeholders));
+        }
+        return expanded;
+    }
+
+    private boolean isOnPath(String binary) {
+        return findOnPath(binary) != null;
+    }
+
+    private static String findOnPath(String binary) {
+        for (String dir : SANDBOX_PATH.split(":")) {
+            File file = new File(dir, binary);
+            if (file.canExecute()) {
+                return file.getPath();
+            }
+        }
+        return null;
+    }
+
+    private void deleteQuietly(Path dir) {
+        if (dir == null) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            log.debug("Failed to clean up {}: {}", dir, e.getMessage());
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runners.shutdownNow();
+        pumps.shutdownNow();
+    }
+
+    private static final class Toolchain {
+        private final String sourceFile;
+        private final List<String> compile;
+        private final String artifacts;
+        private final List<String> run;
+        private final boolean limitAddressSpace;
+        private final List<String> binaries;
+
+        private Toolchain(String sourceFile, List<String> compile, String artifacts, List<String> run,
+                          boolean limitAddressSpace, List<String> binaries) {
+            this.sourceFile = sourceFile;
+            this.compile = compile;
+            this.artifacts = artifacts;
+            this.run = run;
+            this.limitAddressSpace = limitAddressSpace;
+            this.binaries = binaries;
+        }
+    }
+
+    private static final class SandboxResult {
+        private int exitCode;
+        private boolean timedOut;
+        private boolean outputExceeded;
+        private boolean sandboxFailed;
+        private boolean oomKilled;
+        private OutputSpillStore.CapturedOutput stdout;
+        private OutputSpillStore.CapturedOutput stderr;
+        private double wallSeconds;
+        private double memoryPeakKb;
+    }
+
+    private static final class BoundedCapture {
+        private final OutputSpillStore.Capture capture;
+        private final String stream;
+        private final ExecutionListener listener;
+        private volatile boolean exceeded;
+        private byte[] carry = new byte[0];
+
+        private BoundedCapture(OutputSpillStore.Capture capture, String stream, ExecutionListener listener) {
+            this.capture = capture;
+            this.stream = stream;
+            this.listener = listener;
+        }
+
+        private void drain(InputStream in, Process process) {
+            byte[] chunk = new byte[8192];
+            try (InputStream stream = in) {
+                int read;
+                while ((read = stream.read(chunk)) != -1) {
+                    boolean accepted = capture.write(chunk, 0, read);
+                    publish(chunk, read);
+                    if (!accepted) {
+                        exceeded = true;
+                        process.descendants().forEach(ProcessHandle::destroyForcibly);
+                        process.destroyForcibly();
+                        return;
+                    }
+                }
+            } catch (IOException e) {
+                log.debug("Output stream closed: {}", e.getMessage());
+            }
+        }
+
+        private void publish(byte[] chunk, int length) {
+            if (listener == ExecutionListener.NONE) {
+                return;
+            }
+            byte[] bytes = chunk;
+            if (carry.length > 0) {
+                bytes = Arrays.copyOf(carry, carry.length + length);
+                System.arraycopy(chunk, 0, bytes, carry.length, length);
+                length = bytes.length;
+            }
+            // Hold back a trailing partial UTF-8 sequence until the rest of it arrives.
+            int end = OutputSpillStore.completeUtf8Length(bytes, length);
+            carry = Arrays.copyOfRange(bytes, end, length);
+            if (end > 0) {
+                listener.onOutput(stream, new String(bytes, 0, end, StandardCharsets.UTF_8));
+            }
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.compiler.service;
+
+import com.compiler.dto.ExecutionResponse;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+@Slf4j
+@Service
+public class OutputSpillStore {
+
+    private static final String SUFFIX = ".gz";
+    private static final Pattern BLOB_ID = Pattern.compile("[0-9a-f\\-]{36}");
+
+    @Value("${execution.output.spill-enabled:true}")
+    private boolean enabled;
+
+    @Value("${execution.output.spill-dir:${java.io.tmpdir}/code-compiler-output}")
+    private String directory;
+
+    @Value("${execution.output.max-spill-bytes:16777216}")
+    private long maxSpillBytes = 16L * 1024 * 1024;
+
+    @Value("${execution.output.retention-hours:24}")
+    private long retentionHours = 24;
+
+    private Path root;
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        root = Paths.get(directory);
+        try {
+            Files.createDirectories(root);
+        } catch (IOException e) {
+            log.warn("Output spill disabled, cannot use {}: {}", root, e.getMessage());
+            root = null;
+        }
+    }
+
+    public Capture open(long inlineBytes, boolean spill) {
+        return new Capture(Math.max(0, inlineBytes), spill && root != null);
+    }
+
+    public ExecutionResponse bound(ExecutionResponse response, long inlineBytes) {
+        if (response == null) {
+            return null;
+        }
+        if (response.getOutput() != null) {
+            Capture stdout = open(inlineBytes, true);
+            byte[] bytes = response.getOutput().getBytes(StandardCharsets.UTF_8);
+            stdout.write(bytes, 0, bytes.length);
+            stdout.finish().applyTo(response);
+        }
+        if (response.getError() != null) {
+            Capture stderr = open(inlineBytes, false);
+            byte[] bytes = response.getError().getBytes(StandardCharsets.UTF_8);
+            stderr.write(bytes, 0, bytes.length);
+            response.setError(stderr.finish().getPreview());
+        }
+        return response;
+    }
+
+    public Optional<byte[]> read(String blobId, long offset, int length) {
+        Optional<Path> file = resolve(blobId);
+        if (file.isEmpty()) {
+            return Optional.empty();
+        }
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file.get()))) {
+            in.skipNBytes(Math.max(0, offset));
+            return Optional.of(in.readNBytes(Math.max(0, length)));
+        } catch (EOFException e) {
+            return Optional.of(new byte[0]);
+        } catch (IOException e) {
+            log.warn("Failed to read spilled output {}: {}", blobId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public long getMaxSpillBytes() {
+        return maxSpillBytes;
+    }
+
+    @Scheduled(fixedDelayString = "${execution.output.cleanup-interval-ms:3600000}")
+    public void purgeExpired() {
+        if (root == null) {
+            return;
+        }
+        long cutoff = System.currentTimeMillis() - retentionHours * 3_600_000L;
+        int removed = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(root, "*" + SUFFIX)) {
+            for (Path file : files) {
+                if (Files.getLastModifiedTime(file).toMillis() < cutoff && Files.deleteIfExists(file)) {
+                    removed++;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to purge spilled output under {}: {}", root, e.getMessage());
+        }
+        if (removed > 0) {
+            log.info("Purged {} expired spilled outputs", removed);
+        }
+    }
+
+    private Optional<Path> resolve(String blobId) {
+        if (root == null || blobId == null || !BLOB_ID.matcher(blobId).matches()) {
+            return Optional.empty();
+        }
+        Path file = root.resolve(blobId + SUFFIX);
+        return Files.isRegularFile(file) ? Optional.of(file) : Optional.empty();
+    }
+
+    static int completeUtf8Length(byte[] bytes, int length) {
+        int lead = length - 1;
+        while (lead >= 0 && length - lead < 4 && (bytes[lead] & 0xC0) == 0x80) {
+            lead--;
+        }
+        if (lead < 0) {
+            return length;
+        }
+        int b = bytes[lead] & 0xFF;
+        int needed = b >= 0xF0 ? 4 : b >= 0xE0 ? 3 : b >= 0xC0 ? 2 : 1;
+        return length - lead < needed ? lead : length;
+    }
+
+    public final class Capture {
+        private final long inlineBytes;
+        private final boolean spill;
+        private final ByteArrayOutputStream preview = new ByteArrayOutputStream();
+        private long size;
+        private boolean exceeded;
+        private String blobId;
+        private OutputStream spillStream;
+        private boolean spillFailed;
+
+        private Capture(long inlineBytes, boolean spill) {
+            this.inlineBytes = inlineBytes;
+            this.spill = spill;
+        }
+
+        public synchronized boolean write(byte[] bytes, int offset, int length) {
+            if (exceeded) {
+                return false;
+            }
+            int accepted = (int) Math.min(length, maxSpillBytes - size);
+            int inline = (int) Math.max(0, Math.min(accepted, inlineBytes - size));
+            preview.write(bytes, offset, inline);
+            if (accepted > inline && spill) {
+                spillOverflow(bytes, offset + inline, accepted - inline);
+            }
+            size += accepted;
+            if (accepted < length) {
+                exceeded = true;
+                return false;
+            }
+            return true;
+        }
+
+        private void spillOverflow(byte[] bytes, int offset, int length) {
+            if (spillFailed) {
+                return;
+            }
+            try {
+                if (spillStream == null) {
+                    blobId = UUID.randomUUID().toString();
+                    // The blob holds the whole stream, preview included, so ranged reads use absolute offsets.
+                    spillStream = new GZIPOutputStream(Files.newOutputStream(root.resolve(blobId + SUFFIX)), 64 * 1024);
+                    preview.writeTo(spillStream);
+                }
+                spillStream.write(bytes, offset, length);
+            } catch (IOException e) {
+                log.warn("Failed to spill output to disk, keeping preview only: {}", e.getMessage());
+                discardSpill();
+            }
+        }
+
+        public synchronized CapturedOutput finish() {
+            if (spillStream != null) {
+                try {
+                    spillStream.close();
+                } catch (IOException e) {
+                    log.warn("Failed to finish spilled output {}: {}", blobId, e.getMessage());
+                    discardSpill();
+                }
+                spillStream = null;
+            }
+            byte[] bytes = preview.toByteArray();
+            int end = size > bytes.length ? completeUtf8Length(bytes, bytes.length) : bytes.length;
+            return new CapturedOutput(new String(bytes, 0, end, StandardCharsets.UTF_8),
+                    size, size > bytes.length, blobId, exceeded);
+        }
+
+        private void discardSpill() {
+            spillFailed = true;
+            if (spillStream != null) {
+                try {
+                    spillStream.close();
+                } catch (IOException e) {
+                    log.debug("Failed to close partial spill {}: {}", blobId, e.getMessage());
+                }
+                spillStream = null;
+            }
+            if (blobId != null) {
+                try {
+                    Files.deleteIfExists(root.resolve(blobId + SUFFIX));
+                } catch (IOException e) {
+                    log.debug("Failed to remove partial spill {}: {}", blobId, e.getMessage());
+                }
+                blobId = null;
+            }
+        }
+    }
+
+    public static final class CapturedOutput {
+        private final String preview;
+        private final long size;
+        private final boolean truncated;
+        private final String blobId;
+        private final boolean exceeded;
+
+        private CapturedOutput(String preview, long size, boolean truncated, String blobId, boolean exceeded) {
+            this.preview = preview;
+            this.size = size;
+            this.truncated = truncated;
+            this.blobId = blobId;
+            this.exceeded = exceeded;
+        }
+
+        public void applyTo(ExecutionResponse response) {
+            response.setOutput(truncated ? preview : preview.trim());
+            response.setOutputSize(size);
+            if (truncated) {
+                response.setOutputTruncated(true);
+                response.setOutputBlob(blobId);
+            }
+        }
+
+        public String getPreview() {
+            return preview;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public boolean isTruncated() {
+            return truncated;
+        }
+
+        public String getBlobId() {
+            return blobId;
+        }
+
+        public boolean isExceeded() {
+            return exceeded;
+        }
+    }
+}
@@ -1,58 +1,124 @@
 package com.compiler.service;
 
+import com.compiler.dto.RateLimitStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
 
+/**
+ * Per-client GCRA limiter: each client's whole state is one theoretical arrival time, advanced by one emission
+ * interval per admitted request with a CAS. A request is admitted while that time stays within
+ * {@code burst} intervals of now, so clients get {@code burst} requests back to back and then one per
+ * interval. A client whose arrival time has passed is indistinguishable from one never seen, which is what
+ * lets the background sweep drop it.
+ */
+@Slf4j
 @Service
 public class RateLimitService {
 
-    private final ConcurrentHashMap<String, AtomicInteger> requestCounts = new ConcurrentHashMap<>();
-    private final int MAX_REQUESTS_PER_MINUTE = 100;
+    private static final long RETIRED = Long.MAX_VALUE;
 
-    public boolean isAllowed(String userIdentifier) {
-        if (userIdentifier == null || userIdentifier.trim().isEmpty()) {
-            return false;
-        }
+    private final ConcurrentHashMap<String, AtomicLong> arrivals = new ConcurrentHashMap<>();
+    private final LongSupplier nanoClock;
 
-        String key = userIdentifier + ":" + (System.currentTimeMillis() / 60000);
+    @Value("${security.rate-limit.requests-per-minute:100}")
+    private long requestsPerMinute = 100;
 
-        AtomicInteger count = requestCounts.computeIfAbsent(key, k -> new AtomicInteger(0));
+    @Value("${security.rate-limit.burst:100}")
+    private long burst = 100;
 
-        if (count.incrementAndGet() > MAX_REQUESTS_PER_MINUTE) {
-            return false;
-        }
+    public RateLimitService() {
+        this(System::nanoTime);
+    }
 
-        cleanupOldEntries();
-        return true;
+    RateLimitService(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
     }
 
-    private void cleanupOldEntries() {
-        long currentMinute = System.currentTimeMillis() / 60000;
-        requestCounts.keySet().removeIf(key -> {
-            try {
-                String[] parts = key.split(":");
-                if (parts.length < 2) {
+    public boolean isAllowed(String userIdentifier) {
+        if (userIdentifier == null || userIdentifier.trim().isEmpty()) {
+            return false;
+        }
+
+        long interval = emissionIntervalNanos();
+        long window = interval * burst;
+        while (true) {
+            long now = nanoClock.getAsLong();
+            AtomicLong arrival = arrivals.computeIfAbsent(userIdentifier, k -> new AtomicLong(now));
+            long expected = arrival.get();
+            while (expected != RETIRED) {
+                long next = Math.max(expected, now) + interval;
+                if (next - now > window) {
+                    return false;
+                }
+                if (arrival.compareAndSet(expected, next)) {
                     return true;
                 }
-                long keyMinute = Long.parseLong(parts[1]);
-                return currentMinute - keyMinute > 1;
-            } catch (NumberFormatException e) {
-                return true;
-            } catch (Exception e) {
-                return true;
+                expected = arrival.get();
             }
-        });
+            // Swept between lookup and update; the next lookup creates a fresh entry.
+            arrivals.remove(userIdentifier, arrival);
+        }
     }
 
     public int getRemainingRequests(String userIdentifier) {
+        return (int) getStatus(userIdentifier).getRemaining();
+    }
+
+    /**
+     * The client's quota as it stands, without consuming any of it. {@code resetSeconds} is how long until the
+     * full burst is available again.
+     */
+    public RateLimitStatus getStatus(String userIdentifier) {
         if (userIdentifier == null || userIdentifier.trim().isEmpty()) {
-            return 0;
+            return RateLimitStatus.builder().limit(burst).remaining(0).resetSeconds(0).build();
+        }
+
+        long interval = emissionIntervalNanos();
+        long now = nanoClock.getAsLong();
+        AtomicLong arrival = arrivals.get(userIdentifier);
+        long expected = arrival != null ? arrival.get() : RETIRED;
+        long backlog = expected == RETIRED ? 0 : Math.max(0, expected - now);
+        return RateLimitStatus.builder()
+                .limit(burst)
+                .remaining(Math.max(0, (interval * burst - backlog) / interval))
+                .resetSeconds((backlog + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1))
+                .build();
+    }
+
+    /**
+     * Drops clients whose full burst is available again. The entry is marked retired before removal so a
+     * request racing the sweep retries on a fresh entry instead of updating a detached one.
+     */
+    @Scheduled(fixedDelayString = "${security.rate-limit.sweep-interval-ms:60000}")
+    public void expireIdleClients() {
+        long now = nanoClock.getAsLong();
+        int removed = 0;
+        for (Map.Entry<String, AtomicLong> entry : arrivals.entrySet()) {
+            AtomicLong arrival = entry.getValue();
+            long expected = arrival.get();
+            if (expected != RETIRED && expected <= now && arrival.compareAndSet(expected, RETIRED)) {
+                arrivals.remove(entry.getKey(), arrival);
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            log.debug("Expired {} idle rate limit entries, {} remain", removed, arrivals.size());
         }
+    }
+
+    int getTrackedClients() {
+        return arrivals.size();
+    }
 
-        String key = userIdentifier + ":" + (System.currentTimeMillis() / 60000);
-        AtomicInteger count = requestCounts.get(key);
-        return count != null ? Math.max(0, MAX_REQUESTS_PER_MINUTE - count.get()) : MAX_REQUESTS_PER_MINUTE;
+    private long emissionIntervalNanos() {
+        return TimeUnit.MINUTES.toNanos(1) / requestsPerMinute;
     }
-}
\ No newline at end of file
+}
@@ -17,7 +17,7 @@ public class ResourceLimitService {
 
     public boolean checkCodeSize(String code) {
         if (code == null) return false;
-        int codeSize = code.getBytes().length;
+        int codeSize = utf8Length(code, MAX_CODE_SIZE_BYTES);
         boolean isValid = codeSize <= MAX_CODE_SIZE_BYTES;
 
         if (!isValid) {
@@ -29,7 +29,7 @@ public class ResourceLimitService {
 
     public boolean checkInputSize(String input) {
         if (input == null) return true;
-        int inputSize = input.getBytes().length;
+        int inputSize = utf8Length(input, 10 * 1024);
         boolean isValid = inputSize <= (10 * 1024);
 
         if (!isValid) {
@@ -39,7 +39,37 @@ public class ResourceLimitService {
         return isValid;
     }
 
+    /**
+     * UTF-8 length without encoding the string. Strings too short to exceed {@code limit} even at three bytes
+     * per char are answered from their length alone.
+     */
+    static int utf8Length(String text, int limit) {
+        if ((long) text.length() * 3 <= limit) {
+            return text.length();
+        }
+        int bytes = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length()
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
     public ExecutionLimits getLimitsForUser(String userIdentifier) {
+        return getDefaultLimits();
+    }
+
+    public ExecutionLimits getDefaultLimits() {
         return ExecutionLimits.builder()
                 .timeoutMs(MAX_EXECUTION_TIME_MS)
                 .maxMemoryMb(MAX_MEMORY_MB)
@@ -0,0 +1,165 @@
+package com.compiler.service;
+
+import com.compiler.security.CodeSanitizer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Remembers {@link CodeSanitizer#sanitizeCode} verdicts, accepted or rejected, keyed by the SHA-256 of the
+ * source, the language and the sanitizer's rule-set version. A cryptographic hash is used because a key
+ * collision would hand one program another program's verdict.
+ */
+@Service
+public class SanitizerVerdictCache {
+
+    private static final long ENTRY_OVERHEAD_BYTES = 160;
+
+    private final CodeSanitizer codeSanitizer;
+
+    private final LinkedHashMap<String, Verdict> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long weightBytes;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    @Value("${security.sanitizer.cache.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${security.sanitizer.cache.max-bytes:8388608}")
+    private long maxWeightBytes = 8L * 1024 * 1024;
+
+    public SanitizerVerdictCache(CodeSanitizer codeSanitizer, MeterRegistry meterRegistry) {
+        this.codeSanitizer = codeSanitizer;
+        this.hits = Counter.builder("security.sanitizer.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("security.sanitizer.cache.requests").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("security.sanitizer.cache.bytes", this, SanitizerVerdictCache::getWeightBytes)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Same contract as {@link CodeSanitizer#sanitizeCode}: returns the sanitized source or throws
+     * {@link SecurityException} with the original rejection message.
+     */
+    public String sanitize(String code, String language) {
+        if (!enabled || code == null || language == null) {
+            return codeSanitizer.sanitizeCode(code, language);
+        }
+        return lookup(code, language).resolve();
+    }
+
+    /**
+     * Non-throwing form of {@link #sanitize}: the sanitized source, or the rejection message as a
+     * {@link ValidationVerdict.Stage#CODE} verdict.
+     */
+    public ValidationVerdict evaluate(String code, String language) {
+        Verdict verdict = !enabled || code == null || language == null
+                ? compute(code, language)
+                : lookup(code, language);
+        return verdict.rejection != null
+                ? ValidationVerdict.rejected(ValidationVerdict.Stage.CODE, verdict.rejection)
+                : ValidationVerdict.accepted(verdict.sanitized);
+    }
+
+    private Verdict lookup(String code, String language) {
+        String key = key(code, language, codeSanitizer.getRuleSetVersion());
+        Verdict cached = get(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        Verdict verdict = compute(code, language);
+        put(key, verdict);
+        return verdict;
+    }
+
+    private Verdict compute(String code, String language) {
+        try {
+            return new Verdict(codeSanitizer.sanitizeCode(code, language), null);
+        } catch (SecurityException e) {
+            return new Verdict(null, String.valueOf(e.getMessage()));
+        }
+    }
+
+    static String key(String code, String language, String ruleSetVersion) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(code.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(language.toLowerCase().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(ruleSetVersion.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private synchronized Verdict get(String key) {
+        return entries.get(key);
+    }
+
+    private synchronized void put(String key, Verdict verdict) {
+        long weight = ENTRY_OVERHEAD_BYTES + 2L * key.length() + verdict.weight();
+        if (weight > maxWeightBytes) {
+            return;
+        }
+        Verdict previous = entries.put(key, verdict.withWeight(weight));
+        if (previous != null) {
+            weightBytes -= previous.weightBytes;
+        }
+        weightBytes += weight;
+
+        Iterator<Verdict> eldest = entries.values().iterator();
+        while (weightBytes > maxWeightBytes && eldest.hasNext()) {
+            weightBytes -= eldest.next().weightBytes;
+            eldest.remove();
+        }
+    }
+
+    public synchronized int getSize() {
+        return entries.size();
+    }
+
+    public synchronized long getWeightBytes() {
+        return weightBytes;
+    }
+
+    private static final class Verdict {
+        private final String sanitized;
+        private final String rejection;
+        private long weightBytes;
+
+        private Verdict(String sanitized, String rejection) {
+            this.sanitized = sanitized;
+            this.rejection = rejection;
+        }
+
+        private String resolve() {
+            if (rejection != null) {
+                throw new SecurityException(rejection);
+            }
+            return sanitized;
+        }
+
+        private long weight() {
+            return 2L * (sanitized != null ? sanitized.length() : 0)
+                    + 2L * (rejection != null ? rejection.length() : 0);
+        }
+
+        private Verdict withWeight(long weightBytes) {
+            this.weightBytes = weightBytes;
+            return this;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.compiler.service;
 
+import com.compiler.dto.ExecutionResponse;
 import com.compiler.entity.CodeSubmission;
 import com.compiler.entity.User;
 import com.compiler.repository.CodeSubmissionRepository;
@@ -7,7 +8,9 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,8 +19,12 @@ public class SubmissionHistoryService {
 
     private final CodeSubmissionRepository submissionRepository;
 
-    public SubmissionHistoryService(CodeSubmissionRepository submissionRepository) {
+    private final OutputSpillStore outputSpillStore;
+
+    public SubmissionHistoryService(CodeSubmissionRepository submissionRepository,
+                                    OutputSpillStore outputSpillStore) {
         this.submissionRepository = submissionRepository;
+        this.outputSpillStore = outputSpillStore;
     }
 
     public CodeSubmission saveSubmission(CodeSubmission submission) {
@@ -52,6 +59,42 @@ public class SubmissionHistoryService {
         return submissionRepository.save(submission);
     }
 
+    public CodeSubmission saveSubmissionWithResult(String code, String language, ExecutionResponse response,
+                                                   User user, String sessionId) {
+        CodeSubmission submission = new CodeSubmission();
+        submission.setCode(code);
+        submission.setLanguage(language);
+        applyResult(submission, response);
+        submission.setSubmittedAt(LocalDateTime.now());
+        submission.setUser(user);
+        submission.setSessionId(sessionId);
+
+        return submissionRepository.save(submission);
+    }
+
+    public static void applyResult(CodeSubmission submission, ExecutionResponse response) {
+        submission.setOutput(response.getOutput());
+        submission.setError(response.getError());
+        submission.setStatus(response.getStatus());
+        submission.setExecutionTime(response.getExecutionTime());
+        submission.setMemoryUsed(response.getMemoryUsed());
+        submission.setIsCorrect(response.getIsCorrect());
+        submission.setOutputTruncated(Boolean.TRUE.equals(response.getOutputTruncated()));
+        submission.setOutputSize(response.getOutputSize());
+        submission.setOutputBlob(response.getOutputBlob());
+    }
+
+    public Optional<byte[]> readOutput(CodeSubmission submission, long offset, int length) {
+        if (Boolean.TRUE.equals(submission.getOutputTruncated())) {
+            return outputSpillStore.read(submission.getOutputBlob(), offset, length);
+        }
+        byte[] inline = submission.getOutput() != null
+                ? submission.getOutput().getBytes(StandardCharsets.UTF_8) : new byte[0];
+        int from = (int) Math.min(Math.max(0, offset), inline.length);
+        int to = (int) Math.min(inline.length, (long) from + Math.max(0, length));
+        return Optional.of(Arrays.copyOfRange(inline, from, to));
+    }
+
     public Optional<CodeSubmission> getSubmissionById(Long id) {
         return submissionRepository.findById(id);
     }
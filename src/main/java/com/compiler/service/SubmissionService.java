@@ -1,21 +1,21 @@
 package com.compiler.service;
 
+import com.compiler.dto.ExecutionJob;
+import com.compiler.dto.ExecutionRequest;
+import com.compiler.dto.ExecutionResponse;
 import com.compiler.dto.SubmissionRequest;
 import com.compiler.entity.*;
+import com.compiler.exception.ExecutionRejectedException;
 import com.compiler.repository.CodeSubmissionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
-
-import org.springframework.http.HttpHeaders;
 
 import java.time.LocalDateTime;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Service
 public class SubmissionService {
@@ -26,11 +26,17 @@ public class SubmissionService {
     private ProblemService problemService;
     @Autowired
     private UserService userService;
+    @Autowired
+    private ExecutionBackendRegistry executionBackendRegistry;
+    @Autowired
+    private ResourceLimitService resourceLimitService;
+    @Autowired
+    private ExecutionScheduler executionScheduler;
+    @Autowired
+    private CodeValidationService codeValidationService;
 
-    @Value("${judge0.api.key}")
-    private String rapidApiKey;
-
-    private final String JUDGE0_URL = "https://judge0-ce.p.rapidapi.com/submissions?base64_encoded=false&wait=true";
+    @Value("${execution.submission.max-wait-ms:60000}")
+    private long maxWaitMs = 60000;
 
     public CodeSubmission submitCode(String username, SubmissionRequest submissionRequest) {
         User user = userService.findByUsername(username);
@@ -45,27 +51,38 @@ public class SubmissionService {
         submission.setSubmittedAt(LocalDateTime.now());
         codeSubmissionRepository.save(submission);
 
-        Map<String, Object> body = new HashMap<>();
-        body.put("source_code", submissionRequest.getCode());
-        body.put("language_id", getLanguageId(submissionRequest.getLanguage()));
-        body.put("stdin", problem.getInput() !=null ? problem.getInput() : "");
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.set("X-RapidAPI-Key", rapidApiKey);
-
-        HttpEntity<Map<String, Object>> entity = new HttpEntity<>(body, headers);
-        RestTemplate restTemplate = new RestTemplate();
-
-        ResponseEntity<Map> response = restTemplate.postForEntity(JUDGE0_URL, entity, Map.class);
-        Map<String, Object> responseBody = response.getBody();
+        String language = normalizeLanguage(submissionRequest.getLanguage());
+        ExecutionRequest request = new ExecutionRequest();
+        request.setCode(submissionRequest.getCode());
+        request.setLanguage(language);
+        request.setInput(problem.getInput() != null ? problem.getInput() : "");
+        ValidationVerdict verdict = codeValidationService.evaluate(request, username);
+
+        ExecutionResponse result;
+        try {
+            if (!verdict.isAccepted()) {
+                result = ExecutionResponse.error(verdict.getMessage());
+            } else {
+                ExecutionJob job = ExecutionJob.builder()
+                        .language(language)
+                        .sourceCode(verdict.getSanitizedCode())
+                        .stdin(request.getInput())
+                        .limits(resourceLimitService.getDefaultLimits())
+                        .build();
+                result = executionBackendRegistry.resolve(language)
+                        .map(backend -> awaitResult(username, backend, job))
+                        .orElseGet(() -> ExecutionResponse.error("Unsupported language: " + submissionRequest.getLanguage()));
+            }
+        } catch (ExecutionRejectedException e) {
+            // Nothing ran and the caller is told to retry, so the placeholder must not linger or count as FAILED.
+            codeSubmissionRepository.delete(submission);
+            throw e;
+        }
 
-        String output = responseBody.get("stdout") != null ? responseBody.get("stdout").toString() :
-                responseBody.get("message") != null ? responseBody.get("message").toString() : "Error";
+        String output = result.getOutput() != null ? result.getOutput() :
+                result.getError() != null ? result.getError() : "Error";
 
-        String statusDescription = responseBody.get("status") != null &&
-                ((Map) responseBody.get("status")).get("description") != null
-                ? ((Map) responseBody.get("status")).get("description").toString() : "";
+        String statusDescription = result.getStatus() != null ? result.getStatus() : "";
 
         String status;
         if(statusDescription.contains("Time Limit Exceeded")){
@@ -75,6 +92,7 @@ public class SubmissionService {
         } else {
             status = "FAILED";
         }
+        SubmissionHistoryService.applyResult(submission, result);
         submission.setStatus(status);
         submission.setOutput(output);
 
@@ -85,15 +103,30 @@ public class SubmissionService {
                 .orElseThrow(() -> new RuntimeException("Submission not found"));
     }
 
-    private int getLanguageId(String language){
-        return switch (language.toLowerCase()){
-            case "c" -> 50;
-            case "cpp" -> 54;
-            case "java" -> 62;
-            case "python3" -> 71;
-            case "javascript" -> 63;
-            default -> 62;
-        };
+    private ExecutionResponse awaitResult(String username, ExecutionBackend backend, ExecutionJob job) {
+        CompletableFuture<ExecutionResponse> outcome = executionScheduler.submit(username,
+                ExecutionPriority.forGradedSubmission(), () -> backend.execute(job));
+        try {
+            return outcome.get(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            outcome.cancel(true);
+            ExecutionResponse response = ExecutionResponse.error("Execution timed out waiting for a result");
+            response.setStatus("Time Limit Exceeded");
+            return response;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ExecutionResponse.error("Execution interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ExecutionRejectedException) {
+                throw (ExecutionRejectedException) e.getCause();
+            }
+            return ExecutionResponse.error("Execution failed: " + e.getCause().getMessage());
+        }
+    }
+
+    private String normalizeLanguage(String language){
+        String normalized = language.toLowerCase();
+        return "python3".equals(normalized) ? "python" : normalized;
     }
 
 }
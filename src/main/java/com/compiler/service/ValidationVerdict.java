@@ -0,0 +1,63 @@
+package com.compiler.service;
+
+/**
+ * Outcome of {@link CodeValidationService#evaluate}: either the sanitized code to run, or the stage that
+ * turned the request away and the message to show for it. Rejections are plain values rather than exceptions
+ * because they are routine under abuse and must not pay for a stack trace.
+ */
+public final class ValidationVerdict {
+
+    public enum Stage {
+        SIZE, LANGUAGE, RATE, INPUT, CODE
+    }
+
+    private final Stage rejectedAt;
+    private final String reason;
+    private final String sanitizedCode;
+
+    private ValidationVerdict(Stage rejectedAt, String reason, String sanitizedCode) {
+        this.rejectedAt = rejectedAt;
+        this.reason = reason;
+        this.sanitizedCode = sanitizedCode;
+    }
+
+    public static ValidationVerdict accepted(String sanitizedCode) {
+        return new ValidationVerdict(null, null, sanitizedCode);
+    }
+
+    public static ValidationVerdict rejected(Stage stage, String reason) {
+        return new ValidationVerdict(stage, reason, null);
+    }
+
+    public boolean isAccepted() {
+        return rejectedAt == null;
+    }
+
+    /**
+     * The stage that rejected the request, or {@code null} when it was accepted.
+     */
+    public Stage getRejectedAt() {
+        return rejectedAt;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    /**
+     * The reason prefixed the way it is shown to callers, or {@code null} when the request was accepted.
+     */
+    public String getMessage() {
+        if (rejectedAt == null) {
+            return null;
+        }
+        return switch (rejectedAt) {
+            case LANGUAGE, INPUT -> "Security violation: " + reason;
+            default -> "Execution failed: " + reason;
+        };
+    }
+
+    public String getSanitizedCode() {
+        return sanitizedCode;
+    }
+}
@@ -0,0 +1,153 @@
+package com.compiler.service;
+
+import com.compiler.dto.ExecutionJob;
+import com.compiler.dto.ExecutionLimits;
+import com.compiler.dto.ExecutionResponse;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+@Component
+public class WarmJvmExecutionBackend implements ExecutionBackend {
+
+    public static final String NAME = "warm-jvm";
+
+    private static final long MAX_WORKER_OUTPUT_BYTES = 4L * 1024 * 1024;
+
+    private final InMemoryJavaCompiler compiler;
+    private final WarmJvmWorkerPool workerPool;
+    private final CompiledArtifactCache artifactCache;
+    private final ExecutionPhaseMetrics phaseMetrics;
+    private final OutputSpillStore outputSpillStore;
+    private final ExecutorService executor;
+
+    public WarmJvmExecutionBackend(InMemoryJavaCompiler compiler, WarmJvmWorkerPool workerPool,
+                                   CompiledArtifactCache artifactCache, ExecutionPhaseMetrics phaseMetrics,
+                                   OutputSpillStore outputSpillStore,
+                                   @Value("${execution.warm-jvm.pool-size:2}") int poolSize) {
+        this.compiler = compiler;
+        this.workerPool = workerPool;
+        this.artifactCache = artifactCache;
+        this.phaseMetrics = phaseMetrics;
+        this.outputSpillStore = outputSpillStore;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, poolSize) * 2, runnable -> {
+            Thread thread = new Thread(runnable, "warm-jvm-exec-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean supports(String language) {
+        return "java".equalsIgnoreCase(language) && compiler.isAvailable() && workerPool.isAvailable();
+    }
+
+    @Override
+    public CompletableFuture<ExecutionResponse> execute(ExecutionJob job) {
+        return CompletableFuture.supplyAsync(() -> run(job), executor);
+    }
+
+    private ExecutionResponse run(ExecutionJob job) {
+        ExecutionLimits limits = job.getLimits() != null ? job.getLimits() : new ExecutionLimits();
+
+        String artifactKey = CompiledArtifactCache.key(job.getSourceCode(), "java", compiler.getFlags());
+        long compileStartedAt = System.nanoTime();
+        Optional<Map<String, byte[]>> cached = artifactCache.loadClasses(artifactKey);
+        Map<String, byte[]> classes;
+        if (cached.isPresent()) {
+            classes = cached.get();
+            phaseMetrics.recordCompile(NAME, "java", System.nanoTime() - compileStartedAt, true);
+        } else {
+            InMemoryJavaCompiler.Result compiled = compiler.compile(job.getSourceCode());
+            phaseMetrics.recordCompile(NAME, "java", System.nanoTime() - compileStartedAt, false);
+            if (!compiled.isSuccess()) {
+                ExecutionResponse response = new ExecutionResponse();
+                response.setOutput(compiled.getDiagnostics());
+                response.setStatus("Compilation Error");
+                return response;
+            }
+            classes = compiled.getClasses();
+            artifactCache.storeClasses(artifactKey, classes);
+        }
+
+        try {
+            byte[] stdin = (job.getStdin() != null ? job.getStdin() : "").getBytes(StandardCharsets.UTF_8);
+            long runStartedAt = System.nanoTime();
+            // The worker buffers output in its own heap, so its cap stays below the on-disk spill limit.
+            long workerOutputBytes = Math.min(outputSpillStore.getMaxSpillBytes(), MAX_WORKER_OUTPUT_BYTES);
+            WarmJvmWorkerPool.RunResult result = workerPool.run(compiler.mainClassName(job.getSourceCode()), classes,
+                    stdin, limits.getTimeoutMs(), workerOutputBytes);
+            phaseMetrics.recordRun(NAME, "java", System.nanoTime() - runStartedAt);
+            return outputSpillStore.bound(toExecutionResponse(result, job.getExpectedOutput()),
+                    limits.getMaxOutputBytes());
+        } catch (IOException e) {
+            log.error("Warm JVM execution failed: {}", e.getMessage());
+            return ExecutionResponse.error("Execution failed: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ExecutionResponse.error("Execution interrupted");
+        }
+    }
+
+    private ExecutionResponse toExecutionResponse(WarmJvmWorkerPool.RunResult result, String expectedOutput) {
+        ExecutionResponse response = new ExecutionResponse();
+        response.setOutput(new String(result.getStdout(), StandardCharsets.UTF_8).trim());
+        String stderr = new String(result.getStderr(), StandardCharsets.UTF_8).trim();
+        if (!stderr.isEmpty()) {
+            response.setError(stderr);
+        }
+        response.setExecutionTime(result.getElapsedNanos() / 1_000_000_000.0);
+        response.setMemoryUsed(result.getMemoryBytes() / 1024.0);
+
+        switch (result.getOutcome()) {
+            case WarmJvmWorker.OUTCOME_TIMEOUT -> response.setStatus("Time Limit Exceeded");
+            case WarmJvmWorker.OUTCOME_OUTPUT_LIMIT -> {
+                response.setStatus("Runtime Error (Other)");
+                response.setError("Output limit exceeded");
+            }
+            case WarmJvmWorker.OUTCOME_EXCEPTION, WarmJvmWorker.OUTCOME_LOAD_FAILED ->
+                    response.setStatus("Runtime Error (NZEC)");
+            case WarmJvmWorker.OUTCOME_EXIT -> {
+                if (result.getExitCode() != 0) {
+                    response.setStatus("Runtime Error (NZEC)");
+                } else {
+                    applyVerdict(response, expectedOutput);
+                }
+            }
+            default -> applyVerdict(response, expectedOutput);
+        }
+        return response;
+    }
+
+    private void applyVerdict(ExecutionResponse response, String expectedOutput) {
+        if (expectedOutput != null && !expectedOutput.isEmpty()) {
+            boolean correct = response.getOutput().equals(expectedOutput.trim());
+            response.setIsCorrect(correct);
+            response.setStatus(correct ? "Accepted" : "Wrong Answer");
+        } else {
+            response.setStatus("Accepted");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
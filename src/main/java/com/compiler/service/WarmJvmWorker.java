@@ -0,0 +1,344 @@
+package com.compiler.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilePermission;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.security.CodeSource;
+import java.security.Permission;
+import java.security.Permissions;
+import java.security.ProtectionDomain;
+import java.security.cert.Certificate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PropertyPermission;
+
+/**
+ * Entry point of the pre-started worker JVMs used by {@link WarmJvmExecutionBackend}. Runs in a
+ * separate process with only the JDK on the classpath, so it must not depend on anything else in
+ * this application.
+ */
+public final class WarmJvmWorker {
+
+    static final int READY = 0x57524D31;
+
+    static final int OUTCOME_COMPLETED = 0;
+    static final int OUTCOME_EXCEPTION = 1;
+    static final int OUTCOME_TIMEOUT = 2;
+    static final int OUTCOME_OUTPUT_LIMIT = 3;
+    static final int OUTCOME_EXIT = 4;
+    static final int OUTCOME_LOAD_FAILED = 5;
+
+    static final int EXIT_NO_LOCKDOWN = 78;
+
+    private static final long STACK_SIZE_BYTES = 64L * 1024 * 1024;
+    private static final long POLL_INTERVAL_MS = 5;
+
+    private static volatile ThreadGroup submissions;
+    private static volatile Integer exitStatus;
+
+    private WarmJvmWorker() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        DataInputStream channelIn = new DataInputStream(new BufferedInputStream(new FileInputStream(FileDescriptor.in)));
+        DataOutputStream channelOut = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+        PrintStream diagnostics = new PrintStream(new FileOutputStream(FileDescriptor.err), true);
+
+        try {
+            installLockdown();
+        } catch (UnsupportedOperationException | SecurityException e) {
+            // Never run submissions unconfined: the pool treats this exit status as "backend unavailable".
+            diagnostics.println("Security manager unavailable, refusing to run submissions: " + e.getMessage());
+            Runtime.getRuntime().halt(EXIT_NO_LOCKDOWN);
+        }
+
+        PrintStream discard = new PrintStream(OutputStream.nullOutputStream());
+        System.setOut(discard);
+        System.setErr(discard);
+        System.setIn(InputStream.nullInputStream());
+
+        channelOut.writeInt(READY);
+        channelOut.flush();
+
+        while (true) {
+            String mainClass;
+            try {
+                mainClass = channelIn.readUTF();
+            } catch (EOFException e) {
+                return;
+            }
+            long timeoutMs = channelIn.readLong();
+            long maxOutputBytes = channelIn.readLong();
+            byte[] stdin = readFrame(channelIn);
+            int classCount = channelIn.readInt();
+            Map<String, byte[]> classes = new HashMap<>();
+            for (int i = 0; i < classCount; i++) {
+                classes.put(channelIn.readUTF(), readFrame(channelIn));
+            }
+
+            boolean reusable = run(mainClass, classes, stdin, timeoutMs, maxOutputBytes, channelOut);
+
+            System.setOut(discard);
+            System.setErr(discard);
+            System.setIn(InputStream.nullInputStream());
+
+            if (!reusable) {
+                Runtime.getRuntime().halt(0);
+            }
+        }
+    }
+
+    @SuppressWarnings("removal")
+    private static void installLockdown() {
+        System.setSecurityManager(new Lockdown());
+    }
+
+    private static boolean run(String mainClass, Map<String, byte[]> classes, byte[] stdin, long timeoutMs,
+                               long maxOutputBytes, DataOutputStream channelOut) throws IOException {
+
+        BoundedOutput stdout = new BoundedOutput(maxOutputBytes);
+        BoundedOutput stderr = new BoundedOutput(maxOutputBytes);
+        PrintStream err = new PrintStream(stderr, true, StandardCharsets.UTF_8);
+
+        Method main;
+        try {
+            Class<?> type = new SubmissionLoader(classes).loadClass(mainClass);
+            main = type.getMethod("main", String[].class);
+            if (!Modifier.isStatic(main.getModifiers())) {
+                throw new NoSuchMethodException("main method is not static");
+            }
+            main.setAccessible(true);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            err.println("Error: could not find or load main class " + mainClass);
+            err.println("Caused by: " + e);
+            respond(channelOut, OUTCOME_LOAD_FAILED, 1, 0, 0, stdout, stderr, true);
+            return true;
+        }
+
+        ThreadGroup group = new ThreadGroup("submission");
+        Throwable[] failure = new Throwable[1];
+        Thread thread = new Thread(group, () -> {
+            try {
+                main.invoke(null, (Object) new String[0]);
+            } catch (InvocationTargetException e) {
+                failure[0] = e.getCause();
+            } catch (Throwable e) {
+                failure[0] = e;
+            }
+        }, "main", STACK_SIZE_BYTES);
+
+        exitStatus = null;
+        System.setIn(new ByteArrayInputStream(stdin));
+        System.setOut(new PrintStream(stdout, true, StandardCharsets.UTF_8));
+        System.setErr(err);
+
+        Runtime runtime = Runtime.getRuntime();
+        long usedBefore = runtime.totalMemory() - runtime.freeMemory();
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + timeoutMs * 1_000_000L;
+
+        submissions = group;
+        thread.start();
+
+        int outcome = OUTCOME_COMPLETED;
+        try {
+            while (true) {
+                if (stdout.exceeded || stderr.exceeded) {
+                    outcome = OUTCOME_OUTPUT_LIMIT;
+                    break;
+                }
+                if (exitStatus != null) {
+                    break;
+                }
+                if (!hasLiveNonDaemonThreads(group)) {
+                    break;
+                }
+                if (System.nanoTime() >= deadline) {
+                    outcome = OUTCOME_TIMEOUT;
+                    break;
+                }
+                if (thread.isAlive()) {
+                    thread.join(POLL_INTERVAL_MS);
+                } else {
+                    Thread.sleep(POLL_INTERVAL_MS);
+                }
+            }
+        } catch (InterruptedException e) {
+            outcome = OUTCOME_TIMEOUT;
+        }
+
+        long elapsedNanos = System.nanoTime() - startedAt;
+        long usedAfter = runtime.totalMemory() - runtime.freeMemory();
+        System.out.flush();
+        System.err.flush();
+
+        int exitCode = 0;
+        Integer requestedExit = exitStatus;
+        if (outcome == OUTCOME_COMPLETED && requestedExit != null) {
+            outcome = OUTCOME_EXIT;
+            exitCode = requestedExit;
+        } else if (outcome == OUTCOME_COMPLETED && failure[0] != null) {
+            outcome = OUTCOME_EXCEPTION;
+            exitCode = 1;
+            err.print("Exception in thread \"main\" ");
+            failure[0].printStackTrace(err);
+        }
+
+        boolean reusable = outcome != OUTCOME_TIMEOUT && outcome != OUTCOME_OUTPUT_LIMIT
+                && !(failure[0] instanceof VirtualMachineError)
+                && group.activeCount() == 0;
+        if (reusable) {
+            submissions = null;
+        }
+
+        respond(channelOut, outcome, exitCode, elapsedNanos, Math.max(0, usedAfter - usedBefore), stdout, stderr,
+                reusable);
+        return reusable;
+    }
+
+    private static boolean hasLiveNonDaemonThreads(ThreadGroup group) {
+        Thread[] threads = new Thread[group.activeCount() + 4];
+        int count = group.enumerate(threads, true);
+        for (int i = 0; i < count; i++) {
+            if (threads[i].isAlive() && !threads[i].isDaemon()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void respond(DataOutputStream out, int outcome, int exitCode, long elapsedNanos, long memoryBytes,
+                                BoundedOutput stdout, BoundedOutput stderr, boolean reusable) throws IOException {
+        out.writeInt(outcome);
+        out.writeInt(exitCode);
+        out.writeLong(elapsedNanos);
+        out.writeLong(memoryBytes);
+        writeFrame(out, stdout.toByteArray());
+        writeFrame(out, stderr.toByteArray());
+        out.writeBoolean(reusable);
+        out.flush();
+    }
+
+    private static byte[] readFrame(DataInputStream in) throws IOException {
+        byte[] data = new byte[in.readInt()];
+        in.readFully(data);
+        return data;
+    }
+
+    private static void writeFrame(DataOutputStream out, byte[] data) throws IOException {
+        out.writeInt(data.length);
+        out.write(data);
+    }
+
+    static final class SubmissionLoader extends ClassLoader {
+        private final Map<String, byte[]> classes;
+        private final ProtectionDomain domain;
+
+        SubmissionLoader(Map<String, byte[]> classes) {
+            super("submission", ClassLoader.getPlatformClassLoader());
+            this.classes = classes;
+
+            Permissions permissions = new Permissions();
+            permissions.add(new PropertyPermission("*", "read"));
+            permissions.add(new FilePermission(System.getProperty("java.home") + File.separator + "-", "read"));
+            permissions.add(new RuntimePermission("accessDeclaredMembers"));
+            this.domain = new ProtectionDomain(new CodeSource(null, (Certificate[]) null), permissions);
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            byte[] bytes = classes.get(name);
+            if (bytes == null) {
+                throw new ClassNotFoundException(name);
+            }
+            return defineClass(name, bytes, 0, bytes.length, domain);
+        }
+    }
+
+    static final class BoundedOutput extends OutputStream {
+        private final long limit;
+        private byte[] buffer = new byte[256];
+        private int size;
+        private volatile boolean exceeded;
+
+        BoundedOutput(long limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public synchronized void write(int b) {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public synchronized void write(byte[] bytes, int offset, int length) {
+            int room = (int) Math.min(length, limit - size);
+            if (room < length) {
+                exceeded = true;
+            }
+            if (room <= 0) {
+                return;
+            }
+            if (size + room > buffer.length) {
+                byte[] grown = new byte[Math.max(buffer.length * 2, size + room)];
+                System.arraycopy(buffer, 0, grown, 0, size);
+                buffer = grown;
+            }
+            System.arraycopy(bytes, offset, buffer, size, room);
+            size += room;
+        }
+
+        synchronized byte[] toByteArray() {
+            byte[] copy = new byte[size];
+            System.arraycopy(buffer, 0, copy, 0, size);
+            return copy;
+        }
+    }
+
+    /**
+     * Every check goes to the access controller, whichever thread asks: submission frames on the stack, or the
+     * context a submission thread handed to the threads it started, are what deny a permission.
+     */
+    @SuppressWarnings("removal")
+    static final class Lockdown extends SecurityManager {
+
+        private static final Permission MODIFY_THREAD_GROUP = new RuntimePermission("modifyThreadGroup");
+
+        @Override
+        public void checkExit(int status) {
+            try {
+                super.checkExit(status);
+            } catch (SecurityException e) {
+                exitStatus = status;
+                throw new SecurityException("System.exit(" + status + ")");
+            }
+        }
+
+        @Override
+        public void checkAccess(ThreadGroup target) {
+            super.checkAccess(target);
+            ThreadGroup group = submissions;
+            if (group == null || target == group || group.parentOf(target)) {
+                return;
+            }
+            // Threads a submission starts outside its own group would outlive the run unnoticed.
+            super.checkPermission(MODIFY_THREAD_GROUP);
+        }
+    }
+}
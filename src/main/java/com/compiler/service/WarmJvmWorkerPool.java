@@ -0,0 +1,328 @@
+package com.compiler.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+@Component
+public class WarmJvmWorkerPool {
+
+    private static final long WORKER_HEAP_OVERHEAD_MB = 32;
+    private static final long WATCHDOG_GRACE_MS = 2000;
+    private static final long STARTUP_TIMEOUT_MS = 15000;
+    private static final String POLICY_FILE = "worker.policy";
+
+    private final ResourceLimitService resourceLimitService;
+
+    private final BlockingQueue<Worker> idle = new LinkedBlockingQueue<>();
+    private final AtomicInteger live = new AtomicInteger();
+    private final ScheduledExecutorService supervisor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "warm-jvm-supervisor");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService spawner = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "warm-jvm-spawner");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Path classpathDir;
+    private volatile boolean running;
+
+    @Value("${execution.warm-jvm.enabled:false}")
+    private boolean enabled;
+
+    @Value("${execution.warm-jvm.pool-size:2}")
+    private int poolSize;
+
+    @Value("${execution.warm-jvm.max-runs-per-worker:500}")
+    private int maxRunsPerWorker;
+
+    @Value("${execution.warm-jvm.acquire-timeout-ms:5000}")
+    private long acquireTimeoutMs;
+
+    public WarmJvmWorkerPool(ResourceLimitService resourceLimitService) {
+        this.resourceLimitService = resourceLimitService;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        if (Runtime.version().feature() >= 24) {
+            log.error("Warm JVM backend disabled: JDK {} cannot install the worker security manager",
+                    Runtime.version().feature());
+            return;
+        }
+        try {
+            classpathDir = extractWorkerClasses();
+        } catch (IOException e) {
+            log.error("Failed to prepare warm JVM worker classpath: {}", e.getMessage(), e);
+            return;
+        }
+        running = true;
+        for (int i = 0; i < poolSize; i++) {
+            spawner.execute(this::spawn);
+        }
+        log.info("Starting {} warm JVM workers", poolSize);
+    }
+
+    public boolean isAvailable() {
+        return running && live.get() > 0;
+    }
+
+    public RunResult run(String mainClass, Map<String, byte[]> classes, byte[] stdin, long timeoutMs,
+                         long maxOutputBytes) throws IOException, InterruptedException {
+
+        Worker worker = idle.poll(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        if (worker == null) {
+            throw new IOException("No warm JVM worker became available within " + acquireTimeoutMs + " ms");
+        }
+
+        ScheduledFuture<?> watchdog = supervisor.schedule(() -> worker.process.destroyForcibly(),
+                timeoutMs + WATCHDOG_GRACE_MS, TimeUnit.MILLISECONDS);
+        boolean healthy = false;
+        try {
+            DataOutputStream out = worker.out;
+            out.writeUTF(mainClass);
+            out.writeLong(timeoutMs);
+            out.writeLong(maxOutputBytes);
+            out.writeInt(stdin.length);
+            out.write(stdin);
+            out.writeInt(classes.size());
+            for (Map.Entry<String, byte[]> entry : classes.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeInt(entry.getValue().length);
+                out.write(entry.getValue());
+            }
+            out.flush();
+
+            DataInputStream in = worker.in;
+            RunResult result = new RunResult();
+            result.outcome = in.readInt();
+            result.exitCode = in.readInt();
+            result.elapsedNanos = in.readLong();
+            result.memoryBytes = in.readLong();
+            result.stdout = readFrame(in);
+            result.stderr = readFrame(in);
+            healthy = in.readBoolean();
+            return result;
+        } finally {
+            watchdog.cancel(false);
+            release(worker, healthy);
+        }
+    }
+
+    private void release(Worker worker, boolean healthy) {
+        worker.runs++;
+        if (healthy && running && worker.runs < maxRunsPerWorker) {
+            idle.offer(worker);
+            return;
+        }
+        retire(worker);
+        if (running) {
+            spawner.execute(this::spawn);
+        }
+    }
+
+    private void spawn() {
+        if (!running) {
+            return;
+        }
+        Process process = null;
+        try {
+            process = new ProcessBuilder(workerCommand())
+                    .directory(classpathDir.toFile())
+                    .redirectError(ProcessBuilder.Redirect.INHERIT)
+                    .start();
+            Worker worker = new Worker(process);
+
+            Process started = process;
+            ScheduledFuture<?> startupGuard = supervisor.schedule(() -> started.destroyForcibly(),
+                    STARTUP_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            int ready = worker.in.readInt();
+            startupGuard.cancel(false);
+            if (ready != WarmJvmWorker.READY) {
+                throw new IOException("Unexpected handshake from warm JVM worker: " + ready);
+            }
+
+            live.incrementAndGet();
+            idle.offer(worker);
+            log.debug("Warm JVM worker {} ready", process.pid());
+        } catch (IOException e) {
+            if (process != null && exitedWithoutLockdown(process)) {
+                running = false;
+                log.error("Warm JVM backend disabled: worker {} could not install its security manager",
+                        process.pid());
+                return;
+            }
+            log.error("Failed to start warm JVM worker: {}", e.getMessage());
+            if (process != null) {
+                process.destroyForcibly();
+            }
+            if (running) {
+                supervisor.schedule(() -> spawner.execute(this::spawn), 5, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    private static boolean exitedWithoutLockdown(Process process) {
+        try {
+            return process.waitFor(1, TimeUnit.SECONDS) && process.exitValue() == WarmJvmWorker.EXIT_NO_LOCKDOWN;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void retire(Worker worker) {
+        live.decrementAndGet();
+        worker.process.destroyForcibly();
+    }
+
+    private List<String> workerCommand() {
+        long heapMb = resourceLimitService.getDefaultLimits().getMaxMemoryMb() + WORKER_HEAP_OVERHEAD_MB;
+        int feature = Runtime.version().feature();
+
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-Xmx" + heapMb + "m");
+        command.add("-Xms" + heapMb + "m");
+        command.add("-XX:+UseSerialGC");
+        command.add("-XX:TieredStopAtLevel=1");
+        command.add("-XX:-UsePerfData");
+        command.add("-Xshare:auto");
+        command.add("-Dfile.encoding=UTF-8");
+        if (feature < 24) {
+            if (feature >= 18) {
+                command.add("-Djava.security.manager=allow");
+            }
+            command.add("-Djava.security.policy=" + classpathDir.resolve(POLICY_FILE));
+        }
+        command.add("-cp");
+        command.add(classpathDir.toString());
+        command.add(WarmJvmWorker.class.getName());
+        return command;
+    }
+
+    private Path extractWorkerClasses() throws IOException {
+        Path dir = Files.createTempDirectory("warm-jvm-worker");
+        List<Class<?>> types = new ArrayList<>();
+        types.add(WarmJvmWorker.class);
+        types.addAll(List.of(WarmJvmWorker.class.getDeclaredClasses()));
+
+        for (Class<?> type : types) {
+            String resource = type.getName().replace('.', '/') + ".class";
+            try (InputStream in = WarmJvmWorker.class.getClassLoader().getResourceAsStream(resource)) {
+                if (in == null) {
+                    throw new IOException("Worker class not found on classpath: " + resource);
+                }
+                Path target = dir.resolve(resource);
+                Files.createDirectories(target.getParent());
+                Files.copy(in, target);
+            }
+        }
+
+        // The worker itself is fully trusted; submissions run in a domain defined by the worker.
+        Files.writeString(dir.resolve(POLICY_FILE), "grant codeBase \"" + dir.toUri() + "-\" {\n"
+                + "    permission java.security.AllPermission;\n};\n");
+        return dir;
+    }
+
+    private byte[] readFrame(DataInputStream in) throws IOException {
+        byte[] data = new byte[in.readInt()];
+        in.readFully(data);
+        return data;
+    }
+
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    public int getLiveCount() {
+        return live.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        supervisor.shutdownNow();
+        spawner.shutdownNow();
+        Worker worker;
+        while ((worker = idle.poll()) != null) {
+            worker.process.destroyForcibly();
+        }
+    }
+
+    public static final class RunResult {
+        private int outcome;
+        private int exitCode;
+        private long elapsedNanos;
+        private long memoryBytes;
+        private byte[] stdout;
+        private byte[] stderr;
+
+        public int getOutcome() {
+            return outcome;
+        }
+
+        public int getExitCode() {
+            return exitCode;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public long getMemoryBytes() {
+            return memoryBytes;
+        }
+
+        public byte[] getStdout() {
+            return stdout;
+        }
+
+        public byte[] getStderr() {
+            return stderr;
+        }
+    }
+
+    private static final class Worker {
+        private final Process process;
+        private final DataInputStream in;
+        private final DataOutputStream out;
+        private int runs;
+
+        private Worker(Process process) {
+            this.process = process;
+            this.in = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+            this.out = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+        }
+    }
+}
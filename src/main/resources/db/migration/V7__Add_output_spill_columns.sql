@@ -0,0 +1,4 @@
+ALTER TABLE code_submissions
+    ADD COLUMN output_truncated BOOLEAN DEFAULT FALSE,
+    ADD COLUMN output_size BIGINT,
+    ADD COLUMN output_blob VARCHAR(64);
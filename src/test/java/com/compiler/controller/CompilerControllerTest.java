@@ -1,24 +1,41 @@
 package com.compiler.controller;
 
+import com.compiler.config.SecurityConfig;
 import com.compiler.dto.ExecutionRequest;
 import com.compiler.dto.ExecutionResponse;
+import com.compiler.dto.ExecutionTicket;
+import com.compiler.exception.ExecutionRejectedException;
+import com.compiler.security.JwtUtil;
+import com.compiler.service.ExecutionStreamService;
 import com.compiler.service.Judge0Service;
+import com.compiler.service.SubmissionHistoryService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(CompilerController.class)
+@Import(SecurityConfig.class)
 class CompilerControllerTest {
 
     @Autowired
@@ -27,6 +44,18 @@ class CompilerControllerTest {
     @MockitoBean
     private Judge0Service judge0Service;
 
+    @MockitoBean
+    private SubmissionHistoryService submissionHistoryService;
+
+    @MockitoBean
+    private ExecutionStreamService executionStreamService;
+
+    @MockitoBean
+    private JwtUtil jwtUtil;
+
+    @MockitoBean
+    private UserDetailsService userDetailsService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -41,16 +70,113 @@ class CompilerControllerTest {
         response.setOutput("hello");
         response.setStatus("Accepted");
 
-        when(judge0Service.executeCode(any(ExecutionRequest.class), any())).thenReturn(response);
+        when(judge0Service.executeCodeAsync(any(ExecutionRequest.class), any()))
+                .thenReturn(CompletableFuture.completedFuture(response));
 
-        mockMvc.perform(post("/api/compile/execute")
+        MvcResult asyncResult = mockMvc.perform(post("/api/compile/execute")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(asyncResult))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.output").value("hello"))
                 .andExpect(jsonPath("$.status").value("Accepted"));
     }
 
+    @Test
+    void testSubmitCode_ReturnsToken() throws Exception {
+
+        ExecutionRequest request = new ExecutionRequest();
+        request.setCode("print('hello')");
+        request.setLanguage("python");
+
+        when(judge0Service.submitExecution(any(ExecutionRequest.class), any()))
+                .thenReturn(ExecutionTicket.pending("token-1"));
+
+        mockMvc.perform(post("/api/compile/submit")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.token").value("token-1"))
+                .andExpect(jsonPath("$.status").value("PENDING"));
+    }
+
+    @Test
+    void testExecuteCode_QueueFullReturnsRetryAfter() throws Exception {
+
+        ExecutionRequest request = new ExecutionRequest();
+        request.setCode("print('hello')");
+        request.setLanguage("python");
+
+        when(judge0Service.executeCodeAsync(any(ExecutionRequest.class), any()))
+                .thenThrow(new ExecutionRejectedException("Execution queue is full, please retry later", false, 3));
+
+        mockMvc.perform(post("/api/compile/execute")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "3"));
+    }
+
+    @Test
+    void testExecuteCode_PreemptedWhileQueuedReturnsRetryAfter() throws Exception {
+
+        ExecutionRequest request = new ExecutionRequest();
+        request.setCode("print('hello')");
+        request.setLanguage("python");
+
+        when(judge0Service.executeCodeAsync(any(ExecutionRequest.class), any()))
+                .thenReturn(CompletableFuture.failedFuture(new ExecutionRejectedException(
+                        "Execution was preempted by higher-priority work, please retry later", false, 2)));
+
+        MvcResult asyncResult = mockMvc.perform(post("/api/compile/execute")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.message").value("Execution was preempted by higher-priority work, please retry later"));
+    }
+
+    @Test
+    void testExecuteCode_ResolvesOptionalBearerToken() throws Exception {
+
+        ExecutionRequest request = new ExecutionRequest();
+        request.setCode("print('hello')");
+        request.setLanguage("python");
+
+        UserDetails alice = User.withUsername("alice").password("x").roles("USER").build();
+        when(jwtUtil.extractUsername("good-token")).thenReturn("alice");
+        when(userDetailsService.loadUserByUsername("alice")).thenReturn(alice);
+        when(jwtUtil.validateToken("good-token", alice)).thenReturn(true);
+        AtomicReference<String> caller = new AtomicReference<>();
+        when(judge0Service.executeCodeAsync(any(ExecutionRequest.class), any())).thenAnswer(invocation -> {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            caller.set(authentication != null ? authentication.getName() : null);
+            return CompletableFuture.completedFuture(new ExecutionResponse());
+        });
+
+        mockMvc.perform(post("/api/compile/execute")
+                        .header("Authorization", "Bearer good-token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted());
+        assertEquals("alice", caller.get());
+
+        when(jwtUtil.extractUsername("bad-token")).thenThrow(new IllegalArgumentException("malformed"));
+        mockMvc.perform(post("/api/compile/execute")
+                        .header("Authorization", "Bearer bad-token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted());
+        assertEquals("anonymousUser", caller.get());
+    }
+
     @Test
     void testGetSupportedLanguages() throws Exception {
         Map<String, String> languages = Map.of(
@@ -0,0 +1,84 @@
+package com.compiler.controller;
+
+import com.compiler.config.SecurityConfig;
+import com.compiler.entity.CodeSubmission;
+import com.compiler.entity.User;
+import com.compiler.security.JwtUtil;
+import com.compiler.service.SubmissionHistoryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(SubmissionController.class)
+@Import(SecurityConfig.class)
+class SubmissionControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private SubmissionHistoryService submissionHistoryService;
+
+    @MockitoBean
+    private JwtUtil jwtUtil;
+
+    @MockitoBean
+    private UserDetailsService userDetailsService;
+
+    @BeforeEach
+    void setUp() {
+        User owner = new User();
+        owner.setUsername("alice");
+        CodeSubmission submission = new CodeSubmission();
+        submission.setUser(owner);
+        submission.setOutputSize(5L);
+
+        when(submissionHistoryService.getSubmissionById(1L)).thenReturn(Optional.of(submission));
+        when(submissionHistoryService.readOutput(any(), anyLong(), anyInt()))
+                .thenReturn(Optional.of("hello".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void testGetSubmissionOutput_RequiresAuthentication() throws Exception {
+        mockMvc.perform(get("/api/submissions/1/output"))
+                .andExpect(status().isForbidden());
+
+        verify(submissionHistoryService, never()).readOutput(any(), anyLong(), anyInt());
+    }
+
+    @Test
+    void testGetSubmissionOutput_RejectsOtherUsers() throws Exception {
+        mockMvc.perform(get("/api/submissions/1/output").with(user("mallory").roles("USER")))
+                .andExpect(status().isForbidden());
+
+        verify(submissionHistoryService, never()).readOutput(any(), anyLong(), anyInt());
+    }
+
+    @Test
+    void testGetSubmissionOutput_ServesOwnerAndAdmin() throws Exception {
+        mockMvc.perform(get("/api/submissions/1/output").with(user("alice").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(content().string("hello"));
+
+        mockMvc.perform(get("/api/submissions/1/output").with(user("root").roles("ADMIN")))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,76 @@
+package com.compiler.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeywordMatcherTest {
+
+    private static final List<String> KEYWORDS = List.of(
+            "exec(", "Runtime.getRuntime()", "ProcessBuilder", "fs.", "process.", "eval(", "System.exit", "exec(",
+            "he", "she", "his", "hers"
+    );
+
+    @Test
+    void reportsFirstListedKeywordLikeSequentialContains() {
+        KeywordMatcher matcher = KeywordMatcher.compile(KEYWORDS);
+        Random random = new Random(7);
+        String alphabet = "execEXEC(RuntimgtPrcsBuildrfs.pvalySxhi  \n";
+
+        for (int run = 0; run < 20_000; run++) {
+            StringBuilder text = new StringBuilder();
+            int length = random.nextInt(40);
+            for (int i = 0; i < length; i++) {
+                text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            if (random.nextInt(4) == 0) {
+                text.insert(random.nextInt(text.length() + 1), KEYWORDS.get(random.nextInt(KEYWORDS.size())));
+            }
+
+            String lower = text.toString().toLowerCase(Locale.ROOT);
+            int expected = -1;
+            List<String> expectedAll = new ArrayList<>();
+            for (int k = 0; k < KEYWORDS.size(); k++) {
+                if (lower.contains(KEYWORDS.get(k).toLowerCase(Locale.ROOT))) {
+                    expected = expected < 0 ? k : expected;
+                    if (!expectedAll.contains(KEYWORDS.get(k))) {
+                        expectedAll.add(KEYWORDS.get(k));
+                    }
+                }
+            }
+
+            assertThat(matcher.firstMatch(text)).as("text %s", text).isEqualTo(expected);
+            assertThat(matcher.allMatches(text)).as("text %s", text).containsExactlyElementsOf(expectedAll);
+        }
+    }
+
+    @Test
+    void lowercasesLikeString() {
+        KeywordMatcher matcher = KeywordMatcher.compile(List.of("kill", "import os"));
+
+        assertThat(matcher.firstMatch("Kill")).isEqualTo(0);
+        assertThat(matcher.firstMatch("İMPORT OS")).isEqualTo(-1);
+        assertThat(matcher.firstMatch("IMPORT OS")).isEqualTo(1);
+    }
+
+    @Test
+    void sanitizerKeepsItsViolationMessages() {
+        CodeSanitizer sanitizer = new CodeSanitizer();
+
+        assertThatThrownBy(() -> sanitizer.sanitizeCode("x = eval('1') + open('f')", "python"))
+                .hasMessage("Dangerous Python operation detected: eval(");
+        assertThatThrownBy(() -> sanitizer.sanitizeCode("console.log(1); while(true) {}", "javascript"))
+                .hasMessage("Dangerous operation detected: while(true)");
+        assertThatThrownBy(() -> sanitizer.sanitizeCode("class A { void f() { while(1) {} } }", "java"))
+                .hasMessage("Potential infinite loop detected");
+        assertThatThrownBy(() -> sanitizer.validateInput("use java.NIO.file please"))
+                .hasMessage("Dangerous pattern detected in Input: java.nio.file");
+        assertThat(sanitizer.sanitizeCode("print('hello')", "python")).isEqualTo("print('hello')");
+    }
+}
@@ -0,0 +1,72 @@
+package com.compiler.security;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SanitizerRuleSetTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void bundledRulesMatchAndCountHits() {
+        CodeSanitizer sanitizer = new CodeSanitizer();
+
+        assertThat(sanitizer.isCodeSafe("import os\nos.system('id')", "python")).isFalse();
+        assertThat(sanitizer.isCodeSafe("while(true) {}", "java")).isFalse();
+
+        SanitizerRuleSet rules = sanitizer.getRules();
+        assertThat(rules.getVersion()).isEqualTo(1);
+        assertThat(rules.getHitCounts().get("python")).containsEntry("import os", 1L).containsEntry("eval(", 0L);
+        assertThat(rules.getHitCounts().get("common")).containsEntry("while(true)", 1L);
+    }
+
+    @Test
+    void reloadSwapsInTheNewVersion() throws IOException {
+        Path file = dir.resolve("rules.json");
+        Files.writeString(file, bundled().replace("\"version\": 1", "\"version\": 2")
+                .replace("\"runtime.\"", "\"runtime.\", \"unsafe.Pointer\""));
+        CodeSanitizer sanitizer = new CodeSanitizer();
+        String before = sanitizer.getRuleSetVersion();
+        assertThat(sanitizer.isCodeSafe("p := unsafe.Pointer(&x)", "go")).isTrue();
+
+        ReflectionTestUtils.setField(sanitizer, "rulesFile", file.toString());
+        SanitizerRuleSet reloaded = sanitizer.reloadRules();
+
+        assertThat(reloaded.getVersion()).isEqualTo(2);
+        assertThat(sanitizer.getRuleSetVersion()).isNotEqualTo(before).startsWith("v2-");
+        assertThatThrownBy(() -> sanitizer.sanitizeCode("p := unsafe.Pointer(&x)", "go"))
+                .hasMessage("Dangerous Go operation detected: unsafe.Pointer");
+    }
+
+    @Test
+    void invalidFileLeavesCurrentRulesInPlace() throws IOException {
+        Path file = dir.resolve("rules.json");
+        Files.writeString(file, bundled().replace("\"go\": {", "\"golang\": {"));
+        CodeSanitizer sanitizer = new CodeSanitizer();
+        SanitizerRuleSet active = sanitizer.getRules();
+
+        ReflectionTestUtils.setField(sanitizer, "rulesFile", file.toString());
+
+        assertThatThrownBy(sanitizer::reloadRules)
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("missing rules or label for go");
+        assertThat(sanitizer.getRules()).isSameAs(active);
+    }
+
+    private static String bundled() throws IOException {
+        try (InputStream in = SanitizerRuleSetTest.class.getResourceAsStream("/security/sanitizer-rules.json")) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.compiler.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SourceLexerTest {
+
+    private final CodeSanitizer sanitizer = new CodeSanitizer();
+
+    @Test
+    void blanksCommentsAndLiteralBodiesButKeepsLayout() {
+        String java = "// run bash\nString s = \"eval(x)\"; /* exec( */ char c = '\"';\nint x = 1;";
+
+        SourceLexer.Views views = SourceLexer.scan(java, "java");
+
+        assertThat(views.code()).hasSameSizeAs(java);
+        assertThat(views.code()).doesNotContain("bash", "eval(", "exec(").contains("\nint x = 1;");
+        assertThat(views.text()).doesNotContain("bash", "exec(").contains("\"eval(x)\"");
+    }
+
+    @Test
+    void keepsLiteralsThatLoadCode() {
+        assertThat(SourceLexer.scan("const cp = require('child_process');", "javascript").code())
+                .contains("require('child_process')");
+        assertThat(SourceLexer.scan("import (\n    \"fmt\"\n    \"os/exec\"\n)\nvar s = \"x\"", "go").code())
+                .contains("\"os/exec\"").contains("\" \"");
+        assertThat(SourceLexer.scan("#include \"unistd.h\"\nint n = 1'000'000; char *s = \"fork(\";", "cpp").code())
+                .contains("#include \"unistd.h\"").contains("1'000'000").doesNotContain("fork(");
+        assertThat(SourceLexer.scan("x = f\"{eval('1')}\" + r'eval('", "python").code())
+                .contains("f\"{eval('1')}\"").doesNotContain("r'eval('");
+        assertThat(SourceLexer.scan("const r = /'/; const t = `${process.pid}`;", "javascript").code())
+                .contains("`${process.pid}`");
+    }
+
+    @Test
+    void acceptsDangerousWordsInCommentsAndStrings() {
+        assertThat(sanitizer.isCodeSafe("# calls bash, then eval(\nprint('do not eval( this')", "python")).isTrue();
+        assertThat(sanitizer.isCodeSafe("public class Main {\n    // no System.exit here\n"
+                + "    public static void main(String[] a) { System.out.println(\"eval( and exec(\"); }\n}", "java"))
+                .isTrue();
+        assertThat(sanitizer.isCodeSafe("console.log('fs.readFileSync is off limits');", "javascript")).isTrue();
+    }
+
+    @Test
+    void stillRejectsNamesAndCodeHiddenInLiterals() {
+        assertThatThrownBy(() -> sanitizer.sanitizeCode(
+                "public class Main { public static void main(String[] a) throws Exception { "
+                        + "Class.forName(\"java.lang.Runtime\"); } }", "java"))
+                .hasMessage("Dangerous operation detected: java.lang.Runtime");
+        assertThatThrownBy(() -> sanitizer.sanitizeCode("const fs = require('fs');", "javascript"))
+                .hasMessage("Dangerous JavaScript operation detected: require('fs')");
+        assertThatThrownBy(() -> sanitizer.sanitizeCode("package main\nimport \"net/http\"\nfunc main() {}", "go"))
+                .hasMessage("Dangerous Go operation detected: net/http");
+        assertThatThrownBy(() -> sanitizer.sanitizeCode("print(f\"{eval('1')}\")", "python"))
+                .hasMessage("Dangerous Python operation detected: eval(");
+        assertThatThrownBy(() -> sanitizer.sanitizeCode("const o = {}; o['__proto__'].x = 1;", "javascript"))
+                .hasMessage("Potential prototype pollution attack detected");
+    }
+}
@@ -0,0 +1,66 @@
+package com.compiler.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CodeFormatServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private CodeFormatService formatService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        formatService = new CodeFormatService(meterRegistry);
+    }
+
+    @Test
+    void matchesPreviousLayoutOutsideLiterals() {
+        Random random = new Random(11);
+        String alphabet = "ab {};\n\t(";
+        for (int run = 0; run < 5_000; run++) {
+            StringBuilder code = new StringBuilder("x");
+            for (int i = random.nextInt(30); i > 0; i--) {
+                code.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            String previous = code.toString().trim()
+                    .replaceAll("\\s+", " ")
+                    .replaceAll("\\s*\\{\\s*", " { ")
+                    .replaceAll("\\s*\\}\\s*", " } ")
+                    .replaceAll("\\s*;\\s*", "; ")
+                    .trim()
+                    .replaceAll(" +", " ");
+
+            assertEquals(previous, formatService.formatCode(code.toString(), "java"), code.toString());
+        }
+    }
+
+    @Test
+    void keepsLiteralsAndLineCommentsIntact() {
+        String java = "public class A{\n    String s = \"a   b { ;\";  // keep  this\n    char c = '}';\n"
+                + "    String t = \"\"\"\n      x  {  y\n    \"\"\";\n}";
+
+        assertEquals("public class A { String s = \"a   b { ;\"; // keep  this\n"
+                        + "char c = '}'; String t = \"\"\"\n      x  {  y\n    \"\"\"; }",
+                formatService.formatCode(java, "java"));
+
+        assertEquals("const s = `a  ${b}  c`; /* x  y */ f('  ;  ');",
+                formatService.formatCode("const s = `a  ${b}  c`;\n/* x  y */ f('  ;  ');\n", "JavaScript"));
+    }
+
+    @Test
+    void resubmittedSourceIsServedFromCache() {
+        String first = formatService.formatCode("class A {  }", "java");
+        String second = formatService.formatCode(new String("class A {  }"), "java");
+
+        assertSame(first, second);
+        assertEquals(1.0, meterRegistry.get("execution.format.cache.requests").tag("result", "hit").counter().count());
+        assertEquals("print(1)", formatService.formatCode("  print(1)\n", "python"));
+    }
+}
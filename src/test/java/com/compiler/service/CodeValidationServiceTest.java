@@ -0,0 +1,93 @@
+package com.compiler.service;
+
+import com.compiler.dto.ExecutionRequest;
+import com.compiler.security.CodeSanitizer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CodeValidationServiceTest {
+
+    @Mock
+    private RateLimitService rateLimitService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private CodeValidationService validationService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        CodeSanitizer sanitizer = new CodeSanitizer();
+        validationService = new CodeValidationService(sanitizer, rateLimitService, new ResourceLimitService(),
+                new SanitizerVerdictCache(sanitizer, meterRegistry), meterRegistry);
+    }
+
+    @Test
+    void acceptedRequestCarriesSanitizedCode() {
+        when(rateLimitService.isAllowed("client")).thenReturn(true);
+
+        ValidationVerdict verdict = validationService.evaluate(request("print(1)", "python", "3"), "client");
+
+        assertTrue(verdict.isAccepted());
+        assertNull(verdict.getRejectedAt());
+        assertEquals("print(1)", verdict.getSanitizedCode());
+        assertEquals(1, meterRegistry.get("validation.stage.duration")
+                .tag("stage", "code").tag("outcome", "pass").timer().count());
+    }
+
+    @Test
+    void cheapChecksRejectBeforeTheRateLimiterIsCharged() {
+        ValidationVerdict oversized = validationService.evaluate(request("x".repeat(200 * 1024), "python", null), "client");
+        ValidationVerdict unsupported = validationService.evaluate(request("print(1)", "cobol", null), "client");
+
+        assertEquals(ValidationVerdict.Stage.SIZE, oversized.getRejectedAt());
+        assertEquals(ValidationVerdict.Stage.LANGUAGE, unsupported.getRejectedAt());
+        assertTrue(unsupported.getReason().startsWith("Unsupported language: cobol"));
+        verify(rateLimitService, never()).isAllowed(anyString());
+    }
+
+    @Test
+    void rateLimitedRequestIsNotScanned() {
+        when(rateLimitService.isAllowed("client")).thenReturn(false);
+
+        ValidationVerdict verdict = validationService.evaluate(request("import os", "python", "rm -rf /"), "client");
+
+        assertEquals(ValidationVerdict.Stage.RATE, verdict.getRejectedAt());
+        assertEquals(0, meterRegistry.get("validation.stage.duration").tag("stage", "input").timers().stream()
+                .mapToLong(timer -> timer.count()).sum());
+    }
+
+    @Test
+    void dangerousInputAndCodeAreRejectedWithoutThrowing() {
+        when(rateLimitService.isAllowed("client")).thenReturn(true);
+
+        ValidationVerdict input = validationService.evaluate(request("print(1)", "python", "ScriptEngine"), "client");
+        ValidationVerdict code = validationService.evaluate(request("import os\nos.system('id')", "python", null), "client");
+
+        assertEquals(ValidationVerdict.Stage.INPUT, input.getRejectedAt());
+        assertTrue(input.getReason().startsWith("Dangerous pattern detected in Input"));
+        assertEquals(ValidationVerdict.Stage.CODE, code.getRejectedAt());
+        assertEquals("Code contains potentially dangerous operations.", code.getReason());
+        assertEquals(1, meterRegistry.get("validation.stage.duration")
+                .tag("stage", "code").tag("outcome", "reject").timer().count());
+    }
+
+    private static ExecutionRequest request(String code, String language, String input) {
+        ExecutionRequest request = new ExecutionRequest();
+        request.setCode(code);
+        request.setLanguage(language);
+        request.setInput(input);
+        return request;
+    }
+}
@@ -0,0 +1,60 @@
+package com.compiler.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledArtifactCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private CompiledArtifactCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CompiledArtifactCache(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "directory", tempDir.resolve("cache").toString());
+        ReflectionTestUtils.setField(cache, "maxBytes", 2500L);
+        cache.init();
+    }
+
+    @Test
+    void testRestore_CopiesStoredArtifactIntoRunDirectory() throws IOException {
+        Path build = Files.createDirectories(tempDir.resolve("build"));
+        Files.write(build.resolve("main"), new byte[100]);
+        String key = CompiledArtifactCache.key("int main(){}", "c", List.of("gcc", "-O2"));
+
+        cache.store(key, build, List.of("main"));
+
+        Path run = Files.createDirectories(tempDir.resolve("run"));
+        assertTrue(cache.restore(key, run));
+        assertEquals(100, Files.size(run.resolve("main")));
+        assertFalse(cache.restore(CompiledArtifactCache.key("int main(){}", "c", List.of("gcc", "-O0")), run));
+    }
+
+    @Test
+    void testStoreClasses_EvictsLeastRecentlyUsedBeyondMaxBytes() {
+        cache.storeClasses("first", Map.of("Main", new byte[1000]));
+        cache.storeClasses("second", Map.of("Main", new byte[1000]));
+        assertTrue(cache.loadClasses("first").isPresent());
+
+        cache.storeClasses("third", Map.of("Main", new byte[1000]));
+
+        assertTrue(cache.getTotalBytes() <= 2500);
+        assertTrue(cache.loadClasses("first").isPresent());
+        assertTrue(cache.loadClasses("second").isEmpty());
+        assertFalse(Files.exists(tempDir.resolve("cache").resolve("second")));
+    }
+}
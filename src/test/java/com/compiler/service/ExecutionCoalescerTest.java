@@ -0,0 +1,59 @@
+package com.compiler.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExecutionCoalescerTest {
+
+    private ExecutionCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        coalescer = new ExecutionCoalescer(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(coalescer, "enabled", true);
+        ReflectionTestUtils.setField(coalescer, "maxWaitMs", 5000L);
+    }
+
+    @Test
+    void testExecute_FollowersShareLeaderCall() {
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+
+        CompletableFuture<String> leader = coalescer.execute("key", () -> {
+            calls.incrementAndGet();
+            return upstream;
+        });
+        CompletableFuture<String> follower = coalescer.execute("key", () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture("duplicate");
+        });
+
+        upstream.complete("result");
+
+        assertEquals("result", leader.join());
+        assertEquals("result", follower.join());
+        assertEquals(1, calls.get());
+        assertEquals(0, coalescer.getInFlightCount());
+    }
+
+    @Test
+    void testExecute_FollowerSurvivesLeaderFailure() {
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+
+        CompletableFuture<String> leader = coalescer.execute("key", () -> upstream);
+        CompletableFuture<String> follower = coalescer.execute("key",
+                () -> CompletableFuture.completedFuture("retried"));
+
+        upstream.completeExceptionally(new IllegalStateException("Judge0 unavailable"));
+
+        assertTrue(leader.isCompletedExceptionally());
+        assertEquals("retried", follower.join());
+    }
+}
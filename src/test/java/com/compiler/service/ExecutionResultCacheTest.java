@@ -0,0 +1,80 @@
+package com.compiler.service;
+
+import com.compiler.dto.ExecutionResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+class ExecutionResultCacheTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ExecutionResultCache cache;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        lenient().when(valueOperations.get(anyString())).thenReturn(null);
+
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ExecutionResultCache(redisTemplate, new ObjectMapper(), meterRegistry);
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maxLocalWeightBytes", 1500L);
+        ReflectionTestUtils.setField(cache, "defaultTtlSeconds", 600L);
+    }
+
+    @Test
+    void testGet_ReturnsLocalHitWithoutRedis() {
+        cache.put("abc", "python", response("hello", "Accepted"));
+
+        ExecutionResponse cached = cache.get("abc").orElseThrow();
+
+        assertEquals("hello", cached.getOutput());
+        assertEquals(1.0, meterRegistry.get("execution.cache.requests")
+                .tag("tier", "local").counter().count());
+    }
+
+    @Test
+    void testPut_EvictsLeastRecentlyUsedBeyondWeight() {
+        cache.put("first", "python", response("a".repeat(200), "Accepted"));
+        cache.put("second", "python", response("b".repeat(200), "Accepted"));
+        cache.get("first");
+        cache.put("third", "python", response("c".repeat(200), "Accepted"));
+
+        assertTrue(cache.getLocalWeightBytes() <= 1500);
+        assertTrue(cache.get("first").isPresent());
+        assertTrue(cache.get("second").isEmpty());
+    }
+
+    @Test
+    void testPut_SkipsErrorResponses() {
+        cache.put("abc", "python", ExecutionResponse.error("Rate limit exceeded. Please try again later."));
+
+        assertEquals(0, cache.getLocalSize());
+    }
+
+    private ExecutionResponse response(String output, String status) {
+        ExecutionResponse response = new ExecutionResponse();
+        response.setOutput(output);
+        response.setStatus(status);
+        return response;
+    }
+}
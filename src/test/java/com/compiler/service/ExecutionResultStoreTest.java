@@ -0,0 +1,65 @@
+package com.compiler.service;
+
+import com.compiler.dto.ExecutionResponse;
+import com.compiler.dto.ExecutionTicket;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ExecutionResultStoreTest {
+
+    private final Map<String, String> redis = new HashMap<>();
+    private ExecutionResultStore store;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        ValueOperations<String, String> values = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        doAnswer(invocation -> redis.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(values).set(anyString(), anyString(), any(Duration.class));
+        when(values.get(anyString())).thenAnswer(invocation -> redis.get(invocation.<String>getArgument(0)));
+        store = new ExecutionResultStore(redisTemplate, new ObjectMapper());
+    }
+
+    @Test
+    void testFind_OnlyOwnerSeesAUserBoundToken() {
+        store.register("t-1", "alice");
+
+        assertTrue(store.find("t-1", "alice").isPresent());
+        assertTrue(store.find("t-1", "bob").isEmpty());
+        assertTrue(store.find("t-1", null).isEmpty());
+        assertTrue(store.await("t-1", "bob").isEmpty());
+
+        store.complete("t-1", "alice", ExecutionResponse.error("boom"));
+
+        ExecutionTicket ticket = store.find("t-1", "alice").orElseThrow();
+        assertTrue(ticket.isCompleted());
+        assertEquals("boom", ticket.getResult().getError());
+        assertTrue(store.find("t-1", "bob").isEmpty());
+        assertTrue(store.await("t-1", "bob").isEmpty());
+    }
+
+    @Test
+    void testFind_AnonymousTokenIsABearerSecret() {
+        store.register("t-2", null);
+        store.complete("t-2", null, ExecutionResponse.error("boom"));
+
+        assertTrue(store.find("t-2", null).isPresent());
+        assertTrue(store.find("t-2", "bob").isPresent());
+    }
+}
@@ -0,0 +1,145 @@
+package com.compiler.service;
+
+import com.compiler.exception.ExecutionRejectedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExecutionSchedulerTest {
+
+    private ExecutionScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new ExecutionScheduler(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(scheduler, "maxConcurrency", 1);
+        ReflectionTestUtils.setField(scheduler, "maxQueue", 4);
+        ReflectionTestUtils.setField(scheduler, "maxQueuePerClient", 3);
+        ReflectionTestUtils.setField(scheduler, "quantum", 1L);
+        ReflectionTestUtils.setField(scheduler, "maxQueueWaitMs", 30000L);
+    }
+
+    @Test
+    void testSubmit_AlternatesBetweenClientsWhenQueued() {
+        CompletableFuture<String> blocker = new CompletableFuture<>();
+        List<String> order = new ArrayList<>();
+
+        scheduler.submit("heavy", () -> blocker);
+        scheduler.submit("heavy", () -> record(order, "heavy-1"));
+        scheduler.submit("heavy", () -> record(order, "heavy-2"));
+        scheduler.submit("light", () -> record(order, "light-1"));
+
+        assertEquals(1, scheduler.getRunningCount());
+        assertEquals(3, scheduler.getQueuedCount());
+
+        blocker.complete("done");
+
+        assertEquals(List.of("heavy-1", "light-1", "heavy-2"), order);
+        assertEquals(0, scheduler.getRunningCount());
+        assertEquals(0, scheduler.getQueuedCount());
+    }
+
+    @Test
+    void testSubmit_RejectsWhenClientOrGlobalQueueIsFull() {
+        scheduler.submit("a", CompletableFuture::new);
+        for (int i = 0; i < 3; i++) {
+            scheduler.submit("a", CompletableFuture::new);
+        }
+
+        ExecutionRejectedException perClient = assertThrows(ExecutionRejectedException.class,
+                () -> scheduler.submit("a", CompletableFuture::new));
+        assertTrue(perClient.isClientLimited());
+
+        scheduler.submit("b", CompletableFuture::new);
+        ExecutionRejectedException global = assertThrows(ExecutionRejectedException.class,
+                () -> scheduler.submit("c", CompletableFuture::new));
+        assertFalse(global.isClientLimited());
+        assertTrue(global.getRetryAfterSeconds() >= 1);
+    }
+
+    @Test
+    void testSubmit_GradedWorkRunsFirstAndPreemptsQueuedPlayground() {
+        CompletableFuture<String> blocker = new CompletableFuture<>();
+        List<String> order = new ArrayList<>();
+
+        scheduler.submit("anon", ExecutionPriority.PLAYGROUND, () -> blocker);
+        CompletableFuture<String> evicted =
+                scheduler.submit("anon", ExecutionPriority.PLAYGROUND, () -> record(order, "playground-1"));
+        scheduler.submit("flood", ExecutionPriority.PLAYGROUND, () -> record(order, "playground-2"));
+        scheduler.submit("user", ExecutionPriority.STANDARD, () -> record(order, "standard-1"));
+        scheduler.submit("other", ExecutionPriority.PLAYGROUND, () -> record(order, "playground-3"));
+
+        scheduler.submit("student", ExecutionPriority.GRADED, () -> record(order, "graded-1"));
+
+        assertTrue(evicted.isCompletedExceptionally());
+        assertEquals(4, scheduler.getQueuedCount());
+        assertEquals(1, scheduler.getQueuedCount(ExecutionPriority.GRADED));
+
+        blocker.complete("done");
+
+        assertEquals(List.of("graded-1", "standard-1", "playground-2", "playground-3"), order);
+    }
+
+    @Test
+    void testSubmit_ReservedSharesKeepSlotsForGradedWork() {
+        ReflectionTestUtils.setField(scheduler, "maxConcurrency", 4);
+        ReflectionTestUtils.setField(scheduler, "gradedShare", 0.5);
+        ReflectionTestUtils.setField(scheduler, "standardShare", 0.0);
+        ReflectionTestUtils.setField(scheduler, "playgroundShare", 0.0);
+
+        for (int i = 0; i < 4; i++) {
+            scheduler.submit("anon-" + i, ExecutionPriority.PLAYGROUND, CompletableFuture::new);
+        }
+        assertEquals(2, scheduler.getRunningCount(ExecutionPriority.PLAYGROUND));
+        assertEquals(2, scheduler.getQueuedCount(ExecutionPriority.PLAYGROUND));
+
+        scheduler.submit("student", ExecutionPriority.GRADED, CompletableFuture::new);
+        assertEquals(1, scheduler.getRunningCount(ExecutionPriority.GRADED));
+        assertEquals(0, scheduler.getQueuedCount(ExecutionPriority.GRADED));
+    }
+
+    @Test
+    void testExpireQueued_RejectsTasksWithoutWaitingForASlot() throws InterruptedException {
+        ReflectionTestUtils.setField(scheduler, "maxQueueWaitMs", 10L);
+        scheduler.submit("a", CompletableFuture::new);
+        CompletableFuture<String> queued = scheduler.submit("b", CompletableFuture::new);
+
+        Thread.sleep(30);
+        scheduler.expireQueued();
+
+        ExecutionException expired = assertThrows(ExecutionException.class, queued::get);
+        assertInstanceOf(ExecutionRejectedException.class, expired.getCause());
+        assertEquals(0, scheduler.getQueuedCount());
+        assertEquals(1, scheduler.getRunningCount());
+    }
+
+    @Test
+    void testCancel_DequeuesQueuedTaskAndReleasesRunningSlot() {
+        List<String> order = new ArrayList<>();
+        CompletableFuture<String> running = scheduler.submit("a", CompletableFuture::new);
+        CompletableFuture<String> queued = scheduler.submit("b", () -> record(order, "cancelled"));
+        scheduler.submit("c", () -> record(order, "next"));
+
+        queued.cancel(true);
+        assertEquals(1, scheduler.getQueuedCount());
+        assertEquals(1, scheduler.getRunningCount());
+
+        running.cancel(true);
+        assertEquals(List.of("next"), order);
+        assertEquals(0, scheduler.getQueuedCount());
+        assertEquals(0, scheduler.getRunningCount());
+    }
+
+    private CompletableFuture<String> record(List<String> order, String name) {
+        order.add(name);
+        return CompletableFuture.completedFuture(name);
+    }
+}
@@ -0,0 +1,96 @@
+package com.compiler.service;
+
+import com.compiler.dto.Judge0Result;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class Judge0CallbackServiceTest {
+
+    @Mock
+    private Judge0PollingScheduler judge0PollingScheduler;
+
+    @Mock
+    private Judge0Client judge0Client;
+
+    private Judge0CallbackService callbackService;
+
+    @BeforeEach
+    void setUp() {
+        callbackService = new Judge0CallbackService(judge0PollingScheduler, judge0Client);
+        ReflectionTestUtils.setField(callbackService, "enabled", true);
+        ReflectionTestUtils.setField(callbackService, "callbackUrl", "https://compiler.example/api/internal/judge0/callback");
+        ReflectionTestUtils.setField(callbackService, "secret", "test-secret");
+    }
+
+    @Test
+    void callbackIsSingleUseAndBoundToItsToken() {
+        Judge0CallbackService.Callback callback = callbackService.newCallback();
+        callbackService.bind(callback, "token-1");
+        String signature = signature(callback);
+
+        assertEquals(Judge0CallbackService.Outcome.REJECTED,
+                callbackService.accept(callback.nonce(), signature, finished("token-2")));
+        assertEquals(Judge0CallbackService.Outcome.COMPLETED,
+                callbackService.accept(callback.nonce(), signature, finished("token-1")));
+        assertEquals(Judge0CallbackService.Outcome.REJECTED,
+                callbackService.accept(callback.nonce(), signature, finished("token-1")));
+
+        verify(judge0PollingScheduler, times(1)).complete(anyString(), any());
+        verify(judge0PollingScheduler, never()).complete(eq("token-2"), any());
+    }
+
+    @Test
+    void earlyCallbackIsDeliveredOnlyIfItsTokenMatchesTheBinding() {
+        Judge0CallbackService.Callback forged = callbackService.newCallback();
+        assertEquals(Judge0CallbackService.Outcome.HELD,
+                callbackService.accept(forged.nonce(), signature(forged), finished("someone-else")));
+        callbackService.bind(forged, "token-1");
+
+        Judge0CallbackService.Callback genuine = callbackService.newCallback();
+        Judge0Result result = finished("token-2");
+        callbackService.accept(genuine.nonce(), signature(genuine), result);
+        callbackService.bind(genuine, "token-2");
+
+        verify(judge0PollingScheduler, never()).complete(eq("token-1"), any());
+        verify(judge0PollingScheduler).complete("token-2", result);
+        assertEquals(0, callbackService.getPendingCount());
+    }
+
+    @Test
+    void rejectsBadSignaturesAndExpiredNonces() {
+        ReflectionTestUtils.setField(callbackService, "ttlMs", -1L);
+        Judge0CallbackService.Callback callback = callbackService.newCallback();
+        callbackService.bind(callback, "token-1");
+
+        assertEquals(Judge0CallbackService.Outcome.REJECTED,
+                callbackService.accept(callback.nonce(), "forged", finished("token-1")));
+        assertEquals(Judge0CallbackService.Outcome.REJECTED,
+                callbackService.accept(callback.nonce(), signature(callback), finished("token-1")));
+        verify(judge0PollingScheduler, never()).complete(anyString(), any());
+    }
+
+    private static String signature(Judge0CallbackService.Callback callback) {
+        return UriComponentsBuilder.fromUriString(callback.url()).build().getQueryParams().getFirst("signature");
+    }
+
+    private Judge0Result finished(String token) {
+        lenient().when(judge0Client.isBase64()).thenReturn(false);
+        return Judge0Result.builder().token(token).stdout("42")
+                .status(new Judge0Result.Status(3, "Accepted")).build();
+    }
+}
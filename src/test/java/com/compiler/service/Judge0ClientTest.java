@@ -0,0 +1,69 @@
+package com.compiler.service;
+
+import com.compiler.dto.Judge0Result;
+import com.compiler.dto.Judge0Submission;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class Judge0ClientTest {
+
+    private static final Judge0Endpoint ENDPOINT =
+            new Judge0Endpoint("local", "http://judge0.test", "secret", "");
+
+    private MockRestServiceServer server;
+    private Judge0Client client;
+
+    @BeforeEach
+    void setUp() {
+        RestTemplate restTemplate = new RestTemplate();
+        server = MockRestServiceServer.bindTo(restTemplate).build();
+        client = new Judge0Client(restTemplate);
+    }
+
+    @Test
+    void testSubmit_SendsBase64EncodedTypedBody() {
+        server.expect(requestTo("http://judge0.test/submissions?base64_encoded=true&wait=false"))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(header("X-Auth-Token", "secret"))
+                .andExpect(jsonPath("$.source_code").value("cHJpbnQoJ8OpJyk="))
+                .andExpect(jsonPath("$.language_id").value(71))
+                .andExpect(jsonPath("$.expected_output").doesNotExist())
+                .andRespond(withSuccess("{\"token\":\"abc\"}", MediaType.APPLICATION_JSON));
+
+        String token = client.submit(ENDPOINT, Judge0Submission.builder()
+                .sourceCode("print('é')").languageId(71).stdin("").build());
+
+        assertEquals("abc", token);
+        server.verify();
+    }
+
+    @Test
+    void testFetchBatch_DecodesBase64Fields() {
+        server.expect(requestTo(startsWith("http://judge0.test/submissions/batch?tokens=abc,def")))
+                .andRespond(withSuccess("{\"submissions\":[" +
+                        "{\"token\":\"abc\",\"stdout\":\"aGVsbG8K\\n\",\"time\":\"0.012\",\"memory\":3264," +
+                        "\"status\":{\"id\":3,\"description\":\"Accepted\"},\"language\":{\"id\":71}}," +
+                        "{\"token\":\"def\",\"stdout\":null,\"status\":{\"id\":2,\"description\":\"Processing\"}}]}",
+                        MediaType.APPLICATION_JSON));
+
+        List<Judge0Result> results = client.fetchBatch(ENDPOINT, List.of("abc", "def"));
+
+        assertEquals("hello\n", results.get(0).getStdout());
+        assertEquals(0.012, results.get(0).getTime());
+        assertEquals(3264.0, results.get(0).getMemory());
+        assertFalse(results.get(0).isInProgress());
+        assertNull(results.get(1).getStdout());
+        assertTrue(results.get(1).isInProgress());
+    }
+}
@@ -0,0 +1,179 @@
+package com.compiler.service;
+
+import com.compiler.dto.Judge0Submission;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class Judge0GatewayTest {
+
+    private final Judge0Client judge0Client = mock(Judge0Client.class);
+    private final CountDownLatch releasePrimary = new CountDownLatch(1);
+    private Judge0Gateway gateway;
+
+    @BeforeEach
+    void setUp() {
+        gateway = createGateway(new MockEnvironment(), "http://hedge.test");
+    }
+
+    private Judge0Gateway createGateway(MockEnvironment environment, String hedgeUrl) {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        Judge0Gateway created = new Judge0Gateway(judge0Client, environment,
+                beans.getBeanProvider(CircuitBreakerRegistry.class),
+                beans.getBeanProvider(BulkheadRegistry.class),
+                beans.getBeanProvider(TimeLimiterRegistry.class),
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(created, "apiUrl", "http://primary.test");
+        ReflectionTestUtils.setField(created, "apiKey", "key");
+        ReflectionTestUtils.setField(created, "apiHost", "primary.test");
+        ReflectionTestUtils.setField(created, "hedgeUrl", hedgeUrl);
+        ReflectionTestUtils.setField(created, "hedgeKey", "key");
+        ReflectionTestUtils.setField(created, "hedgeHost", "hedge.test");
+        ReflectionTestUtils.setField(created, "hedgingEnabled", hedgeUrl != null);
+        ReflectionTestUtils.setField(created, "hedgeInitialDelayMs", 50L);
+        ReflectionTestUtils.setField(created, "hedgeMinDelayMs", 10L);
+        ReflectionTestUtils.setField(created, "callTimeoutMs", 5000L);
+        ReflectionTestUtils.setField(created, "maxConcurrentCalls", 8);
+        ReflectionTestUtils.setField(created, "failureRateThreshold", 50f);
+        ReflectionTestUtils.setField(created, "slowCallMs", 5000L);
+        ReflectionTestUtils.setField(created, "openStateMs", 60000L);
+        ReflectionTestUtils.setField(created, "apiStandby",
+                environment.getProperty("judge0.api.standby", Boolean.class, false));
+        String pool = environment.getProperty("judge0.pool.endpoints", "");
+        ReflectionTestUtils.setField(created, "poolEndpoints", pool.isEmpty() ? List.of() : List.of(pool.split(",")));
+        created.init();
+        return created;
+    }
+
+    @AfterEach
+    void tearDown() {
+        releasePrimary.countDown();
+        gateway.shutdown();
+    }
+
+    @Test
+    void testSubmit_HedgeWinsWhenPrimaryIsSlow() throws Exception {
+        when(judge0Client.submit(argThat(endpoint -> endpoint != null && "primary".equals(endpoint.getName())), any()))
+                .thenAnswer(invocation -> {
+                    releasePrimary.await(5, TimeUnit.SECONDS);
+                    return "primary-token";
+                });
+        when(judge0Client.submit(argThat(endpoint -> endpoint != null && "hedge".equals(endpoint.getName())), any()))
+                .thenReturn("hedge-token");
+
+        Judge0Gateway.Submission submission = gateway.submit(submission(71)).get(2, TimeUnit.SECONDS);
+
+        assertEquals("hedge", submission.getEndpoint().getName());
+        assertEquals("hedge-token", submission.getToken());
+        long deadline = System.currentTimeMillis() + 2000;
+        Map<String, Object> hedging = (Map<String, Object>) gateway.describe().get("hedging");
+        while (!Long.valueOf(1L).equals(hedging.get("won")) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            hedging = (Map<String, Object>) gateway.describe().get("hedging");
+        }
+        assertEquals(1L, hedging.get("sent"));
+        assertEquals(1L, hedging.get("won"));
+    }
+
+    @Test
+    void testSubmit_FailsFastWhenCircuitIsOpen() throws Exception {
+        gateway.shutdown();
+        gateway = createGateway(new MockEnvironment(), null);
+        when(judge0Client.submit(any(), any())).thenThrow(new IllegalStateException("connection refused"));
+
+        for (int i = 0; i < 10; i++) {
+            assertThrows(Exception.class, () -> gateway.submit(submission(71)).join());
+        }
+
+        CompletionException rejected = assertThrows(CompletionException.class, () -> gateway.submit(submission(71)).join());
+        assertInstanceOf(CallNotPermittedException.class, rejected.getCause());
+        Map<String, Object> endpoints = (Map<String, Object>) gateway.describe().get("endpoints");
+        assertEquals("OPEN", ((Map<String, Object>) endpoints.get("primary")).get("circuitBreaker"));
+    }
+
+    @Test
+    void testSubmit_HedgedSubmissionFailsWhenNoSecondEndpointIsAvailable() throws Exception {
+        gateway.shutdown();
+        gateway = createGateway(new MockEnvironment(), "");
+        when(judge0Client.submit(any(), any())).thenThrow(new IllegalStateException("connection refused"));
+
+        ExecutionException failed = assertThrows(ExecutionException.class,
+                () -> gateway.submit(submission(71)).get(2, TimeUnit.SECONDS));
+
+        assertEquals("connection refused", failed.getCause().getMessage());
+        Map<String, Object> hedging = (Map<String, Object>) gateway.describe().get("hedging");
+        assertEquals(0L, hedging.get("sent"));
+    }
+
+    @Test
+    void testSubmit_RoutesToCapableEndpointWithFewestInFlight() throws Exception {
+        gateway.shutdown();
+        gateway = createGateway(pool(), null);
+        when(judge0Client.submit(any(), any())).thenAnswer(invocation ->
+                ((Judge0Endpoint) invocation.getArgument(0)).getName() + "-token");
+
+        Judge0Gateway.Submission first = gateway.submit(submission(71)).get(2, TimeUnit.SECONDS);
+        Judge0Gateway.Submission second = gateway.submit(submission(71)).get(2, TimeUnit.SECONDS);
+        Judge0Gateway.Submission kotlin = gateway.submit(submission(78)).get(2, TimeUnit.SECONDS);
+
+        assertNotEquals(first.getEndpoint().getName(), second.getEndpoint().getName());
+        assertEquals("local-b", kotlin.getEndpoint().getName());
+        assertEquals("primary", gateway.getEndpoints().get(2).getName());
+    }
+
+    @Test
+    void testSubmit_EjectsEndpointAfterConsecutiveFailures() throws Exception {
+        gateway.shutdown();
+        gateway = createGateway(pool(), null);
+        when(judge0Client.submit(argThat(endpoint -> endpoint != null && "local-a".equals(endpoint.getName())), any()))
+                .thenThrow(new IllegalStateException("connection refused"));
+        when(judge0Client.submit(argThat(endpoint -> endpoint != null && !"local-a".equals(endpoint.getName())), any()))
+                .thenReturn("token");
+
+        for (int i = 0; i < 40; i++) {
+            try {
+                gateway.submit(submission(71)).get(2, TimeUnit.SECONDS).release();
+            } catch (Exception ignored) {
+                // local-a keeps failing until it is ejected
+            }
+        }
+
+        Map<String, Object> endpoints = (Map<String, Object>) gateway.describe().get("endpoints");
+        assertEquals(true, ((Map<String, Object>) endpoints.get("local-a")).get("ejected"));
+        assertEquals("local-b", gateway.submit(submission(71)).get(2, TimeUnit.SECONDS).getEndpoint().getName());
+    }
+
+    private static Judge0Submission submission(int languageId) {
+        return Judge0Submission.builder().sourceCode("print(1)").languageId(languageId).build();
+    }
+
+    private MockEnvironment pool() {
+        return new MockEnvironment()
+                .withProperty("judge0.pool.endpoints", "local-a,local-b")
+                .withProperty("judge0.pool.local-a.url", "http://local-a.test")
+                .withProperty("judge0.pool.local-a.languages", "71,62")
+                .withProperty("judge0.pool.local-b.url", "http://local-b.test")
+                .withProperty("judge0.api.standby", "true");
+    }
+}
@@ -0,0 +1,183 @@
+package com.compiler.service;
+
+import com.compiler.dto.Judge0Result;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class Judge0PollingSchedulerTest {
+
+    private static final Judge0Endpoint ENDPOINT =
+            new Judge0Endpoint("primary", "http://judge0.test", "key", "judge0.test");
+
+    @Mock
+    private Judge0Gateway judge0Gateway;
+
+    private Judge0PollingScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new Judge0PollingScheduler(judge0Gateway);
+        ReflectionTestUtils.setField(scheduler, "batchSize", 20);
+        ReflectionTestUtils.setField(scheduler, "minIntervalMs", 0L);
+        ReflectionTestUtils.setField(scheduler, "maxIntervalMs", 0L);
+        ReflectionTestUtils.setField(scheduler, "maxWaitMs", 30000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void testPollOutstanding_UsesOneRequestPerBatch() throws Exception {
+        when(judge0Gateway.fetchBatch(any(), anyCollection())).thenAnswer(invocation -> {
+            Collection<String> tokens = invocation.getArgument(1);
+            List<Judge0Result> results = new ArrayList<>();
+            for (String token : tokens) {
+                results.add(Judge0Result.builder().token(token).stdout("ok")
+                        .status(new Judge0Result.Status(3, "Accepted")).build());
+            }
+            return CompletableFuture.completedFuture(results);
+        });
+
+        List<CompletableFuture<Judge0Result>> futures = new ArrayList<>();
+        for (int i = 0; i < 45; i++) {
+            futures.add(scheduler.track(ENDPOINT, "token-" + i, "python"));
+        }
+
+        scheduler.pollOutstanding();
+
+        verify(judge0Gateway, times(3)).fetchBatch(any(), anyCollection());
+        assertEquals(0, scheduler.getOutstandingCount());
+        for (int i = 0; i < futures.size(); i++) {
+            assertEquals("token-" + i, futures.get(i).join().getToken());
+        }
+    }
+
+    @Test
+    void testPollOutstanding_KeepsProcessingSubmissions() throws Exception {
+        when(judge0Gateway.fetchBatch(any(), anyCollection())).thenReturn(CompletableFuture.completedFuture(List.of(
+                Judge0Result.builder().token("token-1").status(new Judge0Result.Status(2, "Processing")).build())));
+
+        CompletableFuture<Judge0Result> future = scheduler.track(ENDPOINT, "token-1", "kotlin");
+
+        scheduler.pollOutstanding();
+
+        assertFalse(future.isDone());
+        assertEquals(1, scheduler.getOutstandingCount());
+    }
+
+    @Test
+    void testPollOutstanding_DoesNotWaitForAnInFlightBatch() throws Exception {
+        CompletableFuture<List<Judge0Result>> slow = new CompletableFuture<>();
+        when(judge0Gateway.fetchBatch(any(), anyCollection())).thenReturn(slow);
+
+        CompletableFuture<Judge0Result> future = scheduler.track(ENDPOINT, "token-1", "python");
+        scheduler.pollOutstanding();
+        scheduler.pollOutstanding();
+
+        verify(judge0Gateway, times(1)).fetchBatch(any(), anyCollection());
+        assertFalse(future.isDone());
+
+        slow.complete(List.of(Judge0Result.builder().token("token-1").stdout("ok")
+                .status(new Judge0Result.Status(3, "Accepted")).build()));
+        assertEquals("ok", future.get(2, TimeUnit.SECONDS).getStdout());
+        assertEquals(0, scheduler.getOutstandingCount());
+    }
+
+    @Test
+    void testComplete_CallbackFinishesRunWithoutPolling() throws Exception {
+        ReflectionTestUtils.setField(scheduler, "callbackFallbackMs", 60000L);
+        Judge0Result accepted = Judge0Result.builder().stdout("ok")
+                .status(new Judge0Result.Status(3, "Accepted")).build();
+
+        CompletableFuture<Judge0Result> future =
+                scheduler.track(ENDPOINT, "token-1", "python", ExecutionListener.NONE, true);
+        scheduler.pollOutstanding();
+        assertTrue(scheduler.complete("token-1", accepted));
+
+        assertFalse(scheduler.complete("token-2", accepted));
+        CompletableFuture<Judge0Result> early =
+                scheduler.track(ENDPOINT, "token-2", "python", ExecutionListener.NONE, true);
+
+        assertSame(accepted, future.join());
+        assertSame(accepted, early.join());
+        assertEquals(0, scheduler.getOutstandingCount());
+        verify(judge0Gateway, never()).fetchBatch(any(), anyCollection());
+    }
+
+    @Test
+    void testPollOutstanding_BacksOffWhenThrottled() throws Exception {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "5");
+        when(judge0Gateway.fetchBatch(any(), anyCollection())).thenReturn(CompletableFuture.failedFuture(
+                HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", headers,
+                        new byte[0], null)));
+
+        CompletableFuture<Judge0Result> future = scheduler.track(ENDPOINT, "token-1", "python");
+        scheduler.pollOutstanding();
+        scheduler.pollOutstanding();
+
+        assertFalse(future.isDone());
+        assertEquals(1, scheduler.getOutstandingCount());
+        verify(judge0Gateway, times(1)).fetchBatch(any(), anyCollection());
+    }
+
+    @Test
+    void testPollOutstanding_FailsOnNonRetryableClientError() throws Exception {
+        when(judge0Gateway.fetchBatch(any(), anyCollection()))
+                .thenReturn(CompletableFuture.failedFuture(new CompletionException(HttpClientErrorException.create(
+                        HttpStatus.UNAUTHORIZED, "Unauthorized", new HttpHeaders(), new byte[0], null))));
+
+        CompletableFuture<Judge0Result> future = scheduler.track(ENDPOINT, "token-1", "python");
+        scheduler.pollOutstanding();
+
+        CompletionException failed = assertThrows(CompletionException.class, future::join);
+        assertInstanceOf(HttpClientErrorException.class, failed.getCause());
+        assertEquals(0, scheduler.getOutstandingCount());
+    }
+
+    @Test
+    void testPollOutstanding_LeavesRunCompletedByCallbackInFlight() throws Exception {
+        Judge0Result polled = Judge0Result.builder().token("token-1").stdout("polled")
+                .status(new Judge0Result.Status(3, "Accepted")).build();
+        Judge0Result called = Judge0Result.builder().token("token-1").stdout("called")
+                .status(new Judge0Result.Status(3, "Accepted")).build();
+        when(judge0Gateway.fetchBatch(any(), anyCollection())).thenAnswer(invocation -> {
+            scheduler.complete("token-1", called);
+            return CompletableFuture.completedFuture(List.of(polled));
+        });
+
+        CompletableFuture<Judge0Result> future = scheduler.track(ENDPOINT, "token-1", "python");
+        long expectedBefore = scheduler.getExpectedRuntimes().get("python");
+        scheduler.pollOutstanding();
+
+        assertSame(called, future.join());
+        assertEquals(1, scheduler.getCallbackCompletionCount());
+        assertEquals(Math.round(expectedBefore * 0.8), scheduler.getExpectedRuntimes().get("python"), 1);
+    }
+}
@@ -1,32 +1,46 @@
 package com.compiler.service;
 
+import com.compiler.dto.ExecutionJob;
 import com.compiler.dto.ExecutionRequest;
 import com.compiler.dto.ExecutionResponse;
+import com.compiler.entity.CodeSubmission;
+import com.compiler.exception.ExecutionRejectedException;
 import com.compiler.security.JwtUtil;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
-import static org.mockito.Mockito.lenient;
 
 @ExtendWith(MockitoExtension.class)
 class Judge0ServiceTest {
 
     @Mock
-    private RestTemplate restTemplate;
+    private ExecutionBackendRegistry executionBackendRegistry;
 
     @Mock
-    private ObjectMapper objectMapper;
+    private ExecutionBackend backend;
 
     @Mock
     private SubmissionHistoryService submissionHistoryService;
@@ -44,9 +58,22 @@ class Judge0ServiceTest {
     private CodeFormatService codeFormatService;
 
     @Mock
-    private HttpServletRequest httpServletRequest; // Add this mock
+    private CodeValidationService codeValidationService;
+
+    @Mock
+    private ExecutionResultStore executionResultStore;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private HttpServletRequest httpServletRequest;
+
+    @Mock
+    private HttpSession httpSession;
+
+    private ExecutionScheduler executionScheduler;
 
-    @InjectMocks
     private Judge0Service judge0Service;
 
     private ExecutionRequest validRequest;
@@ -58,23 +85,53 @@ class Judge0ServiceTest {
         validRequest.setLanguage("python");
         validRequest.setInput("");
 
-
-        when(httpServletRequest.getRemoteAddr()).thenReturn("127.0.0.1");
-
-
-        lenient().when(rateLimitService.isAllowed(anyString())).thenReturn(true);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ExecutionResultCache executionResultCache =
+                new ExecutionResultCache(redisTemplate, new ObjectMapper(), meterRegistry);
+        ReflectionTestUtils.setField(executionResultCache, "enabled", true);
+        ReflectionTestUtils.setField(executionResultCache, "maxLocalWeightBytes", 1024 * 1024L);
+        ReflectionTestUtils.setField(executionResultCache, "defaultTtlSeconds", 600L);
+
+        ExecutionCoalescer executionCoalescer = new ExecutionCoalescer(meterRegistry);
+        ReflectionTestUtils.setField(executionCoalescer, "enabled", true);
+        ReflectionTestUtils.setField(executionCoalescer, "maxWaitMs", 20000L);
+
+        executionScheduler = new ExecutionScheduler(meterRegistry);
+        ReflectionTestUtils.setField(executionScheduler, "maxConcurrency", 1);
+        ReflectionTestUtils.setField(executionScheduler, "maxQueue", 1);
+        ReflectionTestUtils.setField(executionScheduler, "maxQueuePerClient", 10);
+        ReflectionTestUtils.setField(executionScheduler, "quantum", 1L);
+        ReflectionTestUtils.setField(executionScheduler, "maxQueueWaitMs", 30000L);
+
+        judge0Service = new Judge0Service(executionBackendRegistry, submissionHistoryService, rateLimitService,
+                userService, jwtUtil, codeFormatService, codeValidationService, executionResultStore,
+                executionResultCache, executionCoalescer, executionScheduler);
+        ReflectionTestUtils.setField(judge0Service, "maxWaitMs", 5000L);
+
+        lenient().when(httpServletRequest.getSession()).thenReturn(httpSession);
+        lenient().when(httpSession.getId()).thenReturn("session-1");
+        lenient().when(codeValidationService.evaluate(any(ExecutionRequest.class), anyString()))
+                .thenAnswer(invocation -> ValidationVerdict.accepted(
+                        invocation.<ExecutionRequest>getArgument(0).getCode()));
+        lenient().when(codeFormatService.formatCode(anyString(), anyString()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        lenient().when(executionBackendRegistry.resolve("python")).thenReturn(Optional.of(backend));
+        lenient().when(backend.getName()).thenReturn("test");
+        lenient().when(submissionHistoryService.saveSubmissionWithResult(anyString(), anyString(),
+                any(ExecutionResponse.class), any(), anyString())).thenReturn(new CodeSubmission());
     }
 
     @Test
     void testExecuteCode_RateLimitExceeded() {
-
-        when(rateLimitService.isAllowed(anyString())).thenReturn(false);
+        when(codeValidationService.evaluate(any(ExecutionRequest.class), anyString()))
+                .thenReturn(ValidationVerdict.rejected(ValidationVerdict.Stage.RATE,
+                        "Rate limit exceeded. Please try again later."));
 
         ExecutionResponse response = judge0Service.executeCode(validRequest, httpServletRequest);
 
         assertNotNull(response);
         assertTrue(response.getError().contains("Rate limit exceeded"));
-        verify(rateLimitService).isAllowed(anyString());
+        verify(backend, never()).execute(any(ExecutionJob.class), any());
     }
 
     @Test
@@ -84,7 +141,7 @@ class Judge0ServiceTest {
         ExecutionResponse response = judge0Service.executeCode(validRequest, httpServletRequest);
 
         assertNotNull(response);
-        assertTrue(response.getError().contains("Source code cannot be empty"));
+        assertTrue(response.getError().contains("Code cannot be empty"));
     }
 
     @Test
@@ -99,7 +156,7 @@ class Judge0ServiceTest {
 
     @Test
     void testExecuteCode_CodeFormatting() {
-        when(codeFormatService.formatCode(anyString(), anyString())).thenReturn("formatted_code");
+        when(backend.execute(any(ExecutionJob.class), any())).thenReturn(accepted("hello"));
 
         judge0Service.executeCode(validRequest, httpServletRequest);
 
@@ -108,23 +165,103 @@ class Judge0ServiceTest {
 
     @Test
     void testExecuteCode_SuccessfulExecution() {
-
-        when(codeFormatService.formatCode(anyString(), anyString())).thenReturn("print('hello')");
+        when(backend.execute(any(ExecutionJob.class), any())).thenReturn(accepted("hello"));
 
         ExecutionResponse response = judge0Service.executeCode(validRequest, httpServletRequest);
 
-        assertNotNull(response);
-
+        assertEquals("Accepted", response.getStatus());
+        assertEquals("hello", response.getOutput());
+        verify(submissionHistoryService).saveSubmissionWithResult(eq("print('hello')"), eq("python"),
+                eq(response), isNull(), eq("session-1"));
+        verify(executionResultStore).complete(anyString(), isNull(), eq(response));
     }
 
     @Test
     void testExecuteCode_WithUserAuthentication() {
-
         when(jwtUtil.extractUsername(anyString())).thenReturn("user123");
         when(httpServletRequest.getHeader("Authorization")).thenReturn("Bearer token123");
+        when(backend.execute(any(ExecutionJob.class), any())).thenReturn(accepted("hello"));
 
         ExecutionResponse response = judge0Service.executeCode(validRequest, httpServletRequest);
 
         assertNotNull(response);
+        verify(codeValidationService).evaluate(any(ExecutionRequest.class), eq("user123"));
+    }
+
+    @Test
+    void testExecuteCode_IdenticalConcurrentRunsAreCoalesced() throws Exception {
+        CompletableFuture<ExecutionResponse> running = new CompletableFuture<>();
+        when(backend.execute(any(ExecutionJob.class), any())).thenReturn(running);
+
+        CompletableFuture<ExecutionResponse> first = judge0Service.executeCodeAsync(validRequest, httpServletRequest);
+        CompletableFuture<ExecutionResponse> second = judge0Service.executeCodeAsync(copy(validRequest),
+                httpServletRequest);
+        running.complete(response("hello", "Accepted"));
+
+        assertEquals("hello", first.get().getOutput());
+        assertEquals("hello", second.get().getOutput());
+        verify(backend, times(1)).execute(any(ExecutionJob.class), any());
+    }
+
+    @Test
+    void testExecuteCode_RepeatedRunIsServedFromCache() {
+        when(backend.execute(any(ExecutionJob.class), any())).thenReturn(accepted("hello"));
+
+        judge0Service.executeCode(validRequest, httpServletRequest);
+        ExecutionResponse cached = judge0Service.executeCode(copy(validRequest), httpServletRequest);
+
+        assertEquals("hello", cached.getOutput());
+        verify(backend, times(1)).execute(any(ExecutionJob.class), any());
+        verify(submissionHistoryService, times(2)).saveSubmissionWithResult(anyString(), anyString(),
+                any(ExecutionResponse.class), isNull(), anyString());
+    }
+
+    @Test
+    void testExecuteCode_RejectedWhenQueueIsFull() {
+        executionScheduler.submit("other", ExecutionPriority.GRADED, CompletableFuture::new);
+        executionScheduler.submit("other", ExecutionPriority.GRADED, CompletableFuture::new);
+
+        ExecutionRejectedException rejected = assertThrows(ExecutionRejectedException.class,
+                () -> judge0Service.executeCodeAsync(validRequest, httpServletRequest));
+
+        assertFalse(rejected.isClientLimited());
+        verify(backend, never()).execute(any(ExecutionJob.class), any());
+        verify(submissionHistoryService, never()).saveSubmissionWithResult(anyString(), anyString(),
+                any(), any(), any());
+    }
+
+    @Test
+    void testExecuteCode_PreemptedRunFailsWithoutRecordingHistory() {
+        executionScheduler.submit("other", ExecutionPriority.GRADED, CompletableFuture::new);
+        CompletableFuture<ExecutionResponse> queued = judge0Service.executeCodeAsync(validRequest, httpServletRequest);
+
+        executionScheduler.submit("student", ExecutionPriority.GRADED, CompletableFuture::new);
+
+        ExecutionException preempted = assertThrows(ExecutionException.class, queued::get);
+        assertInstanceOf(ExecutionRejectedException.class, preempted.getCause());
+        verify(executionResultStore).complete(anyString(), isNull(), any(ExecutionResponse.class));
+        verify(submissionHistoryService, never()).saveSubmissionWithResult(anyString(), anyString(),
+                any(), any(), any());
+        assertThrows(ExecutionRejectedException.class,
+                () -> judge0Service.executeCode(copy(validRequest), httpServletRequest));
+    }
+
+    private static ExecutionRequest copy(ExecutionRequest request) {
+        ExecutionRequest copy = new ExecutionRequest();
+        copy.setCode(request.getCode());
+        copy.setLanguage(request.getLanguage());
+        copy.setInput(request.getInput());
+        return copy;
+    }
+
+    private static CompletableFuture<ExecutionResponse> accepted(String output) {
+        return CompletableFuture.completedFuture(response(output, "Accepted"));
+    }
+
+    private static ExecutionResponse response(String output, String status) {
+        ExecutionResponse response = new ExecutionResponse();
+        response.setOutput(output);
+        response.setStatus(status);
+        return response;
     }
-}
\ No newline at end of file
+}
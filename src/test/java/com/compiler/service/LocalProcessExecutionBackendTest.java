@@ -0,0 +1,160 @@
+package com.compiler.service;
+
+import com.compiler.dto.ExecutionJob;
+import com.compiler.dto.ExecutionLimits;
+import com.compiler.dto.ExecutionResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class LocalProcessExecutionBackendTest {
+
+    private LocalProcessExecutionBackend backend;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        backend = new LocalProcessExecutionBackend(new CompiledArtifactCache(meterRegistry),
+                new ExecutionPhaseMetrics(meterRegistry), new OutputSpillStore(), true, List.of("python", "c"),
+                System.getProperty("java.io.tmpdir") + "/code-compiler-test", "", 30000, 2, 65534, 65534);
+    }
+
+    @AfterEach
+    void tearDown() {
+        backend.shutdown();
+    }
+
+    @Test
+    void testExecute_PythonEchoesInput() {
+        assumeTrue(backend.supports("python"));
+
+        ExecutionResponse response = backend.execute(job("python", "print(input()[::-1])", "olleh", "hello", 5000))
+                .join();
+
+        assertEquals("Accepted", response.getStatus());
+        assertEquals("hello", response.getOutput());
+        assertTrue(response.getIsCorrect());
+    }
+
+    @Test
+    void testExecute_KillsRunawayProgram() {
+        assumeTrue(backend.supports("python"));
+
+        ExecutionResponse response = backend.execute(job("python", "while True:\n    pass", "", null, 500))
+                .join();
+
+        assertEquals("Time Limit Exceeded", response.getStatus());
+    }
+
+    @Test
+    void testExecute_RunsAsSandboxUserWithoutNetwork() {
+        assumeTrue(backend.supports("python"));
+
+        String source = "import os, socket\n"
+                + "print(os.getuid(), os.getpid())\n"
+                + "try:\n"
+                + "    socket.create_connection(('1.1.1.1', 53), timeout=1)\n"
+                + "    print('online')\n"
+                + "except OSError:\n"
+                + "    print('offline')";
+        ExecutionResponse response = backend.execute(job("python", source, "", null, 5000)).join();
+
+        assertEquals("Accepted", response.getStatus());
+        assertEquals("65534 2\noffline", response.getOutput().trim());
+    }
+
+    @Test
+    void testExecute_CapsProcessCountWithoutACgroup() {
+        assumeTrue(backend.supports("python"));
+
+        String source = "import os, time\n"
+                + "for n in range(1000):\n"
+                + "    try:\n"
+                + "        if os.fork() == 0:\n"
+                + "            time.sleep(5)\n"
+                + "            os._exit(0)\n"
+                + "    except OSError:\n"
+                + "        print('limited')\n"
+                + "        break\n"
+                + "else:\n"
+                + "    print('unlimited')";
+        ExecutionResponse response = backend.execute(job("python", source, "", null, 5000)).join();
+
+        assertEquals("limited", response.getOutput().trim());
+    }
+
+    @Test
+    void testSupports_RefusesRuntimesThatNeedACgroupForMemoryLimits() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        LocalProcessExecutionBackend withoutCgroup = new LocalProcessExecutionBackend(
+                new CompiledArtifactCache(meterRegistry), new ExecutionPhaseMetrics(meterRegistry),
+                new OutputSpillStore(), true, List.of("javascript", "java", "go", "kotlin"),
+                System.getProperty("java.io.tmpdir") + "/code-compiler-test", "", 30000, 2, 65534, 65534);
+        try {
+            assertFalse(withoutCgroup.supports("javascript"));
+            assertFalse(withoutCgroup.supports("java"));
+            assertFalse(withoutCgroup.supports("go"));
+            assertFalse(withoutCgroup.supports("kotlin"));
+        } finally {
+            withoutCgroup.shutdown();
+        }
+    }
+
+    @Test
+    void testExecute_ReportsCompilationError() {
+        assumeTrue(backend.supports("c"));
+
+        ExecutionResponse response = backend.execute(job("c", "int main( { return 0; }", "", null, 5000))
+                .join();
+
+        assertEquals("Compilation Error", response.getStatus());
+        assertFalse(response.getOutput().isEmpty());
+    }
+
+    @Test
+    void testExecute_StreamsOutputWhileRunning() {
+        assumeTrue(backend.supports("python"));
+
+        List<String> events = new CopyOnWriteArrayList<>();
+        StringBuilder stdout = new StringBuilder();
+        ExecutionListener listener = new ExecutionListener() {
+            @Override
+            public void onStatus(String status) {
+                events.add(status);
+            }
+
+            @Override
+            public void onOutput(String stream, String chunk) {
+                if (STDOUT.equals(stream)) {
+                    synchronized (stdout) {
+                        stdout.append(chunk);
+                    }
+                }
+            }
+        };
+
+        String source = "import sys, time\nprint('héllo', flush=True)\ntime.sleep(0.2)\nprint('bye')";
+        ExecutionResponse response = backend.execute(job("python", source, "", null, 5000), listener).join();
+
+        assertEquals("Accepted", response.getStatus());
+        assertEquals(List.of("Running"), events);
+        assertEquals("héllo\nbye\n", stdout.toString());
+    }
+
+    private ExecutionJob job(String language, String source, String stdin, String expectedOutput, long timeoutMs) {
+        return ExecutionJob.builder()
+                .language(language)
+                .sourceCode(source)
+                .stdin(stdin)
+                .expectedOutput(expectedOutput)
+                .limits(new ExecutionLimits(timeoutMs, 128, 10 * 1024))
+                .build();
+    }
+}
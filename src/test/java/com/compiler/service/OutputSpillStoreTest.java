@@ -0,0 +1,62 @@
+package com.compiler.service;
+
+import com.compiler.dto.ExecutionResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutputSpillStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private OutputSpillStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new OutputSpillStore();
+        ReflectionTestUtils.setField(store, "enabled", true);
+        ReflectionTestUtils.setField(store, "directory", tempDir.toString());
+        ReflectionTestUtils.setField(store, "maxSpillBytes", 1024L * 1024);
+        store.init();
+    }
+
+    @Test
+    void testBound_KeepsPreviewInlineAndSpillsFullOutput() {
+        String line = "line ü\n";
+        ExecutionResponse response = new ExecutionResponse();
+        response.setOutput(line.repeat(10_000));
+
+        store.bound(response, 100);
+
+        long total = (long) line.getBytes(StandardCharsets.UTF_8).length * 10_000;
+        assertTrue(response.getOutputTruncated());
+        assertEquals(total, response.getOutputSize());
+        assertTrue(response.getOutput().getBytes(StandardCharsets.UTF_8).length <= 100);
+        assertTrue(line.repeat(20).startsWith(response.getOutput()));
+
+        byte[] range = store.read(response.getOutputBlob(), total - 8, 100).orElseThrow();
+        assertEquals(line, new String(range, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testCapture_StopsAcceptingPastHardLimit() {
+        ReflectionTestUtils.setField(store, "maxSpillBytes", 64L);
+        OutputSpillStore.Capture capture = store.open(16, true);
+
+        assertTrue(capture.write(new byte[40], 0, 40));
+        assertFalse(capture.write(new byte[40], 0, 40));
+
+        OutputSpillStore.CapturedOutput captured = capture.finish();
+        assertTrue(captured.isExceeded());
+        assertTrue(captured.isTruncated());
+        assertEquals(64, captured.getSize());
+        assertEquals(64, store.read(captured.getBlobId(), 0, 1000).orElseThrow().length);
+    }
+}
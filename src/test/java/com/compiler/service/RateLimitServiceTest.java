@@ -0,0 +1,76 @@
+package com.compiler.service;
+
+import com.compiler.dto.RateLimitStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitServiceTest {
+
+    private final AtomicLong now = new AtomicLong(TimeUnit.HOURS.toNanos(5));
+
+    private RateLimitService rateLimitService;
+
+    @BeforeEach
+    void setUp() {
+        rateLimitService = new RateLimitService(now::get);
+        ReflectionTestUtils.setField(rateLimitService, "requestsPerMinute", 60L);
+        ReflectionTestUtils.setField(rateLimitService, "burst", 3L);
+    }
+
+    @Test
+    void admitsTheBurstThenOnePerInterval() {
+        assertTrue(rateLimitService.isAllowed("alice"));
+        assertTrue(rateLimitService.isAllowed("alice"));
+        assertTrue(rateLimitService.isAllowed("alice"));
+        assertFalse(rateLimitService.isAllowed("alice"));
+        assertTrue(rateLimitService.isAllowed("bob"));
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(999));
+        assertFalse(rateLimitService.isAllowed("alice"));
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        assertTrue(rateLimitService.isAllowed("alice"));
+        assertFalse(rateLimitService.isAllowed("alice"));
+    }
+
+    @Test
+    void reportsRemainingQuotaAndReset() {
+        rateLimitService.isAllowed("alice");
+        rateLimitService.isAllowed("alice");
+
+        RateLimitStatus status = rateLimitService.getStatus("alice");
+
+        assertEquals(3, status.getLimit());
+        assertEquals(1, status.getRemaining());
+        assertEquals(2, status.getResetSeconds());
+        assertEquals(3, rateLimitService.getRemainingRequests("carol"));
+        assertEquals(0, rateLimitService.getStatus("carol").getResetSeconds());
+    }
+
+    @Test
+    void sweepDropsOnlyClientsWithAFullBurst() {
+        rateLimitService.isAllowed("alice");
+        rateLimitService.isAllowed("bob");
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        rateLimitService.isAllowed("bob");
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+
+        rateLimitService.expireIdleClients();
+
+        assertEquals(1, rateLimitService.getTrackedClients());
+        assertEquals(2, rateLimitService.getRemainingRequests("bob"));
+        assertTrue(rateLimitService.isAllowed("alice"));
+        assertEquals(2, rateLimitService.getTrackedClients());
+    }
+
+    @Test
+    void rejectsMissingIdentifier() {
+        assertFalse(rateLimitService.isAllowed(null));
+        assertFalse(rateLimitService.isAllowed(" "));
+    }
+}
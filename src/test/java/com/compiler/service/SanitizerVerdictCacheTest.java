@@ -0,0 +1,68 @@
+package com.compiler.service;
+
+import com.compiler.security.CodeSanitizer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SanitizerVerdictCacheTest {
+
+    @Mock
+    private CodeSanitizer codeSanitizer;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private SanitizerVerdictCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new SanitizerVerdictCache(codeSanitizer, meterRegistry);
+    }
+
+    @Test
+    void resubmittedCodeIsScannedOnce() {
+        when(codeSanitizer.getRuleSetVersion()).thenReturn("v1");
+        when(codeSanitizer.sanitizeCode("print(1)", "python")).thenReturn("print(1)");
+
+        assertEquals("print(1)", cache.sanitize("print(1)", "python"));
+        assertEquals("print(1)", cache.sanitize("print(1)", "Python"));
+
+        verify(codeSanitizer, times(1)).sanitizeCode("print(1)", "python");
+        assertEquals(1.0, meterRegistry.get("security.sanitizer.cache.requests").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void rejectionsAreCachedWithTheirMessage() {
+        when(codeSanitizer.getRuleSetVersion()).thenReturn("v1");
+        when(codeSanitizer.sanitizeCode("import os", "python"))
+                .thenThrow(new SecurityException("Dangerous Python operation detected: import os"));
+
+        SecurityException first = assertThrows(SecurityException.class, () -> cache.sanitize("import os", "python"));
+        SecurityException second = assertThrows(SecurityException.class, () -> cache.sanitize("import os", "python"));
+
+        assertEquals(first.getMessage(), second.getMessage());
+        verify(codeSanitizer, times(1)).sanitizeCode("import os", "python");
+    }
+
+    @Test
+    void ruleSetChangeInvalidatesVerdicts() {
+        when(codeSanitizer.getRuleSetVersion()).thenReturn("v1", "v2");
+        when(codeSanitizer.sanitizeCode("x = 1", "python")).thenReturn("x = 1");
+
+        cache.sanitize("x = 1", "python");
+        cache.sanitize("x = 1", "python");
+
+        verify(codeSanitizer, times(2)).sanitizeCode("x = 1", "python");
+        assertEquals(2, cache.getSize());
+    }
+}
@@ -0,0 +1,147 @@
+package com.compiler.service;
+
+import com.compiler.dto.ExecutionJob;
+import com.compiler.dto.ExecutionLimits;
+import com.compiler.dto.ExecutionResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WarmJvmExecutionBackendTest {
+
+    private static WarmJvmWorkerPool pool;
+    private static WarmJvmExecutionBackend backend;
+
+    @BeforeAll
+    static void setUp() throws InterruptedException {
+        pool = new WarmJvmWorkerPool(new ResourceLimitService());
+        ReflectionTestUtils.setField(pool, "enabled", true);
+        ReflectionTestUtils.setField(pool, "poolSize", 1);
+        ReflectionTestUtils.setField(pool, "maxRunsPerWorker", 100);
+        ReflectionTestUtils.setField(pool, "acquireTimeoutMs", 10000L);
+        pool.start();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        backend = new WarmJvmExecutionBackend(new InMemoryJavaCompiler(), pool,
+                new CompiledArtifactCache(meterRegistry), new ExecutionPhaseMetrics(meterRegistry),
+                new OutputSpillStore(), 1);
+
+        long deadline = System.currentTimeMillis() + 15000;
+        while (!backend.supports("java") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+    }
+
+    @AfterAll
+    static void tearDown() {
+        backend.shutdown();
+        pool.shutdown();
+    }
+
+    @Test
+    void testExecute_RunsProgramWithStdin() {
+        ExecutionResponse response = backend.execute(job("""
+                import java.util.Scanner;
+                public class Solution {
+                    public static void main(String[] args) {
+                        Scanner in = new Scanner(System.in);
+                        System.out.println(in.nextInt() + in.nextInt());
+                    }
+                }
+                """, "2 3", "5", 5000)).join();
+
+        assertEquals("Accepted", response.getStatus());
+        assertEquals("5", response.getOutput());
+        assertTrue(response.getIsCorrect());
+    }
+
+    @Test
+    void testExecute_ReportsCompilationError() {
+        ExecutionResponse response = backend.execute(job(
+                "public class Main { public static void main(String[] a) { int x = \"s\"; } }", "", null, 5000)).join();
+
+        assertEquals("Compilation Error", response.getStatus());
+        assertTrue(response.getOutput().contains("Main.java:1: error"));
+    }
+
+    @Test
+    void testExecute_InterceptsSystemExit() {
+        ExecutionResponse response = backend.execute(job(
+                "public class Main { public static void main(String[] a) { System.out.println(1); System.exit(3); } }",
+                "", null, 5000)).join();
+
+        assertEquals("Runtime Error (NZEC)", response.getStatus());
+        assertEquals("1", response.getOutput());
+    }
+
+    @Test
+    void testExecute_KillsRunawayProgramAndRecovers() {
+        ExecutionResponse response = backend.execute(job(
+                "public class Main { public static void main(String[] a) { while (true) { } } }", "", null, 300)).join();
+
+        assertEquals("Time Limit Exceeded", response.getStatus());
+
+        ExecutionResponse next = backend.execute(job(
+                "public class Main { public static void main(String[] a) { System.out.println(\"ok\"); } }",
+                "", null, 5000)).join();
+        assertEquals("ok", next.getOutput());
+    }
+
+    @Test
+    void testExecute_BlocksFileSystemWrites() {
+        ExecutionResponse response = backend.execute(job("""
+                public class Main {
+                    public static void main(String[] args) throws Exception {
+                        java.nio.file.Files.writeString(java.nio.file.Path.of("/tmp/escape.txt"), "x");
+                    }
+                }
+                """, "", null, 5000)).join();
+
+        assertEquals("Runtime Error (NZEC)", response.getStatus());
+        assertTrue(response.getError().contains("AccessControlException"));
+    }
+
+    @Test
+    void testExecute_BlocksExecFromThreadsOutsideTheSubmissionGroup() {
+        ExecutionResponse response = backend.execute(job("""
+                public class Main {
+                    static void exec(String from) {
+                        try {
+                            Runtime.getRuntime().exec(new String[]{"id"}).waitFor();
+                            System.out.println(from + ": ran");
+                        } catch (Exception e) {
+                            System.out.println(from + ": denied");
+                        }
+                    }
+
+                    public static void main(String[] args) throws Exception {
+                        try {
+                            Thread escaped = new Thread(Thread.currentThread().getThreadGroup().getParent(),
+                                    () -> exec("parent group"));
+                            escaped.start();
+                            escaped.join();
+                        } catch (SecurityException e) {
+                            System.out.println("parent group: no thread");
+                        }
+                        java.util.concurrent.CompletableFuture.runAsync(() -> exec("common pool")).join();
+                    }
+                }
+                """, "", null, 5000)).join();
+
+        assertEquals("Accepted", response.getStatus());
+        assertEquals("parent group: no thread\ncommon pool: denied", response.getOutput());
+    }
+
+    private ExecutionJob job(String source, String stdin, String expectedOutput, long timeoutMs) {
+        return ExecutionJob.builder()
+                .language("java")
+                .sourceCode(source)
+                .stdin(stdin)
+                .expectedOutput(expectedOutput)
+                .limits(new ExecutionLimits(timeoutMs, 128, 10 * 1024))
+                .build();
+    }
+}